@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the compiler on synthetic clients of a synthetic binary library, and on the corpus.
+ * <p>
+ * Resolving the clients measures the binding resolution against the library class files, compiling them
+ * adds flow analysis and code generation. Compiling the corpus runs the whole pipeline on real code.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+public class CompilerBenchmark {
+
+	@Param({"500"})
+	public int libraryTypes;
+
+	@Param({"200"})
+	public int clients;
+
+	File libraryDirectory;
+	CompilationUnit[] clientUnits;
+	CompilationUnit[] corpusUnits;
+	FileSystem clientEnvironment;
+	FileSystem corpusEnvironment;
+	CompilerOptions options;
+	int generatedBytes;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.libraryDirectory = File.createTempFile("jdtbench", null); //$NON-NLS-1$
+		this.libraryDirectory.delete();
+		Corpus.compileSyntheticLibrary(this.libraryDirectory, this.libraryTypes);
+		this.clientUnits = Corpus.syntheticClients(this.clients, this.libraryTypes);
+		this.corpusUnits = Corpus.sources();
+		this.clientEnvironment = Corpus.environment(this.clientUnits, new File[] { Corpus.binaries(this.libraryDirectory) });
+		this.corpusEnvironment = Corpus.environment(this.corpusUnits, new File[0]);
+		this.options = Corpus.options();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.clientEnvironment.cleanup();
+		this.corpusEnvironment.cleanup();
+		Corpus.delete(this.libraryDirectory);
+	}
+
+	private Compiler newCompiler(FileSystem environment) {
+		final Compiler[] compiler = new Compiler[1];
+		compiler[0] = new Compiler(
+			environment,
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			this.options,
+			new ICompilerRequestor() {
+				public void acceptResult(CompilationResult result) {
+					ClassFile[] classFiles = result.getClassFiles();
+					for (int i = 0; i < classFiles.length; i++)
+						CompilerBenchmark.this.generatedBytes += classFiles[i].getBytes().length;
+					compiler[0].lookupEnvironment.releaseClassFiles(classFiles);
+				}
+			},
+			new DefaultProblemFactory());
+		return compiler[0];
+	}
+
+	@Benchmark
+	public int resolveClients() {
+		Compiler compiler = newCompiler(this.clientEnvironment);
+		try {
+			for (int i = 0; i < this.clientUnits.length; i++)
+				compiler.resolve(this.clientUnits[i], true/*verify methods*/, false/*analyze code*/, false/*generate code*/);
+		} finally {
+			compiler.reset();
+		}
+		return compiler.lookupEnvironment.typeCacheHits;
+	}
+
+	@Benchmark
+	public int compileClients() {
+		this.generatedBytes = 0;
+		newCompiler(this.clientEnvironment).compile((CompilationUnit[]) this.clientUnits.clone()); // the compiler releases the units it read
+		return this.generatedBytes;
+	}
+
+	@Benchmark
+	public int compileCorpus() {
+		this.generatedBytes = 0;
+		newCompiler(this.corpusEnvironment).compile((CompilationUnit[]) this.corpusUnits.clone());
+		return this.generatedBytes;
+	}
+}
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * The inputs shared by the benchmarks.
+ * <p>
+ * The bundled corpus is a fixed snapshot of sources of the compiler itself, checked in under
+ * <code>src/main/resources/corpus</code>, so that the results stay comparable while the compiler changes.
+ * The synthetic library and its clients are generated from their sizes only, so that every run sees the same code.
+ * </p>
+ */
+public final class Corpus {
+
+	static final String[] FILES = {
+		"org/eclipse/jdt/core/compiler/CharOperation.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/ClassFile.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/ast/ASTNode.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/codegen/CodeStream.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/lookup/Scope.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/util/HashtableOfObject.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/util/SimpleLookupTable.java", //$NON-NLS-1$
+		"org/eclipse/jdt/internal/compiler/util/Util.java", //$NON-NLS-1$
+	};
+
+	static final int PACKAGES = 10;
+
+private Corpus() {
+	// not instantiable
+}
+
+/**
+ * Answer the units of the bundled corpus.
+ */
+public static CompilationUnit[] sources() throws IOException {
+	CompilationUnit[] units = new CompilationUnit[FILES.length];
+	for (int i = 0; i < FILES.length; i++) {
+		InputStream stream = Corpus.class.getClassLoader().getResourceAsStream("corpus/" + FILES[i]); //$NON-NLS-1$
+		if (stream == null)
+			throw new IOException("Missing corpus file " + FILES[i]); //$NON-NLS-1$
+		try {
+			char[] contents = Util.getInputStreamAsCharArray(stream, -1, "UTF-8"); //$NON-NLS-1$
+			units[i] = new CompilationUnit(contents, FILES[i], "UTF-8"); //$NON-NLS-1$
+		} finally {
+			stream.close();
+		}
+	}
+	return units;
+}
+
+/**
+ * Generate the given number of library types, spread over a few packages, and compile them into the given directory.
+ * Each type has fields and methods referring to other library types.
+ */
+public static void compileSyntheticLibrary(File directory, int typeCount) throws IOException {
+	File sourceDirectory = new File(directory, "src"); //$NON-NLS-1$
+	File binaryDirectory = new File(directory, "bin"); //$NON-NLS-1$
+	ArrayList arguments = new ArrayList();
+	arguments.add("-1.5"); //$NON-NLS-1$
+	arguments.add("-nowarn"); //$NON-NLS-1$
+	arguments.add("-d"); //$NON-NLS-1$
+	arguments.add(binaryDirectory.getPath());
+	for (int i = 0; i < typeCount; i++) {
+		File file = new File(sourceDirectory, "lib/p" + (i % PACKAGES) + "/Type" + i + ".java"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		file.getParentFile().mkdirs();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+		try {
+			writer.write(libraryType(i, typeCount));
+		} finally {
+			writer.close();
+		}
+		arguments.add(file.getPath());
+	}
+	StringWriter errors = new StringWriter();
+	if (!BatchCompiler.compile((String[]) arguments.toArray(new String[arguments.size()]), new PrintWriter(new StringWriter()), new PrintWriter(errors), null))
+		throw new IOException("Cannot compile the synthetic library:\n" + errors); //$NON-NLS-1$
+}
+
+/**
+ * Answer the binary directory of a library compiled by {@link #compileSyntheticLibrary(File, int)}.
+ */
+public static File binaries(File directory) {
+	return new File(directory, "bin"); //$NON-NLS-1$
+}
+
+/**
+ * Delete the given file or directory, with its contents.
+ */
+public static void delete(File file) {
+	File[] children = file.listFiles();
+	if (children != null)
+		for (int i = 0; i < children.length; i++)
+			delete(children[i]);
+	file.delete();
+}
+
+static String typeName(int i) {
+	return "lib.p" + (i % PACKAGES) + ".Type" + i; //$NON-NLS-1$ //$NON-NLS-2$
+}
+
+static String libraryType(int i, int typeCount) {
+	String next = typeName((i + 1) % typeCount);
+	String other = typeName((i * 7 + 3) % typeCount);
+	StringBuffer buffer = new StringBuffer();
+	buffer.append("package lib.p").append(i % PACKAGES).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	buffer.append("public class Type").append(i).append(" implements Comparable<Type").append(i).append("> {\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	buffer.append("\tpublic ").append(next).append(" next;\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	buffer.append("\tpublic java.util.List<").append(other).append("> others = new java.util.ArrayList<").append(other).append(">();\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	buffer.append("\tpublic int value;\n"); //$NON-NLS-1$
+	buffer.append("\tpublic ").append(next).append(" next() { return this.next; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	buffer.append("\tpublic Type").append(i).append(" add(").append(other).append(" other) { this.others.add(other); return this; }\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	buffer.append("\tpublic int compareTo(Type").append(i).append(" o) { return this.value - o.value; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	buffer.append("\tpublic static int compute(int x) { return x * ").append(i + 1).append("; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	buffer.append("}\n"); //$NON-NLS-1$
+	return buffer.toString();
+}
+
+/**
+ * Answer client units of a library generated by {@link #compileSyntheticLibrary(File, int)}, each referring
+ * to a few of its types.
+ */
+public static CompilationUnit[] syntheticClients(int clientCount, int typeCount) {
+	CompilationUnit[] units = new CompilationUnit[clientCount];
+	for (int i = 0; i < clientCount; i++) {
+		String first = typeName((i * 13) % typeCount);
+		String second = typeName((i * 13 + 5) % typeCount);
+		String third = typeName((i * 31 + 11) % typeCount);
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("package client;\n"); //$NON-NLS-1$
+		buffer.append("public class Client").append(i).append(" {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		buffer.append("\tint run(").append(first).append(" a, ").append(second).append(" b, java.util.List<").append(third).append("> list) {\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		buffer.append("\t\tint result = a.compareTo(a) + b.next().value;\n"); //$NON-NLS-1$
+		buffer.append("\t\tfor (").append(third).append(" t : list)\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		buffer.append("\t\t\tresult += t.next().value + t.others.size();\n"); //$NON-NLS-1$
+		buffer.append("\t\tjava.util.Map<String, ").append(second).append("> map = new java.util.HashMap<String, ").append(second).append(">();\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		buffer.append("\t\tmap.put(\"b\", b);\n"); //$NON-NLS-1$
+		buffer.append("\t\treturn result + ").append(first).append(".compute(map.size());\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		buffer.append("\t}\n"); //$NON-NLS-1$
+		buffer.append("}\n"); //$NON-NLS-1$
+		units[i] = new CompilationUnit(buffer.toString().toCharArray(), "client/Client" + i + ".java", "UTF-8"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+	return units;
+}
+
+/**
+ * Answer a name environment made of the JRE libraries, the class path of the running VM and the given entries.
+ */
+public static FileSystem environment(CompilationUnit[] units, File[] entries) {
+	ArrayList paths = new ArrayList();
+	addPaths(paths, System.getProperty("sun.boot.class.path")); //$NON-NLS-1$
+	addPaths(paths, System.getProperty("java.class.path")); //$NON-NLS-1$
+	for (int i = 0; i < entries.length; i++)
+		paths.add(entries[i].getPath());
+	String[] fileNames = new String[units.length];
+	for (int i = 0; i < units.length; i++)
+		fileNames[i] = new String(units[i].getFileName());
+	return new FileSystem((String[]) paths.toArray(new String[paths.size()]), fileNames, "UTF-8"); //$NON-NLS-1$
+}
+
+private static void addPaths(ArrayList paths, String classpath) {
+	if (classpath == null) return;
+	String[] entries = classpath.split(File.pathSeparator);
+	for (int i = 0; i < entries.length; i++)
+		if (entries[i].length() > 0 && new File(entries[i]).exists())
+			paths.add(entries[i]);
+}
+
+/**
+ * Answer the options of a 1.5 compilation.
+ */
+public static CompilerOptions options() {
+	Map settings = new HashMap();
+	settings.put(CompilerOptions.OPTION_Compliance, CompilerOptions.VERSION_1_5);
+	settings.put(CompilerOptions.OPTION_Source, CompilerOptions.VERSION_1_5);
+	settings.put(CompilerOptions.OPTION_TargetPlatform, CompilerOptions.VERSION_1_5);
+	return new CompilerOptions(settings);
+}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Queries a saved index, reopened from its file, with exact, prefix, pattern and camel case keys.
+ * <p>
+ * The index is filled with type declarations and references named after the synthetic library,
+ * spread over the given number of documents.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DiskIndexBenchmark {
+
+	static final char[][] TYPE_DECL_CATEGORIES = { IIndexConstants.TYPE_DECL };
+	static final char[][] REF_CATEGORIES = { IIndexConstants.REF };
+
+	@Param({"2000"})
+	public int documents;
+
+	@Param({"20"})
+	public int entriesPerDocument;
+
+	File indexFile;
+	Index index;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.indexFile = File.createTempFile("jdtbench", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		this.indexFile.delete();
+		Index writer = new Index(new FileIndexLocation(this.indexFile), "bench", false); //$NON-NLS-1$
+		int typeCount = this.documents * this.entriesPerDocument;
+		for (int i = 0; i < this.documents; i++) {
+			String document = "p" + (i % Corpus.PACKAGES) + "/Document" + i + ".java"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			for (int j = 0; j < this.entriesPerDocument; j++) {
+				int type = i * this.entriesPerDocument + j;
+				writer.addIndexEntry(IIndexConstants.TYPE_DECL, ("Type" + type + "/lib.p" + (type % Corpus.PACKAGES) + "/C").toCharArray(), document); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				writer.addIndexEntry(IIndexConstants.REF, ("Type" + ((type * 7 + 3) % typeCount)).toCharArray(), document); //$NON-NLS-1$
+			}
+		}
+		writer.save();
+		this.index = new Index(new FileIndexLocation(this.indexFile), "bench", true); //$NON-NLS-1$
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.indexFile.delete();
+	}
+
+	@Benchmark
+	public EntryResult[] exactReference() throws IOException {
+		return this.index.query(REF_CATEGORIES, "Type1234".toCharArray(), SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public EntryResult[] prefixDeclaration() throws IOException {
+		return this.index.query(TYPE_DECL_CATEGORIES, "Type12".toCharArray(), SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public EntryResult[] patternDeclaration() throws IOException {
+		return this.index.query(TYPE_DECL_CATEGORIES, "Type*4/lib.p3/*".toCharArray(), SearchPattern.R_PATTERN_MATCH); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public EntryResult[] camelCaseDeclaration() throws IOException {
+		return this.index.query(TYPE_DECL_CATEGORIES, "Ty".toCharArray(), SearchPattern.R_CAMELCASE_MATCH); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public EntryResult[] allReferences() throws IOException {
+		return this.index.query(REF_CATEGORIES, null, SearchPattern.R_PATTERN_MATCH);
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses the corpus, either with a diet parse which skips the method bodies, or with a full parse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ParserBenchmark {
+
+	CompilationUnit[] units;
+	Parser parser;
+	CompilerOptions options;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.units = Corpus.sources();
+		this.options = Corpus.options();
+		ProblemReporter problemReporter = new ProblemReporter(
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			this.options,
+			new DefaultProblemFactory());
+		this.parser = new Parser(problemReporter, this.options.parseLiteralExpressionsAsConstants);
+	}
+
+	@Benchmark
+	public void dietParse(Blackhole blackhole) {
+		for (int i = 0; i < this.units.length; i++) {
+			CompilationResult result = new CompilationResult(this.units[i], i, this.units.length, this.options.maxProblemsPerUnit);
+			blackhole.consume(this.parser.dietParse(this.units[i], result));
+		}
+	}
+
+	@Benchmark
+	public void dietParseThenMethodBodies(Blackhole blackhole) {
+		for (int i = 0; i < this.units.length; i++) {
+			CompilationResult result = new CompilationResult(this.units[i], i, this.units.length, this.options.maxProblemsPerUnit);
+			CompilationUnitDeclaration unit = this.parser.dietParse(this.units[i], result);
+			this.parser.getMethodBodies(unit);
+			blackhole.consume(unit);
+		}
+	}
+
+	@Benchmark
+	public void fullParse(Blackhole blackhole) {
+		for (int i = 0; i < this.units.length; i++) {
+			CompilationResult result = new CompilationResult(this.units[i], i, this.units.length, this.options.maxProblemsPerUnit);
+			blackhole.consume(this.parser.parse(this.units[i], result));
+		}
+	}
+}
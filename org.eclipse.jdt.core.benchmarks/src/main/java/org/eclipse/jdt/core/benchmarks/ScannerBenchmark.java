@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tokenizes the corpus with {@link Scanner#getNextToken()}, with and without comments and white spaces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ScannerBenchmark {
+
+	char[][] sources;
+	Scanner scanner;
+	Scanner fullScanner;
+
+	@Setup
+	public void setUp() throws IOException {
+		CompilationUnit[] units = Corpus.sources();
+		this.sources = new char[units.length][];
+		for (int i = 0; i < units.length; i++)
+			this.sources[i] = units[i].getContents();
+		this.scanner = new Scanner(false, false, false, ClassFileConstants.JDK1_5, null, null, true);
+		this.fullScanner = new Scanner(true, true, false, ClassFileConstants.JDK1_5, null, null, true);
+	}
+
+	@Benchmark
+	public int tokenize() throws InvalidInputException {
+		return tokenize(this.scanner);
+	}
+
+	@Benchmark
+	public int tokenizeWithCommentsAndWhiteSpaces() throws InvalidInputException {
+		return tokenize(this.fullScanner);
+	}
+
+	private int tokenize(Scanner tokenizer) throws InvalidInputException {
+		int count = 0;
+		for (int i = 0; i < this.sources.length; i++) {
+			tokenizer.setSource(this.sources[i]);
+			while (tokenizer.getNextToken() != TerminalTokens.TokenNameEOF)
+				count++;
+		}
+		return count;
+	}
+}
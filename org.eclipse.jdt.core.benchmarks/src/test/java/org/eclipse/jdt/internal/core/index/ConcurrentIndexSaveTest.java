@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+
+/**
+ * Queries an index while it is saved: the queries keep reading the mapped file of the previous disk index,
+ * which is deleted and replaced by the merged one. Every disk index starts without cached word directories.
+ */
+public class ConcurrentIndexSaveTest extends TestCase {
+
+	static final int CATEGORIES = 200;
+	static final int SAVES = 50;
+	static final int READERS = 4;
+	static final char[] KEY = "Object".toCharArray(); //$NON-NLS-1$
+
+	private boolean mapIndexFiles;
+	private File indexFile;
+	volatile boolean saving;
+
+	public ConcurrentIndexSaveTest(String name) {
+		super(name);
+	}
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.mapIndexFiles = DiskIndex.MAP_INDEX_FILES;
+		DiskIndex.MAP_INDEX_FILES = true;
+		this.indexFile = File.createTempFile("jdtindex", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		this.indexFile.delete();
+	}
+	protected void tearDown() throws Exception {
+		DiskIndex.MAP_INDEX_FILES = this.mapIndexFiles;
+		this.indexFile.delete();
+		super.tearDown();
+	}
+	static char[] category(int i) {
+		return ("category" + i).toCharArray(); //$NON-NLS-1$
+	}
+	static void addDocuments(Index index, int first) {
+		for (int i = 0; i < CATEGORIES; i++)
+			index.addIndexEntry(category(i), KEY, "doc" + (first + i)); //$NON-NLS-1$
+	}
+	static EntryResult[] query(Index index, char[] category) throws IOException {
+		return index.query(new char[][] {category}, KEY, SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+	}
+	/*
+	 * The state seen by the queries while a save replaces the file: the index file is deleted, and the word directories
+	 * are read from the mapping.
+	 */
+	public void testQueryUncachedCategoriesOfDeletedFile() throws Exception {
+		Index index = new Index(new FileIndexLocation(this.indexFile), "container", false); //$NON-NLS-1$
+		addDocuments(index, 0);
+		index.save();
+		assertTrue("the index can be read while merging", index.diskIndex.isReadableWhileMerging()); //$NON-NLS-1$
+		if (!this.indexFile.delete())
+			return; // mapped files cannot be deleted on this platform
+		for (int i = 0; i < CATEGORIES; i++) {
+			EntryResult[] results = query(index, category(i));
+			assertEquals("entries in category" + i, 1, results == null ? 0 : results.length); //$NON-NLS-1$
+		}
+	}
+	/*
+	 * The queries read the word directories of the categories while the index keeps being saved.
+	 */
+	public void testQueryUncachedCategoriesWhileSaving() throws Exception {
+		final Index index = new Index(new FileIndexLocation(this.indexFile), "container", false); //$NON-NLS-1$
+		addDocuments(index, 0);
+		index.save(); // the disk index is now mapped, so it can be read while merging
+		assertTrue("the index can be read while merging", index.diskIndex.isReadableWhileMerging()); //$NON-NLS-1$
+
+		final List failures = Collections.synchronizedList(new ArrayList());
+		Thread[] readers = new Thread[READERS];
+		this.saving = true;
+		for (int t = 0; t < READERS; t++) {
+			final Random random = new Random(t);
+			readers[t] = new Thread("Index reader " + t) { //$NON-NLS-1$
+				public void run() {
+					while (ConcurrentIndexSaveTest.this.saving) {
+						index.monitor.enterRead();
+						try {
+							int first = random.nextInt(CATEGORIES);
+							for (int i = 0; i < 10; i++) {
+								char[] category = category((first + i) % CATEGORIES);
+								EntryResult[] results = query(index, category);
+								if (results == null || results.length != 1)
+									failures.add("no entry in " + new String(category)); //$NON-NLS-1$
+							}
+						} catch (Exception e) {
+							failures.add(e.toString());
+						} finally {
+							index.monitor.exitRead();
+						}
+						Thread.yield(); // the monitor does not prefer writers
+					}
+				}
+			};
+			readers[t].start();
+		}
+		try {
+			for (int i = 1; i <= SAVES; i++) {
+				index.monitor.enterWrite();
+				try {
+					addDocuments(index, i * CATEGORIES);
+					index.save();
+				} finally {
+					index.monitor.exitWrite();
+				}
+			}
+		} finally {
+			this.saving = false;
+			for (int t = 0; t < READERS; t++)
+				readers[t].join();
+		}
+		assertEquals("failed queries", Collections.EMPTY_LIST, failures); //$NON-NLS-1$
+		assertEquals("saved documents", (SAVES + 1) * CATEGORIES, index.queryDocumentNames("").length); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
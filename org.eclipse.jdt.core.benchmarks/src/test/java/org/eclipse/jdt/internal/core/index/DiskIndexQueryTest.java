@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+
+/**
+ * Queries a saved index, reopened from its file, and compares its answers with a scan of the entries added to it.
+ * The index is filled like the one of the DiskIndexBenchmark, so that the keys span many blocks of the index file.
+ */
+public class DiskIndexQueryTest extends TestCase {
+
+	static final char[][] TYPE_DECL_CATEGORIES = { IIndexConstants.TYPE_DECL };
+	static final char[][] REF_CATEGORIES = { IIndexConstants.REF };
+	static final int DOCUMENTS = 2000;
+	static final int ENTRIES_PER_DOCUMENT = 20;
+	static final int PACKAGES = 10;
+	static final int TYPES = DOCUMENTS * ENTRIES_PER_DOCUMENT;
+
+	private File indexFile;
+	private Index index;
+	private Map declarations; // key -> Set of document names
+	private Map references;
+
+	public DiskIndexQueryTest(String name) {
+		super(name);
+	}
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.indexFile = File.createTempFile("jdtindex", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		this.indexFile.delete();
+		this.declarations = new HashMap();
+		this.references = new HashMap();
+		Index writer = new Index(new FileIndexLocation(this.indexFile), "container", false); //$NON-NLS-1$
+		for (int i = 0; i < DOCUMENTS; i++) {
+			String document = "p" + (i % PACKAGES) + "/Document" + i + ".java"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			for (int j = 0; j < ENTRIES_PER_DOCUMENT; j++) {
+				int type = i * ENTRIES_PER_DOCUMENT + j;
+				String declaration = "Type" + type + "/lib.p" + (type % PACKAGES) + "/C"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				String reference = "Type" + ((type * 7 + 3) % TYPES); //$NON-NLS-1$
+				writer.addIndexEntry(IIndexConstants.TYPE_DECL, declaration.toCharArray(), document);
+				writer.addIndexEntry(IIndexConstants.REF, reference.toCharArray(), document);
+				addEntry(this.declarations, declaration, document);
+				addEntry(this.references, reference, document);
+			}
+		}
+		writer.save();
+		this.index = new Index(new FileIndexLocation(this.indexFile), "container", true); //$NON-NLS-1$
+	}
+	protected void tearDown() throws Exception {
+		this.indexFile.delete();
+		super.tearDown();
+	}
+	private static void addEntry(Map entries, String key, String document) {
+		Set documents = (Set) entries.get(key);
+		if (documents == null)
+			entries.put(key, documents = new HashSet());
+		documents.add(document);
+	}
+	/*
+	 * Check that the index answers the given query with the entries a scan of all the given ones matches.
+	 */
+	private void assertQuery(char[][] categories, Map entries, String key, int matchRule) throws IOException {
+		char[] pattern = key == null ? null : key.toCharArray();
+		Map expected = new HashMap();
+		for (Iterator iterator = entries.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			if (Index.isMatch(pattern, ((String) entry.getKey()).toCharArray(), matchRule))
+				expected.put(entry.getKey(), entry.getValue());
+		}
+		Map actual = new HashMap();
+		EntryResult[] results = this.index.query(categories, pattern, matchRule);
+		if (results != null)
+			for (int i = 0, length = results.length; i < length; i++)
+				actual.put(new String(results[i].getWord()), new HashSet(Arrays.asList(results[i].getDocumentNames(this.index))));
+		assertEquals("entries matching " + key, expected, actual); //$NON-NLS-1$
+	}
+	public void testExactMatch() throws IOException {
+		assertQuery(REF_CATEGORIES, this.references, "Type1234", SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+	public void testExactMatchOfMissingKey() throws IOException {
+		assertQuery(REF_CATEGORIES, this.references, "Type" + TYPES, SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+	public void testPrefixMatch() throws IOException {
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "Type12", SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "type3", SearchPattern.R_PREFIX_MATCH); //$NON-NLS-1$
+	}
+	public void testPatternMatch() throws IOException {
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "Type*4/lib.p3/*", SearchPattern.R_PATTERN_MATCH); //$NON-NLS-1$
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "*99/*", SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+	public void testCamelCaseMatch() throws IOException {
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "Ty", SearchPattern.R_CAMELCASE_MATCH); //$NON-NLS-1$
+		assertQuery(TYPE_DECL_CATEGORIES, this.declarations, "Type77", SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE); //$NON-NLS-1$
+	}
+	public void testAllEntries() throws IOException {
+		assertQuery(REF_CATEGORIES, this.references, null, SearchPattern.R_PATTERN_MATCH);
+	}
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Writes the class files produced by the batch compiler, either into a directory or into a jar or
+ * zip file when the destination path names one.
+ * <p>
+ * Writes are handed over to a pool of writing threads, so that the compiler does not wait for the file
+ * system; with no writing thread, each class file is written when it is submitted. Output directories are
+ * created once per package, and all the class files of an archive go through a single {@link ZipOutputStream}.
+ * </p>
+ * <p>
+ * Failures are not reported by the writing threads: they are collected and answered by {@link #flush()},
+ * which waits until all the submitted class files have been written.
+ * </p>
+ */
+public class ClassFileWriter implements Runnable {
+
+	public static class Failure {
+		public String destinationPath;
+		public String relativeFileName;
+		public IOException exception;
+
+		Failure(String destinationPath, String relativeFileName, IOException exception) {
+			this.destinationPath = destinationPath;
+			this.relativeFileName = relativeFileName;
+			this.exception = exception;
+		}
+	}
+
+	static class Entry {
+		boolean generatePackagesStructure;
+		String destinationPath;
+		String relativeFileName;
+		byte[] bytes;
+
+		Entry(boolean generatePackagesStructure, String destinationPath, String relativeFileName, byte[] bytes) {
+			this.generatePackagesStructure = generatePackagesStructure;
+			this.destinationPath = destinationPath;
+			this.relativeFileName = relativeFileName;
+			this.bytes = bytes;
+		}
+	}
+
+	static final int MAX_PENDING_ENTRIES = 256; // do not keep too many class files around when the file system is slow
+	static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
+	static final Object NOT_AN_ARCHIVE = new Object();
+
+	LinkedList pendingEntries;
+	int entriesInProgress;
+	ArrayList failures;
+	Thread[] writingThreads;
+
+	Set createdDirectories; // destination path + package path
+	Map archives; // destination path -> ZipOutputStream or NOT_AN_ARCHIVE
+
+public ClassFileWriter(int threadCount) {
+	this.pendingEntries = new LinkedList();
+	this.failures = new ArrayList();
+	this.createdDirectories = new HashSet();
+	this.archives = new HashMap();
+	if (threadCount > 0) {
+		this.writingThreads = new Thread[threadCount];
+		for (int i = threadCount; --i >= 0;) {
+			this.writingThreads[i] = new Thread(this, "Compiler Class File Writer"); //$NON-NLS-1$
+			this.writingThreads[i].setDaemon(true);
+			this.writingThreads[i].start();
+		}
+	}
+}
+
+/**
+ * Answer whether the given destination path names a jar or zip file rather than a directory.
+ */
+public static boolean isArchive(String destinationPath) {
+	String lowerCasePath = destinationPath.toLowerCase();
+	return (lowerCasePath.endsWith(".jar") || lowerCasePath.endsWith(".zip")) //$NON-NLS-1$ //$NON-NLS-2$
+		&& !new File(destinationPath).isDirectory();
+}
+
+/**
+ * Write the given class file contents to the given destination, or schedule their writing if there are writing threads.
+ * The contents must not be modified afterwards.
+ */
+public void write(boolean generatePackagesStructure, String destinationPath, String relativeFileName, byte[] bytes) {
+	Entry entry = new Entry(generatePackagesStructure, destinationPath, relativeFileName, bytes);
+	synchronized (this) {
+		if (this.writingThreads != null) {
+			while (this.pendingEntries.size() >= MAX_PENDING_ENTRIES) {
+				try {
+					wait(250); // wait until the writing threads catch up
+				} catch (InterruptedException ignore) {
+					// ignore
+				}
+			}
+			this.pendingEntries.addLast(entry);
+			notifyAll();
+			return;
+		}
+	}
+	writeEntry(entry);
+}
+
+/**
+ * Wait until all the submitted class files have been written, and answer the failures met since the last flush.
+ */
+public Failure[] flush() {
+	synchronized (this) {
+		while (!this.pendingEntries.isEmpty() || this.entriesInProgress > 0) {
+			try {
+				wait(250);
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+		}
+		Failure[] result = new Failure[this.failures.size()];
+		this.failures.toArray(result);
+		this.failures.clear();
+		return result;
+	}
+}
+
+/**
+ * Write the pending class files, stop the writing threads and close the archives, then answer the failures met
+ * since the last flush.
+ */
+public Failure[] close() {
+	synchronized (this) {
+		while (!this.pendingEntries.isEmpty() || this.entriesInProgress > 0) {
+			try {
+				wait(250);
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+		}
+		this.writingThreads = null; // mark the writer as closed so that the writing threads stop
+		notifyAll();
+	}
+	synchronized (this.archives) {
+		for (Iterator iterator = this.archives.entrySet().iterator(); iterator.hasNext(); ) {
+			Map.Entry archive = (Map.Entry) iterator.next();
+			if (archive.getValue() == NOT_AN_ARCHIVE) continue;
+			try {
+				((ZipOutputStream) archive.getValue()).close();
+			} catch (IOException e) {
+				File file = new File((String) archive.getKey());
+				recordFailure(new Failure(file.getParent(), file.getName(), e));
+			}
+		}
+		this.archives.clear();
+	}
+	return flush();
+}
+
+public void run() {
+	while (true) {
+		Entry entry = null;
+		synchronized (this) {
+			while (this.pendingEntries.isEmpty()) {
+				if (this.writingThreads == null) return;
+				try {
+					wait(250);
+				} catch (InterruptedException ignore) {
+					// ignore
+				}
+			}
+			entry = (Entry) this.pendingEntries.removeFirst();
+			this.entriesInProgress++;
+			notifyAll(); // let the compiler submit more class files
+		}
+		try {
+			writeEntry(entry);
+		} finally {
+			synchronized (this) {
+				this.entriesInProgress--;
+				notifyAll(); // wake up flush()
+			}
+		}
+	}
+}
+
+void writeEntry(Entry entry) {
+	try {
+		ZipOutputStream archive = getArchive(entry.destinationPath);
+		if (archive != null) {
+			ZipEntry zipEntry = new ZipEntry(entry.relativeFileName.replace(File.separatorChar, '/'));
+			synchronized (archive) {
+				archive.putNextEntry(zipEntry);
+				archive.write(entry.bytes);
+				archive.closeEntry();
+			}
+			return;
+		}
+		FileOutputStream output = new FileOutputStream(getFileName(entry));
+		try {
+			output.write(entry.bytes);
+		} finally {
+			output.close();
+		}
+	} catch (IOException e) {
+		recordFailure(new Failure(entry.destinationPath, entry.relativeFileName, e));
+	}
+}
+
+/*
+ * Answer the opened archive of the given destination, or null if it is a directory.
+ */
+private ZipOutputStream getArchive(String destinationPath) throws IOException {
+	synchronized (this.archives) {
+		Object archive = this.archives.get(destinationPath);
+		if (archive == null) {
+			if (isArchive(destinationPath)) {
+				File file = new File(destinationPath);
+				File parent = file.getAbsoluteFile().getParentFile();
+				if (parent != null)
+					parent.mkdirs();
+				archive = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file), ARCHIVE_BUFFER_SIZE));
+			} else {
+				archive = NOT_AN_ARCHIVE;
+			}
+			this.archives.put(destinationPath, archive);
+		}
+		return archive == NOT_AN_ARCHIVE ? null : (ZipOutputStream) archive;
+	}
+}
+
+/*
+ * Answer the name of the file to write the given entry to, creating its package directories
+ * the first time one of its class files is written.
+ */
+private String getFileName(Entry entry) throws IOException {
+	String outputPath = entry.destinationPath.replace('/', File.separatorChar);
+	String relativeFileName = entry.relativeFileName;
+	int separatorIndex = relativeFileName.lastIndexOf(File.separatorChar);
+	if (!entry.generatePackagesStructure) {
+		// the class files go next to their source file, whose directory exists
+		return new File(outputPath, relativeFileName.substring(separatorIndex + 1)).getPath();
+	}
+	String directory = separatorIndex == -1 ? outputPath : outputPath + File.separatorChar + relativeFileName.substring(0, separatorIndex);
+	synchronized (this.createdDirectories) {
+		if (this.createdDirectories.contains(directory))
+			return new File(outputPath, relativeFileName).getPath();
+	}
+	String fileName = Util.buildAllDirectoriesInto(outputPath, relativeFileName);
+	synchronized (this.createdDirectories) {
+		this.createdDirectories.add(directory);
+	}
+	return fileName;
+}
+
+private synchronized void recordFailure(Failure failure) {
+	this.failures.add(failure);
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,14 +10,25 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.batch;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -35,6 +46,13 @@ protected File file;
 protected ZipFile zipFile;
 protected boolean closeZipFileAtEnd;
 protected Hashtable packageCache;
+protected File cacheDirectory; // when set, the names of the jar entries are persisted into this directory
+protected Set entryNames; // names of the jar entries when read from the cache, the zip file is then opened on demand
+protected Map binaryTypes; // qualified binary file name -> ClassFileReader (or null if missing), when shared by several compilations
+
+static final String CACHE_FORMAT = "JAR_ENTRIES 1.0"; //$NON-NLS-1$
+static final String CACHE_FILE_EXTENSION = ".entries"; //$NON-NLS-1$
+static final String MANIFEST_NAME = "META-INF/MANIFEST.MF"; //$NON-NLS-1$
 
 public ClasspathJar(File file, boolean closeZipFileAtEnd,
 		AccessRuleSet accessRuleSet, String destinationPath) {
@@ -50,7 +68,10 @@ public List fetchLinkedJars(FileSystem.ClasspathSectionProblemReporter problemRe
 	try {
 		initialize();
 		ArrayList result = new ArrayList();
-		ZipEntry manifest = this.zipFile.getEntry("META-INF/MANIFEST.MF"); //$NON-NLS-1$
+		if (this.entryNames != null && !this.entryNames.contains(MANIFEST_NAME))
+			return result; // no need to open the zip file
+		openZipFile();
+		ZipEntry manifest = this.zipFile.getEntry(MANIFEST_NAME);
 		if (manifest != null) { // non-null implies regular file
 			inputStream = this.zipFile.getInputStream(manifest);
 			ManifestAnalyzer analyzer = new ManifestAnalyzer();
@@ -69,7 +90,9 @@ public List fetchLinkedJars(FileSystem.ClasspathSectionProblemReporter problemRe
 				int lastSeparator = directoryPath.lastIndexOf(File.separatorChar);
 				directoryPath = directoryPath.substring(0, lastSeparator + 1); // potentially empty (see bug 214731)
 				while (calledFilesIterator.hasNext()) {
-					result.add(new ClasspathJar(new File(directoryPath + (String) calledFilesIterator.next()), this.closeZipFileAtEnd, this.accessRuleSet, this.destinationPath));
+					ClasspathJar linkedJar = new ClasspathJar(new File(directoryPath + (String) calledFilesIterator.next()), this.closeZipFileAtEnd, this.accessRuleSet, this.destinationPath);
+					linkedJar.cacheDirectory = this.cacheDirectory;
+					result.add(linkedJar);
 				}
 			}
 		}
@@ -92,9 +115,17 @@ public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageN
 public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageName, String qualifiedBinaryFileName, boolean asBinaryOnly) {
 	if (!isPackage(qualifiedPackageName))
 		return null; // most common case
+	if (this.entryNames != null && !this.entryNames.contains(qualifiedBinaryFileName))
+		return null; // known to be missing without opening the zip file
 
 	try {
-		ClassFileReader reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		ClassFileReader reader;
+		if (this.binaryTypes != null) {
+			reader = readSharedBinaryType(qualifiedBinaryFileName);
+		} else {
+			openZipFile();
+			reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		}
 		if (reader != null)
 			return new NameEnvironmentAnswer(reader, fetchAccessRestriction(qualifiedBinaryFileName));
 	} catch(ClassFormatException e) {
@@ -108,6 +139,11 @@ public char[][][] findTypeNames(String qualifiedPackageName) {
 	if (!isPackage(qualifiedPackageName))
 		return null; // most common case
 
+	try {
+		openZipFile();
+	} catch (IOException e) {
+		return null;
+	}
 	ArrayList answers = new ArrayList();
 	nextEntry : for (Enumeration e = this.zipFile.entries(); e.hasMoreElements(); ) {
 		String fileName = ((ZipEntry) e.nextElement()).getName();
@@ -139,6 +175,40 @@ public char[][][] findTypeNames(String qualifiedPackageName) {
 	return null;
 }
 public void initialize() throws IOException {
+	if (this.zipFile == null) {
+		if (this.cacheDirectory != null) {
+			if (this.entryNames == null)
+				this.entryNames = readCachedEntryNames();
+			if (this.entryNames != null)
+				return; // the zip file is only opened once a class file is read from it
+		}
+		this.zipFile = new ZipFile(this.file);
+		if (this.cacheDirectory != null)
+			writeCachedEntryNames();
+	}
+}
+private ClassFileReader readSharedBinaryType(String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+	synchronized (this.binaryTypes) {
+		if (this.binaryTypes.containsKey(qualifiedBinaryFileName))
+			return (ClassFileReader) this.binaryTypes.get(qualifiedBinaryFileName);
+		// fully initialized readers no longer change, they can be handed to concurrent compilations
+		ClassFileReader reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName, true);
+		this.binaryTypes.put(qualifiedBinaryFileName, reader);
+		return reader;
+	}
+}
+/**
+ * Keep the binary types read from this jar, so that the compilations sharing it do not read and decode
+ * them again. The zip file and the package table are set up eagerly, so that the jar can then be used
+ * by concurrent compilations. Only applies to jars kept open across compilations.
+ */
+public void shareBinaryTypes() throws IOException {
+	if (this.closeZipFileAtEnd || this.binaryTypes != null) return;
+	openZipFile();
+	isPackage(Util.EMPTY_STRING);
+	this.binaryTypes = new HashMap();
+}
+protected void openZipFile() throws IOException {
 	if (this.zipFile == null) {
 		this.zipFile = new ZipFile(this.file);
 	}
@@ -150,22 +220,107 @@ public boolean isPackage(String qualifiedPackageName) {
 	this.packageCache = new Hashtable(41);
 	this.packageCache.put(Util.EMPTY_STRING, Util.EMPTY_STRING);
 
-	nextEntry : for (Enumeration e = this.zipFile.entries(); e.hasMoreElements(); ) {
-		String fileName = ((ZipEntry) e.nextElement()).getName();
-
-		// add the package name & all of its parent packages
-		int last = fileName.lastIndexOf('/');
-		while (last > 0) {
-			// extract the package name
-			String packageName = fileName.substring(0, last);
-			if (this.packageCache.containsKey(packageName))
-				continue nextEntry;
-			this.packageCache.put(packageName, packageName);
-			last = packageName.lastIndexOf('/');
-		}
+	if (this.entryNames != null) {
+		for (Iterator iterator = this.entryNames.iterator(); iterator.hasNext(); )
+			addPackages((String) iterator.next());
+	} else {
+		for (Enumeration e = this.zipFile.entries(); e.hasMoreElements(); )
+			addPackages(((ZipEntry) e.nextElement()).getName());
 	}
 	return this.packageCache.containsKey(qualifiedPackageName);
 }
+private void addPackages(String fileName) {
+	// add the package name & all of its parent packages
+	int last = fileName.lastIndexOf('/');
+	while (last > 0) {
+		// extract the package name
+		String packageName = fileName.substring(0, last);
+		if (this.packageCache.containsKey(packageName))
+			return;
+		this.packageCache.put(packageName, packageName);
+		last = packageName.lastIndexOf('/');
+	}
+}
+/*
+ * The cache file of a jar is named after the jar and a CRC of its path, and is only valid as long as
+ * the jar has the same length and modification time.
+ */
+private File getCacheFile() {
+	CRC32 checksumCalculator = new CRC32();
+	checksumCalculator.update(getPath().getBytes());
+	return new File(this.cacheDirectory, this.file.getName() + '.' + Long.toHexString(checksumCalculator.getValue()) + CACHE_FILE_EXTENSION);
+}
+private Set readCachedEntryNames() {
+	File cacheFile = getCacheFile();
+	if (!cacheFile.isFile()) return null;
+	DataInputStream stream = null;
+	try {
+		stream = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+		if (!CACHE_FORMAT.equals(stream.readUTF())
+				|| !getPath().equals(stream.readUTF())
+				|| stream.readLong() != this.file.length()
+				|| stream.readLong() != this.file.lastModified())
+			return null; // stale cache, the jar is scanned again
+		int size = stream.readInt();
+		HashSet names = new HashSet(size * 2);
+		for (int i = 0; i < size; i++)
+			names.add(stream.readUTF());
+		return names;
+	} catch (IOException e) {
+		return null; // treat as if the cache was missing
+	} finally {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+}
+private void writeCachedEntryNames() {
+	HashSet names = new HashSet(this.zipFile.size() * 2);
+	for (Enumeration e = this.zipFile.entries(); e.hasMoreElements(); )
+		names.add(((ZipEntry) e.nextElement()).getName());
+	File tempFile = null;
+	DataOutputStream stream = null;
+	try {
+		this.cacheDirectory.mkdirs();
+		// write into a temporary file first since other compilers may read the cache concurrently
+		tempFile = File.createTempFile(this.file.getName(), null, this.cacheDirectory);
+		stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		stream.writeUTF(CACHE_FORMAT);
+		stream.writeUTF(getPath());
+		stream.writeLong(this.file.length());
+		stream.writeLong(this.file.lastModified());
+		stream.writeInt(names.size());
+		for (Iterator iterator = names.iterator(); iterator.hasNext(); )
+			stream.writeUTF((String) iterator.next());
+		stream.close();
+		stream = null;
+		File cacheFile = getCacheFile();
+		if (!tempFile.renameTo(cacheFile)) {
+			cacheFile.delete();
+			tempFile.renameTo(cacheFile);
+		}
+	} catch (IOException e) {
+		// the cache is only an optimization
+	} finally {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+		if (tempFile != null && tempFile.exists())
+			tempFile.delete();
+	}
+	this.entryNames = names;
+}
+public void setCacheDirectory(File cacheDirectory) {
+	this.cacheDirectory = cacheDirectory;
+}
 public void reset() {
 	if (this.zipFile != null && this.closeZipFileAtEnd) {
 		try {
@@ -174,8 +329,9 @@ public void reset() {
 			// ignore
 		}
 		this.zipFile = null;
+		this.packageCache = null;
+		this.binaryTypes = null;
 	}
-	this.packageCache = null;
 }
 public String toString() {
 	return "Classpath for jar file " + this.file.getPath(); //$NON-NLS-1$
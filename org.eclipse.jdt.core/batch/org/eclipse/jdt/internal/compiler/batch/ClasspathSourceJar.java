@@ -64,4 +64,7 @@ public class ClasspathSourceJar extends ClasspathJar {
 	public int getMode() {
 		return SOURCE;
 	}
+	public void setCacheDirectory(File cacheDirectory) {
+		// source jars are read entry by entry, their entries are not cached
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -74,7 +74,7 @@ public char[] getContents() {
 
 	// otherwise retrieve it
 	try {
-		return Util.getFileCharContent(new File(new String(this.fileName)), this.encoding);
+		return Util.getDecodedFileCharContent(new File(new String(this.fileName)), this.encoding);
 	} catch (IOException e) {
 		this.contents = CharOperation.NO_CHAR; // assume no source if asked again
 		throw new AbortCompilationUnit(null, e, this.encoding);
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+
+/**
+ * Long-lived batch compiler, started with <code>-Xdaemon</code> as the first command line argument.
+ * <p>
+ * Each line read from the standard input is a compile request, made of the arguments the batch compiler
+ * would accept on its command line. The messages of the compilation are written to the standard output
+ * and error as usual, followed by a new line made of {@link #DONE} and <code>0</code> if the compilation
+ * succeeded, <code>1</code> otherwise. The daemon stops on end of input or on the line {@link #EXIT}.
+ * </p>
+ * <p>
+ * Binary classpath jars are shared across requests: they are kept open together with their package
+ * tables and the binary types read from them, and are only scanned again once their length or
+ * modification time changed.
+ * </p>
+ * <p>
+ * The bindings of the library types are also kept from one request to the next one, as long as both
+ * use the same compiler options, no annotation processing, and the same shared jars with no other
+ * binary classpath entry nor sourcepath entry in front of them. The next request then only builds the
+ * bindings of its source types, see {@link LookupEnvironment#reset()}.
+ * </p>
+ */
+public class CompilerDaemon {
+
+	public static final String OPTION = "-Xdaemon"; //$NON-NLS-1$
+	public static final String DONE = "#done "; //$NON-NLS-1$
+	public static final String EXIT = "#exit"; //$NON-NLS-1$
+
+	PrintWriter out;
+	PrintWriter err;
+	Map sharedJars; // path -> SharedJar
+	LookupEnvironment libraryEnvironment; // keeps the library bindings of the last compilation
+	Map libraryOptions; // compiler options of the last compilation
+	ArrayList libraryClasspaths; // shared jars and sourcepath entries of the last compilation
+
+	/*
+	 * Compares the shared jars by identity, since a jar changed on disk gets a new one.
+	 */
+	static class SharedClasspath {
+		FileSystem.Classpath classpath;
+
+		SharedClasspath(FileSystem.Classpath classpath) {
+			this.classpath = classpath;
+		}
+		public boolean equals(Object other) {
+			return other instanceof SharedClasspath && ((SharedClasspath) other).classpath == this.classpath;
+		}
+		public int hashCode() {
+			return System.identityHashCode(this.classpath);
+		}
+	}
+
+	static class SharedJar {
+		ClasspathJar jar;
+		long length;
+		long lastModified;
+
+		SharedJar(ClasspathJar jar) {
+			this.jar = jar;
+			this.length = jar.file.length();
+			this.lastModified = jar.file.lastModified();
+		}
+		boolean isUpToDate() {
+			return this.jar.file.length() == this.length && this.jar.file.lastModified() == this.lastModified;
+		}
+		void close() {
+			this.jar.closeZipFileAtEnd = true;
+			this.jar.reset();
+		}
+	}
+
+public CompilerDaemon(PrintWriter out, PrintWriter err) {
+	this.out = out;
+	this.err = err;
+	this.sharedJars = new HashMap();
+}
+
+public static void main(String[] argv) {
+	CompilerDaemon daemon = new CompilerDaemon(new PrintWriter(System.out), new PrintWriter(System.err));
+	try {
+		daemon.run(new BufferedReader(new InputStreamReader(System.in)));
+	} catch (IOException e) {
+		e.printStackTrace();
+	}
+}
+
+/**
+ * Answer whether the compilation described by the given arguments succeeded.
+ */
+public boolean compile(String[] argv) {
+	Main main = new Main(this.out, this.err, false/*systemExit*/, null/*options*/, null/*progress*/);
+	main.daemon = this;
+	return main.compile(argv);
+}
+
+public void run(BufferedReader requests) throws IOException {
+	try {
+		String request;
+		while ((request = requests.readLine()) != null) {
+			request = request.trim();
+			if (request.length() == 0)
+				continue;
+			if (request.equals(EXIT))
+				break;
+			boolean succeeded = compile(Main.tokenize(request));
+			this.out.flush();
+			this.err.flush();
+			this.out.println(); // the messages of the compilation do not end with a line separator
+			this.out.println(DONE + (succeeded ? 0 : 1));
+			this.out.flush();
+		}
+	} finally {
+		shutdown();
+	}
+}
+
+/**
+ * Replace the binary jars of the given classpath entries with the ones kept open by previous
+ * compilations, and remember the new ones.
+ */
+void shareClasspaths(ArrayList classpaths) {
+	for (int i = 0, max = classpaths.size(); i < max; i++) {
+		Object classpath = classpaths.get(i);
+		if (!(classpath instanceof ClasspathJar)) continue;
+		ClasspathJar jar = (ClasspathJar) classpath;
+		if (jar.getMode() != ClasspathLocation.BINARY || jar.accessRuleSet != null || jar.destinationPath != null)
+			continue; // only share plain library jars
+		String path = jar.getPath();
+		SharedJar sharedJar = (SharedJar) this.sharedJars.get(path);
+		if (sharedJar != null) {
+			if (sharedJar.isUpToDate() && sameCacheDirectory(sharedJar.jar.cacheDirectory, jar.cacheDirectory)) {
+				jar.reset(); // may have been opened to read its manifest
+				classpaths.set(i, sharedJar.jar);
+				continue;
+			}
+			sharedJar.close();
+		}
+		jar.closeZipFileAtEnd = false; // keep the jar open across compilations
+		try {
+			jar.shareBinaryTypes();
+		} catch (IOException e) {
+			jar.closeZipFileAtEnd = true; // let the compilation report the invalid jar as usual
+			continue;
+		}
+		this.sharedJars.put(path, new SharedJar(jar));
+	}
+}
+
+/**
+ * Let the compiler of the given compilation reuse the library bindings kept by the last compilation
+ * if they were read from the same jars, and keep its own library bindings for the next one.
+ */
+void shareLookupEnvironment(Main main) {
+	Compiler compiler = main.batchCompiler;
+	ArrayList classpaths = libraryClasspaths(main.checkedClasspaths);
+	if (compiler.annotationProcessorManager != null || classpaths == null) {
+		this.libraryEnvironment = null; // generated or unshared types may replace library types
+		this.libraryOptions = null;
+		this.libraryClasspaths = null;
+		return;
+	}
+	Map options = main.compilerOptions.getMap();
+	if (this.libraryEnvironment != null && options.equals(this.libraryOptions) && classpaths.equals(this.libraryClasspaths)) {
+		this.libraryEnvironment.reuseLibraryBindings(compiler.lookupEnvironment);
+		compiler.lookupEnvironment = this.libraryEnvironment;
+	} else {
+		this.libraryEnvironment = compiler.lookupEnvironment;
+		this.libraryEnvironment.keepLibraryBindings = true;
+		this.libraryOptions = options;
+		this.libraryClasspaths = classpaths;
+	}
+}
+
+/*
+ * Answer the shared jars and the sourcepath entries of the given classpath, or null if it has another
+ * binary entry, or a sourcepath entry whose source types would hide the types of a jar after it.
+ */
+private ArrayList libraryClasspaths(FileSystem.Classpath[] classpaths) {
+	ArrayList libraryClasspaths = new ArrayList(classpaths.length);
+	boolean hasSourcepath = false;
+	for (int i = 0, length = classpaths.length; i < length; i++) {
+		FileSystem.Classpath classpath = classpaths[i];
+		if (classpath instanceof ClasspathJar && isShared((ClasspathJar) classpath)) {
+			if (hasSourcepath)
+				return null;
+			libraryClasspaths.add(new SharedClasspath(classpath));
+		} else if (classpath instanceof ClasspathLocation && ((ClasspathLocation) classpath).getMode() == ClasspathLocation.SOURCE) {
+			hasSourcepath = true;
+			libraryClasspaths.add(classpath.getPath());
+		} else {
+			return null;
+		}
+	}
+	return libraryClasspaths;
+}
+
+private boolean isShared(ClasspathJar jar) {
+	SharedJar sharedJar = (SharedJar) this.sharedJars.get(jar.getPath());
+	return sharedJar != null && sharedJar.jar == jar;
+}
+
+private boolean sameCacheDirectory(File directory1, File directory2) {
+	return directory1 == null ? directory2 == null : directory1.equals(directory2);
+}
+
+public void shutdown() {
+	for (Iterator iterator = this.sharedJars.values().iterator(); iterator.hasNext(); )
+		((SharedJar) iterator.next()).close();
+	this.sharedJars.clear();
+	this.libraryEnvironment = null;
+	this.libraryOptions = null;
+	this.libraryClasspaths = null;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
 import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.impl.CompilerMetrics;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
@@ -102,6 +103,7 @@ public class FileSystem implements INameEnvironment, SuffixConstants {
 
 	protected Classpath[] classpaths;
 	Set knownFileNames;
+	int[] lookupCounts, answerCounts; // per classpath entry, only counted once requested by countLookups()
 
 /*
 	classPathNames is a collection is Strings representing the full path of each class path
@@ -241,6 +243,26 @@ public void cleanup() {
 	for (int i = 0, max = this.classpaths.length; i < max; i++)
 		this.classpaths[i].reset();
 }
+/**
+ * Start counting the lookups performed on each classpath entry.
+ */
+public void countLookups() {
+	this.lookupCounts = new int[this.classpaths.length];
+	this.answerCounts = new int[this.classpaths.length];
+}
+private void countLookup(int index, NameEnvironmentAnswer answer) {
+	this.lookupCounts[index]++;
+	if (answer != null)
+		this.answerCounts[index]++;
+}
+/**
+ * Record the lookups counted since {@link #countLookups()} into the given metrics.
+ */
+public void recordLookups(CompilerMetrics metrics) {
+	if (this.lookupCounts == null) return;
+	for (int i = 0, length = this.classpaths.length; i < length; i++)
+		metrics.lookups.add(new CompilerMetrics.LookupMetrics(this.classpaths[i].getPath(), this.lookupCounts[i], this.answerCounts[i]));
+}
 private static String convertPathSeparators(String path) {
 	return File.separatorChar == '/'
 		? path.replace('\\', '/')
@@ -259,6 +281,8 @@ private NameEnvironmentAnswer findClass(String qualifiedTypeName, char[] typeNam
 	if (qualifiedPackageName == qp2) {
 		for (int i = 0, length = this.classpaths.length; i < length; i++) {
 			NameEnvironmentAnswer answer = this.classpaths[i].findClass(typeName, qualifiedPackageName, qualifiedBinaryFileName, asBinaryOnly);
+			if (this.lookupCounts != null)
+				countLookup(i, answer);
 			if (answer != null) {
 				if (!answer.ignoreIfBetter()) {
 					if (answer.isBetter(suggestedAnswer))
@@ -275,6 +299,8 @@ private NameEnvironmentAnswer findClass(String qualifiedTypeName, char[] typeNam
 			NameEnvironmentAnswer answer = (p instanceof ClasspathJar)
 				? p.findClass(typeName, qualifiedPackageName, qualifiedBinaryFileName, asBinaryOnly)
 				: p.findClass(typeName, qp2, qb2, asBinaryOnly);
+			if (this.lookupCounts != null)
+				countLookup(i, answer);
 			if (answer != null) {
 				if (!answer.ignoreIfBetter()) {
 					if (answer.isBetter(suggestedAnswer))
@@ -78,6 +78,7 @@ import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
 import org.eclipse.jdt.internal.compiler.env.AccessRule;
 import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerMetrics;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
@@ -1315,6 +1316,11 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	public int exportedClassFilesCounter;
 	public String[] filenames;
 	public String[] classNames;
+	public File classpathCacheDirectory; // directory where the entries of classpath jars are cached, if any
+	public boolean generateMethodStubs; // only compile the signatures, the generated methods throw an error
+	public String metricsFileName; // file receiving the detailed metrics of the compilation, if any
+	CompilerDaemon daemon; // when run as a daemon, shares the classpath jars across compilations
+	ClassFileWriter classFileWriter; // writes the class files of the current compilation, possibly on other threads
 	// overrides of destinationPath on a directory argument basis
 	public int globalErrorsCount;
 	public int globalProblemsCount;
@@ -1401,6 +1407,10 @@ public static File[][] getLibrariesFiles(File[] files) {
 }
 
 public static void main(String[] argv) {
+	if (argv.length > 0 && CompilerDaemon.OPTION.equals(argv[0])) {
+		CompilerDaemon.main(argv);
+		return;
+	}
 	new Main(new PrintWriter(System.out), new PrintWriter(System.err), true/*systemExit*/, null/*options*/, null/*progress*/).compile(argv);
 }
 
@@ -2406,6 +2416,29 @@ public void configure(String[] argv) {
 					mode = INSIDE_S_start;
 					continue;
 				}
+				if (currentArg.startsWith("-XclasspathCache:")) { //$NON-NLS-1$
+					String cacheDirectory = currentArg.substring("-XclasspathCache:".length()); //$NON-NLS-1$
+					if (cacheDirectory.length() == 0)
+						throw new IllegalArgumentException(
+							this.bind("configure.invalidClasspathCache", currentArg)); //$NON-NLS-1$
+					this.classpathCacheDirectory = new File(cacheDirectory);
+					mode = DEFAULT;
+					continue;
+				}
+				if (currentArg.equals("-XmethodStubs")) { //$NON-NLS-1$
+					mode = DEFAULT;
+					this.generateMethodStubs = true;
+					continue;
+				}
+				if (currentArg.startsWith("-Xmetrics:")) { //$NON-NLS-1$
+					String metricsFile = currentArg.substring("-Xmetrics:".length()); //$NON-NLS-1$
+					if (metricsFile.length() == 0)
+						throw new IllegalArgumentException(
+							this.bind("configure.invalidMetricsFile", currentArg)); //$NON-NLS-1$
+					this.metricsFileName = metricsFile;
+					mode = DEFAULT;
+					continue;
+				}
 				if (currentArg.equals("-XprintProcessorInfo") //$NON-NLS-1$
 						|| currentArg.equals("-XprintRounds")) { //$NON-NLS-1$
 					mode = DEFAULT;
@@ -3130,6 +3163,7 @@ protected ArrayList handleClasspath(ArrayList classpaths, String customEncoding)
 			}
 		}
 	}
+	setClasspathCacheDirectory(classpaths);
 	ArrayList result = new ArrayList();
 	HashMap knownNames = new HashMap();
 	FileSystem.ClasspathSectionProblemReporter problemReporter =
@@ -4057,11 +4091,19 @@ public void outputClassFiles(CompilationResult unitResult) {
 									String.valueOf(this.exportedClassFilesCounter+1),
 									relativeStringName
 								}));
-					Util.writeToDisk(
-						generateClasspathStructure,
-						currentDestinationPath,
-						relativeStringName,
-						classFile);
+					if (this.classFileWriter != null) {
+						this.classFileWriter.write(
+							generateClasspathStructure,
+							currentDestinationPath,
+							relativeStringName,
+							classFile.getBytes());
+					} else {
+						Util.writeToDisk(
+							generateClasspathStructure,
+							currentDestinationPath,
+							relativeStringName,
+							classFile);
+					}
 					this.logger.logClassFile(
 						generateClasspathStructure,
 						currentDestinationPath,
@@ -4086,6 +4128,10 @@ public void performCompilation() {
 	this.compilerOptions = new CompilerOptions(this.options);
 	this.compilerOptions.performMethodsFullRecovery = false;
 	this.compilerOptions.performStatementsRecovery = false;
+	if (this.generateMethodStubs) {
+		this.compilerOptions.ignoreMethodBodies = true;
+		this.compilerOptions.generateMethodStubs = true;
+	}
 	this.batchCompiler =
 		new Compiler(
 			environment,
@@ -4096,9 +4142,29 @@ public void performCompilation() {
 			this.out,
 			this.progress);
 	this.batchCompiler.remainingIterations = this.maxRepetition-this.currentRepetition/*remaining iterations including this one*/;
+	if (this.metricsFileName != null) {
+		this.batchCompiler.metrics = new CompilerMetrics();
+		environment.countLookups();
+	}
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 	this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	setting = System.getProperty("jdt.compiler.parsingThreads"); //$NON-NLS-1$
+	if (setting != null) {
+		try {
+			this.batchCompiler.parsingThreads = Integer.parseInt(setting);
+		} catch (NumberFormatException e) {
+			// ignore and keep parsing method bodies on the processing thread
+		}
+	}
+	setting = System.getProperty("jdt.compiler.processingThreads"); //$NON-NLS-1$
+	if (setting != null) {
+		try {
+			this.batchCompiler.processingThreads = Integer.parseInt(setting);
+		} catch (NumberFormatException e) {
+			// ignore and keep processing units on a single thread
+		}
+	}
 
 	if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 			&& this.compilerOptions.processAnnotations) {
@@ -4112,6 +4178,20 @@ public void performCompilation() {
 			this.logger.logIncorrectVMVersionForAnnotationProcessing();
 		}
 	}
+	if (this.daemon != null)
+		this.daemon.shareLookupEnvironment(this);
+
+	// write the class files on other threads, unless annotation processors may read them back during the compilation
+	int writingThreads = this.batchCompiler.useSingleThread || this.batchCompiler.annotationProcessorManager != null ? 0 : 2;
+	setting = System.getProperty("jdt.compiler.writingThreads"); //$NON-NLS-1$
+	if (setting != null) {
+		try {
+			writingThreads = Integer.parseInt(setting);
+		} catch (NumberFormatException e) {
+			// ignore and keep the default
+		}
+	}
+	this.classFileWriter = new ClassFileWriter(writingThreads);
 
 	// set the non-externally configurable options.
 	this.compilerOptions.verbose = this.verbose;
@@ -4121,6 +4201,7 @@ public void performCompilation() {
 		this.batchCompiler.compile(getCompilationUnits());
 	} finally {
 		this.logger.endLoggingSources();
+		closeClassFileWriter();
 	}
 
 	if (this.extraProblems != null) {
@@ -4131,10 +4212,45 @@ public void performCompilation() {
 		this.compilerStats[this.currentRepetition] = this.batchCompiler.stats;
 	}
 	this.logger.printStats();
+	if (this.batchCompiler.metrics != null) {
+		environment.recordLookups(this.batchCompiler.metrics);
+		writeMetrics(this.batchCompiler.metrics);
+	}
 
 	// cleanup
 	environment.cleanup();
 }
+/*
+ * Wait until all the class files are written, report the ones that could not be and release the writer.
+ */
+protected void closeClassFileWriter() {
+	ClassFileWriter.Failure[] failures = this.classFileWriter.close();
+	this.classFileWriter = null;
+	for (int i = 0, length = failures.length; i < length; i++) {
+		ClassFileWriter.Failure failure = failures[i];
+		this.logger.logNoClassFileCreated(failure.destinationPath, failure.relativeFileName, failure.exception);
+		if (failure.relativeFileName.endsWith(SuffixConstants.SUFFIX_STRING_class))
+			this.exportedClassFilesCounter--; // counted when submitted
+	}
+}
+/*
+ * Write the given metrics as JSON if the metrics file name ends with .json, as comma separated values otherwise.
+ */
+protected void writeMetrics(CompilerMetrics metrics) {
+	PrintWriter writer = null;
+	try {
+		writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(this.metricsFileName, false), Util.UTF_8));
+		if (this.metricsFileName.toLowerCase().endsWith(".json")) //$NON-NLS-1$
+			metrics.writeJSON(writer);
+		else
+			metrics.writeCSV(writer);
+	} catch (IOException e) {
+		throw new IllegalArgumentException(this.bind("configure.cannotWriteMetrics", this.metricsFileName)); //$NON-NLS-1$
+	} finally {
+		if (writer != null)
+			writer.close();
+	}
+}
 protected void loggingExtraProblems() {
 	this.logger.loggingExtraProblems(this);
 }
@@ -4557,10 +4673,21 @@ protected void setPaths(ArrayList bootclasspaths,
 	bootclasspaths.addAll(classpaths);
 	classpaths = bootclasspaths;
 	classpaths = FileSystem.ClasspathNormalizer.normalize(classpaths);
+	setClasspathCacheDirectory(classpaths);
+	if (this.daemon != null)
+		this.daemon.shareClasspaths(classpaths);
 	this.checkedClasspaths = new FileSystem.Classpath[classpaths.size()];
 	classpaths.toArray(this.checkedClasspaths);
 	this.logger.logClasspath(this.checkedClasspaths);
 }
+private void setClasspathCacheDirectory(ArrayList classpaths) {
+	if (this.classpathCacheDirectory == null) return;
+	for (int i = 0, max = classpaths.size(); i < max; i++) {
+		Object classpath = classpaths.get(i);
+		if (classpath instanceof ClasspathJar)
+			((ClasspathJar) classpath).setCacheDirectory(this.classpathCacheDirectory);
+	}
+}
 private static boolean shouldIgnoreOptionalProblems(char[][] folderNames, char[] fileName) {
 	if (folderNames == null || fileName == null) {
 		return false;
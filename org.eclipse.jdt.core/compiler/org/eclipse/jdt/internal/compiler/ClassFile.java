@@ -738,6 +738,38 @@ public class ClassFile implements TypeConstants, TypeIds {
 		this.methodCount--; // we need to remove the method that causes the problem
 		addProblemConstructor(method, methodBinding, problems);
 	}
+	/**
+	 * INTERNAL USE-ONLY
+	 * Generate the byte for the method info of a method whose body was ignored.
+	 * Its code only throws an error.
+	 *
+	 * @param method org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration
+	 * @param methodBinding org.eclipse.jdt.internal.compiler.nameloopkup.MethodBinding
+	 */
+	public void addMethodStub(AbstractMethodDeclaration method, MethodBinding methodBinding) {
+		generateMethodInfoHeader(methodBinding);
+		int methodAttributeOffset = this.contentsOffset;
+		int attributesNumber = generateMethodInfoAttributes(methodBinding);
+
+		// Code attribute
+		attributesNumber++;
+		int codeAttributeOffset = this.contentsOffset;
+		generateCodeAttributeHeader();
+		this.codeStream.reset(method, this);
+		this.codeStream.generateCodeAttributeForProblemMethod(Messages.compilation_methodStub);
+		completeCodeAttributeForProblemMethod(
+			method,
+			methodBinding,
+			codeAttributeOffset,
+			((SourceTypeBinding) methodBinding.declaringClass)
+				.scope
+				.referenceCompilationUnit()
+				.compilationResult
+				.getLineSeparatorPositions(),
+			0);
+		completeMethodInfo(methodBinding, methodAttributeOffset, attributesNumber);
+	}
+
 	/**
 	 * INTERNAL USE-ONLY
 	 * Generate the byte for a problem method info that correspond to a boggus method.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,8 @@ import org.eclipse.jdt.internal.compiler.lookup.SourceTypeBinding;
 public class ClassFilePool {
 	public static final int POOL_SIZE = 25; // need to have enough for 2 units
 	ClassFile[] classFiles;
+	public int acquired; // number of class files handed out
+	public int reused; // number of them recycled from the pool
 
 private ClassFilePool() {
 	// prevent instantiation
@@ -28,6 +30,7 @@ public static ClassFilePool newInstance() {
 }
 
 public synchronized ClassFile acquire(SourceTypeBinding typeBinding) {
+	this.acquired++;
 	for (int i = 0; i < POOL_SIZE; i++) {
 		ClassFile classFile = this.classFiles[i];
 		if (classFile == null) {
@@ -39,6 +42,7 @@ public synchronized ClassFile acquire(SourceTypeBinding typeBinding) {
 		if (!classFile.isShared) {
 			classFile.reset(typeBinding);
 			classFile.isShared = true;
+			this.reused++;
 			return classFile;
 		}
 	}
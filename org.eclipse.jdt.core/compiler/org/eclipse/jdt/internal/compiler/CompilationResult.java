@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -63,6 +63,7 @@ public class CompilationResult {
 	public char[][][] qualifiedReferences;
 	public char[][] simpleNameReferences;
 	public char[][] rootReferences;
+	public char[][] memberReferences;
 	public boolean hasAnnotations = false;
 	public int lineSeparatorPositions[];
 	public RecoveryScannerData recoveryScannerData;
@@ -370,7 +371,8 @@ public void record(CategorizedProblem newProblem, ReferenceContext referenceCont
 	return;
 }
 
-public void record(CategorizedProblem newProblem, ReferenceContext referenceContext, boolean mandatoryError) {
+public synchronized void record(CategorizedProblem newProblem, ReferenceContext referenceContext, boolean mandatoryError) {
+	// synchronized since method bodies may be parsed on a worker thread (see ParsingTaskManager)
 	//new Exception("VERBOSE PROBLEM REPORTING").printStackTrace();
 	if(newProblem.getID() == IProblem.Task) {
 		recordTask(newProblem);
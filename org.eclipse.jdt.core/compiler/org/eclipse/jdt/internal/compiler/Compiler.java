@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public ProblemReporter problemReporter;
 	protected PrintWriter out; // output for messages that are not sent to problemReporter
 	public CompilerStats stats;
+	public CompilerMetrics metrics; // detailed per unit metrics, only collected when set
 	public CompilationProgress progress;
 	public int remainingIterations = 1;
 
@@ -51,6 +52,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int parsingThreads = 0; // number of worker threads parsing method bodies ahead of processing (0: none)
+	public int processingThreads = 1; // number of threads processing units when not using a single thread, the extra ones with compilers of their own
+	ParsingTaskManager parsingTask;
 
 	// number of initial units parsed at once (-1: none)
 
@@ -425,7 +429,19 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 			reportProgress(Messages.compilation_beginningToCompile);
 
 			if (this.annotationProcessorManager == null) {
-				beginToCompile(sourceUnits);
+				if (this.lookupEnvironment.hasLibraryBindings()) {
+					ICompilationUnit[] originalUnits = (ICompilationUnit[]) sourceUnits.clone(); // remember source units in case a source type collision occurs
+					try {
+						beginToCompile(sourceUnits);
+					} catch (SourceTypeCollisionException e) {
+						// a source type replaces a library type kept from the previous compilation, start over without them
+						this.lookupEnvironment.discardLibraryBindings();
+						reset();
+						beginToCompile(originalUnits);
+					}
+				} else {
+					beginToCompile(sourceUnits);
+				}
 			} else {
 				ICompilationUnit[] originalUnits = (ICompilationUnit[]) sourceUnits.clone(); // remember source units in case a source type collision occurs
 				try {
@@ -453,6 +469,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				}
 			}
 
+			if (this.parsingThreads > 0 && !this.options.ignoreMethodBodies && this.totalUnits >= ParsingTaskManager.THRESHOLD && this.parser.getClass() == Parser.class
+					&& (this.useSingleThread || !ProcessAheadTaskManager.canProcessAhead(this))) // helper compilers parse the bodies of their own units
+				this.parsingTask = new ParsingTaskManager(this, this.parsingThreads);
 			if (this.useSingleThread) {
 				// process all units (some more could be injected in the loop by the lookup environment)
 				for (int i = 0; i < this.totalUnits; i++) {
@@ -519,11 +538,14 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				}
 			}
 		} catch (AbortCompilation e) {
+			this.lookupEnvironment.discardLibraryBindings(); // bindings may be left incomplete
 			this.handleInternalException(e, unit);
 		} catch (Error e) {
+			this.lookupEnvironment.discardLibraryBindings();
 			this.handleInternalException(e, unit, null);
 			throw e; // rethrow
 		} catch (RuntimeException e) {
+			this.lookupEnvironment.discardLibraryBindings();
 			this.handleInternalException(e, unit, null);
 			throw e; // rethrow
 		} finally {
@@ -531,6 +553,12 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				processingTask.shutdown();
 				processingTask = null;
 			}
+			if (this.parsingTask != null) {
+				this.parsingTask.shutdown();
+				this.parsingTask = null;
+			}
+			if (this.metrics != null)
+				this.metrics.recordEnvironment(this.lookupEnvironment);
 			reset();
 			this.annotationProcessorStartIndex  = 0;
 			this.stats.endTime = System.currentTimeMillis();
@@ -712,6 +740,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				CompilationUnitDeclaration parsedUnit;
 				unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
 				long parseStart = System.currentTimeMillis();
+				long parseStartNanos = 0, allocationStart = 0;
+				if (this.metrics != null) {
+					allocationStart = CompilerMetrics.allocatedBytes();
+					parseStartNanos = CompilerMetrics.nanoTime();
+				}
 				if (this.totalUnits < this.parseThreshold) {
 					parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
 				} else {
@@ -719,9 +752,16 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				}
 				long resolveStart = System.currentTimeMillis();
 				this.stats.parseTime += resolveStart - parseStart;
+				long resolveStartNanos = this.metrics != null ? CompilerMetrics.nanoTime() : 0;
 				// initial type binding creation
 				this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
 				this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
+				if (this.metrics != null) {
+					CompilerMetrics.UnitMetrics unitMetrics = this.metrics.getUnit(unitResult);
+					unitMetrics.parseTime += resolveStartNanos - parseStartNanos;
+					unitMetrics.resolveTime += CompilerMetrics.nanoTime() - resolveStartNanos;
+					unitMetrics.recordAllocation(allocationStart);
+				}
 				addCompilationUnit(sourceUnits[i], parsedUnit);
 				ImportReference currentPackage = parsedUnit.currentPackage;
 				if (currentPackage != null) {
@@ -752,11 +792,26 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public void process(CompilationUnitDeclaration unit, int i) {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 		long parseStart = System.currentTimeMillis();
+		CompilerMetrics.UnitMetrics unitMetrics = null;
+		long allocationStart = 0, parseStartNanos = 0, resolveStartNanos = 0, analyzeStartNanos = 0, generateStartNanos = 0;
+		if (this.metrics != null) {
+			unitMetrics = this.metrics.getUnit(unit.compilationResult);
+			allocationStart = CompilerMetrics.allocatedBytes();
+			parseStartNanos = CompilerMetrics.nanoTime();
+		}
 
-		this.parser.getMethodBodies(unit);
+		if (!this.options.ignoreMethodBodies) {
+			if (this.parsingTask != null)
+				this.parsingTask.waitForMethodBodies(unit, i); // bodies may already be parsed by a worker thread
+			this.parser.getMethodBodies(unit);
+		}
 
 		long resolveStart = System.currentTimeMillis();
 		this.stats.parseTime += resolveStart - parseStart;
+		if (unitMetrics != null) {
+			resolveStartNanos = CompilerMetrics.nanoTime();
+			unitMetrics.parseTime += resolveStartNanos - parseStartNanos;
+		}
 
 		// fault in fields & methods
 		if (unit.scope != null)
@@ -771,14 +826,22 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 
 		long analyzeStart = System.currentTimeMillis();
 		this.stats.resolveTime += analyzeStart - resolveStart;
+		if (unitMetrics != null) {
+			analyzeStartNanos = CompilerMetrics.nanoTime();
+			unitMetrics.resolveTime += analyzeStartNanos - resolveStartNanos;
+		}
 		
 		//No need of analysis or generation of code if statements are not required		
 		if (!this.options.ignoreMethodBodies) unit.analyseCode(); // flow analysis
 
 		long generateStart = System.currentTimeMillis();
 		this.stats.analyzeTime += generateStart - analyzeStart;
+		if (unitMetrics != null) {
+			generateStartNanos = CompilerMetrics.nanoTime();
+			unitMetrics.analyzeTime += generateStartNanos - analyzeStartNanos;
+		}
 	
-		if (!this.options.ignoreMethodBodies) unit.generateCode(); // code generation
+		if (!this.options.ignoreMethodBodies || this.options.generateMethodStubs) unit.generateCode(); // code generation, or method stubs
 		
 		// reference info
 		if (this.options.produceReferenceInfo && unit.scope != null)
@@ -788,6 +851,12 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		unit.finalizeProblems();
 
 		this.stats.generateTime += System.currentTimeMillis() - generateStart;
+		if (unitMetrics != null) {
+			unitMetrics.generateTime += CompilerMetrics.nanoTime() - generateStartNanos;
+			unitMetrics.recordAllocation(allocationStart);
+			int[] lineEnds = unit.compilationResult.lineSeparatorPositions;
+			unitMetrics.lineCount = lineEnds == null ? 0 : lineEnds.length;
+		}
 
 		// refresh the total number of units known at this stage
 		unit.compilationResult.totalUnitsKnown = this.totalUnits;
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2008, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Parses the method bodies of the units collected by the compiler on a pool of worker threads,
+ * ahead of the thread running {@link Compiler#process(CompilationUnitDeclaration, int)}.
+ * <p>
+ * Method body parsing is purely syntactic: each worker owns its own {@link Parser} and {@link ProblemReporter},
+ * and problems are recorded into the unit's own {@link CompilationResult}. Resolution, flow analysis and code
+ * generation still run on a single thread since the lookup environment is shared by all units.
+ * </p>
+ * <p>
+ * Only the units known when the manager is created are parsed ahead, the units added later on by the lookup
+ * environment are parsed by the processing thread as usual. A failure while parsing a unit is rethrown in the
+ * processing thread when it reaches that unit, as if the bodies had been parsed there.
+ * </p>
+ */
+public class ParsingTaskManager implements Runnable {
+
+	Compiler compiler;
+	CompilationUnitDeclaration[] units;
+	int[] states;
+	Throwable[] caughtExceptions;
+	int nextUnitToParse;
+	int processedIndex;
+	Thread[] parsingThreads;
+
+	static final int NOT_STARTED = 0;
+	static final int IN_PROGRESS = 1;
+	static final int DONE = 2;
+	static final int CLAIMED = 3; // the processing thread reached the unit before any worker did
+
+	public static final int THRESHOLD = 10;
+	static final int LOOK_AHEAD_PER_THREAD = 4; // do not waste memory by keeping too many parsed bodies around
+
+public ParsingTaskManager(Compiler compiler, int threadCount) {
+	this.compiler = compiler;
+	synchronized (this) {
+		int length = compiler.totalUnits;
+		this.units = new CompilationUnitDeclaration[length];
+		System.arraycopy(compiler.unitsToProcess, 0, this.units, 0, length);
+		this.states = new int[length];
+		this.caughtExceptions = new Throwable[length];
+		this.nextUnitToParse = 0;
+		this.processedIndex = 0;
+		this.parsingThreads = new Thread[threadCount];
+		for (int i = threadCount; --i >= 0;) {
+			this.parsingThreads[i] = new Thread(this, "Compiler Method Body Parser"); //$NON-NLS-1$
+			this.parsingThreads[i].setDaemon(true);
+			this.parsingThreads[i].start();
+		}
+	}
+}
+
+/**
+ * Waits until the method bodies of the given unit have been parsed by a worker thread.
+ * Answers immediately if no worker has started on the unit, so that the caller parses them itself.
+ */
+public void waitForMethodBodies(CompilationUnitDeclaration unit, int index) throws Error {
+	Throwable exception = null;
+	synchronized (this) {
+		if (index < 0 || index >= this.units.length || this.units[index] != unit)
+			return; // not one of the initial units
+		this.processedIndex = index;
+		notifyAll(); // let the workers move forward
+		if (this.states[index] == NOT_STARTED) {
+			this.states[index] = CLAIMED;
+		} else {
+			while (this.states[index] == IN_PROGRESS) {
+				try {
+					wait(250);
+				} catch (InterruptedException ignore) {
+					// ignore
+				}
+			}
+		}
+		this.units[index] = null; // release reference to processed unit declaration
+		exception = this.caughtExceptions[index];
+		this.caughtExceptions[index] = null;
+	}
+	if (exception != null) {
+		// rethrow the exception caught in the parsing thread in the processing thread
+		if (exception instanceof Error)
+			throw (Error) exception;
+		throw (RuntimeException) exception;
+	}
+}
+
+public void run() {
+	ProblemReporter problemReporter = this.compiler.problemReporter;
+	Parser parser = new Parser(
+		new ProblemReporter(problemReporter.policy, this.compiler.options, problemReporter.problemFactory),
+		this.compiler.options.parseLiteralExpressionsAsConstants);
+	while (true) {
+		CompilationUnitDeclaration unit = null;
+		int index = -1;
+		synchronized (this) {
+			while (true) {
+				if (this.parsingThreads == null) return;
+				while (this.nextUnitToParse < this.units.length && this.states[this.nextUnitToParse] != NOT_STARTED)
+					this.nextUnitToParse++;
+				if (this.nextUnitToParse >= this.units.length) return;
+				if (this.nextUnitToParse < this.processedIndex + this.parsingThreads.length * LOOK_AHEAD_PER_THREAD)
+					break;
+				try {
+					wait(250); // wait until the processing thread catches up
+				} catch (InterruptedException ignore) {
+					// ignore
+				}
+			}
+			index = this.nextUnitToParse++;
+			unit = this.units[index];
+			this.states[index] = IN_PROGRESS;
+		}
+		Throwable exception = null;
+		try {
+			parser.getMethodBodies(unit);
+		} catch (Error e) {
+			exception = e;
+		} catch (RuntimeException e) {
+			exception = e;
+		}
+		synchronized (this) {
+			this.caughtExceptions[index] = exception;
+			this.states[index] = DONE;
+			notifyAll(); // wake up the processing thread if it is waiting for this unit
+		}
+	}
+}
+
+public synchronized void shutdown() {
+	this.parsingThreads = null; // mark the manager as shutting down so that the parsing threads stop
+	notifyAll();
+}
+}
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfIntValues;
+
+/**
+ * Processes (resolves, analyzes and generates) compilation units on helper threads, ahead of the thread
+ * of the {@link ProcessTaskManager}.
+ * <p>
+ * Bindings are resolved lazily and cached by the lookup environment, so units cannot be processed concurrently
+ * against a single environment. Instead each helper thread owns a {@link Compiler} of its own, which builds the
+ * bindings of all the units from their diet parse, and only processes the units it claims. Only the name
+ * environment is shared, behind this manager which serializes its accesses.
+ * </p>
+ * <p>
+ * The processing thread goes through the units in order: it processes the ones no helper has claimed with its own
+ * compiler, and waits for the others to be processed by their helper. The units added by a lookup environment while
+ * processing are processed by the compiler which added them first, and recorded by file name so that they are
+ * processed only once. A failure while processing a unit is rethrown in the processing thread when it reaches that
+ * unit, as if the unit had been processed there.
+ * </p>
+ */
+public class ProcessAheadTaskManager implements Runnable, INameEnvironment {
+
+	Compiler compiler;
+	INameEnvironment nameEnvironment;
+	ICompilationUnit[] sourceUnits;
+	int initialUnits;
+	int knownUnits; // units of the compiler already recorded
+
+	// units in processing order: the initial units of the compilation, then the added ones in the order they were recorded
+	CompilationUnitDeclaration[] units;
+	Compiler[] owners;
+	int[] states;
+	Throwable[] caughtExceptions;
+	int unitCount;
+	HashtableOfIntValues addedUnits; // file name -> index of the added units
+
+	int nextUnitToProcess;
+	int processedIndex;
+	int busyHelpers;
+	Thread[] helperThreads;
+
+	int processIndex; // index of the unit answered by #nextUnit() in the units of the compiler, -1 if a helper processed it
+	Throwable failure;
+
+	static final int NOT_STARTED = 0;
+	static final int ADDED = 1; // added by a lookup environment, only its owner can process it
+	static final int IN_PROGRESS = 2;
+	static final int DONE = 3;
+	static final int CLAIMED = 4; // the processing thread reached the unit before any helper did
+
+	public static final int THRESHOLD = 20;
+	static final int LOOK_AHEAD_PER_THREAD = 4; // do not keep too many processed units around
+
+/**
+ * Answers whether units can be processed ahead for the given compiler: helper compilers are created with the
+ * same policy, options and problem factory, so subclasses and per unit reporting (verbose, metrics, annotation
+ * processing) are not supported.
+ */
+public static boolean canProcessAhead(Compiler compiler) {
+	return compiler.processingThreads > 1
+		&& compiler.totalUnits >= THRESHOLD
+		&& compiler.getClass() == Compiler.class
+		&& compiler.parser.getClass() == Parser.class
+		&& compiler.annotationProcessorManager == null
+		&& compiler.metrics == null
+		&& !compiler.options.verbose
+		&& !compiler.problemReporter.policy.stopOnFirstError();
+}
+
+public ProcessAheadTaskManager(Compiler compiler, int threadCount) {
+	this.compiler = compiler;
+	synchronized (this) {
+		// the compiler units are released once processed, capture the initial ones before the processing thread starts
+		int length = compiler.totalUnits;
+		this.sourceUnits = new ICompilationUnit[length];
+		int sourceCount = 0;
+		for (int i = 0; i < length; i++) {
+			CompilationUnitDeclaration unit = compiler.unitsToProcess[i];
+			if ((unit.bits & ASTNode.IsImplicitUnit) == 0)
+				this.sourceUnits[sourceCount++] = unit.compilationResult.compilationUnit;
+		}
+		if (sourceCount < length)
+			System.arraycopy(this.sourceUnits, 0, (this.sourceUnits = new ICompilationUnit[sourceCount]), 0, sourceCount);
+		this.initialUnits = this.knownUnits = length;
+		this.units = new CompilationUnitDeclaration[length];
+		this.owners = new Compiler[length];
+		this.states = new int[length];
+		this.caughtExceptions = new Throwable[length];
+		this.unitCount = length;
+		this.addedUnits = new HashtableOfIntValues();
+		for (int i = 0; i < length; i++)
+			this.addedUnits.put(compiler.unitsToProcess[i].getFileName(), i);
+		this.nextUnitToProcess = 0;
+		this.processedIndex = 0;
+		this.busyHelpers = 0;
+
+		// from now on, all the compilers look up their names through this manager
+		this.nameEnvironment = compiler.lookupEnvironment.nameEnvironment;
+		compiler.lookupEnvironment.nameEnvironment = this;
+
+		this.helperThreads = new Thread[threadCount];
+		for (int i = threadCount; --i >= 0;) {
+			this.helperThreads[i] = new Thread(this, "Compiler Processing Helper"); //$NON-NLS-1$
+			this.helperThreads[i].setDaemon(true);
+			this.helperThreads[i].start();
+		}
+	}
+}
+
+private void addUnit(CompilationUnitDeclaration unit, Compiler owner) {
+	int length = this.units.length;
+	if (this.unitCount == length) {
+		System.arraycopy(this.units, 0, (this.units = new CompilationUnitDeclaration[length * 2]), 0, length);
+		System.arraycopy(this.owners, 0, (this.owners = new Compiler[length * 2]), 0, length);
+		System.arraycopy(this.states, 0, (this.states = new int[length * 2]), 0, length);
+		System.arraycopy(this.caughtExceptions, 0, (this.caughtExceptions = new Throwable[length * 2]), 0, length);
+	}
+	this.addedUnits.put(unit.getFileName(), this.unitCount);
+	this.units[this.unitCount] = unit;
+	this.owners[this.unitCount] = owner;
+	this.states[this.unitCount++] = ADDED;
+}
+
+/**
+ * Records the units added to the lookup environment of the given compiler from the given index, unless they
+ * were added by another compiler first.
+ */
+private void addUnits(Compiler owner, int start) {
+	for (int i = start, length = owner.totalUnits; i < length; i++) {
+		CompilationUnitDeclaration unit = owner.unitsToProcess[i];
+		if (!this.addedUnits.containsKey(unit.getFileName()))
+			addUnit(unit, owner);
+	}
+}
+
+public void cleanup() {
+	// the compiler owning the name environment cleans it up
+}
+
+public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+	synchronized (this.nameEnvironment) {
+		return this.nameEnvironment.findType(compoundTypeName);
+	}
+}
+
+public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+	synchronized (this.nameEnvironment) {
+		return this.nameEnvironment.findType(typeName, packageName);
+	}
+}
+
+public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+	synchronized (this.nameEnvironment) {
+		return this.nameEnvironment.isPackage(parentPackageName, packageName);
+	}
+}
+
+/**
+ * Answers the next unit for the processing thread, waiting until a helper thread has processed it if needed.
+ * Answers null once all the units have been processed.
+ * <p>
+ * When {@link #processIndex} is positive, the unit belongs to the compiler and is still to be processed by the
+ * processing thread. Otherwise it was processed by a helper thread, and {@link #rethrowFailure(CompilationUnitDeclaration)}
+ * must be called.
+ * </p>
+ */
+public CompilationUnitDeclaration nextUnit() {
+	CompilationUnitDeclaration unit = null;
+	synchronized (this) {
+		int index = this.processedIndex;
+		while (index == this.unitCount && this.busyHelpers > 0) {
+			try {
+				wait(250); // a busy helper can still add units
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+		}
+		if (index == this.unitCount) return null;
+
+		this.processedIndex = index + 1;
+		notifyAll(); // let the helpers move forward
+		if (this.states[index] == NOT_STARTED) {
+			this.states[index] = CLAIMED;
+			this.processIndex = index;
+			unit = this.compiler.getUnitToProcess(index);
+		} else if (this.states[index] == ADDED && this.owners[index] == this.compiler) {
+			this.states[index] = CLAIMED;
+			unit = this.units[index];
+			this.processIndex = unit.compilationResult.unitIndex;
+			this.compiler.getUnitToProcess(this.processIndex); // release reference to processed unit declaration
+		} else {
+			while (this.states[index] != DONE) {
+				try {
+					wait(250);
+				} catch (InterruptedException ignore) {
+					// ignore
+				}
+			}
+			unit = this.units[index];
+			this.processIndex = -1;
+			this.failure = this.caughtExceptions[index];
+			if (index < this.initialUnits)
+				this.compiler.getUnitToProcess(index); // release the unit the compiler did not process
+		}
+		this.units[index] = null;
+		this.owners[index] = null;
+		this.caughtExceptions[index] = null;
+	}
+	return unit;
+}
+
+/**
+ * Rethrows in the processing thread the failure of the helper thread on the last unit answered by {@link #nextUnit()}.
+ */
+public void rethrowFailure(CompilationUnitDeclaration unit) throws Error {
+	Throwable exception = this.failure;
+	if (exception == null) return;
+	this.failure = null;
+	if (exception instanceof AbortCompilation) {
+		AbortCompilation abortException = (AbortCompilation) exception;
+		if (abortException.compilationResult != null && abortException.compilationResult != unit.compilationResult)
+			abortException.compilationResult = unit.compilationResult; // a result of the helper environment, not accepted by anyone
+	}
+	if (exception instanceof Error)
+		throw (Error) exception;
+	throw (RuntimeException) exception;
+}
+
+public void run() {
+	ProblemReporter problemReporter = this.compiler.problemReporter;
+	Compiler helper = new Compiler(
+		this,
+		problemReporter.policy,
+		this.compiler.options,
+		new ICompilerRequestor() {
+			public void acceptResult(CompilationResult result) {
+				// the results of the processed units are handed to the processing thread
+			}
+		},
+		problemReporter.problemFactory,
+		this.compiler.out,
+		null /* progress */);
+	helper.parseThreshold = this.compiler.parseThreshold;
+	try {
+		ICompilationUnit[] copy = new ICompilationUnit[this.sourceUnits.length];
+		System.arraycopy(this.sourceUnits, 0, copy, 0, copy.length);
+		helper.beginToCompile(copy);
+	} catch (Error e) {
+		return; // leave the units to the processing thread
+	} catch (RuntimeException e) {
+		return;
+	}
+	synchronized (this) {
+		if (helper.totalUnits != this.initialUnits) return;
+		for (int i = 0; i < this.initialUnits; i++)
+			if (this.addedUnits.get(helper.unitsToProcess[i].getFileName()) != i)
+				return; // not the same units, leave them to the processing thread
+	}
+
+	int knownUnitsInHelper = this.initialUnits;
+	int ownedUnit = -1; // next unit added by the helper it has to process
+	while (true) {
+		CompilationUnitDeclaration unit = null;
+		int index = -1;
+		synchronized (this) {
+			if (ownedUnit >= 0) {
+				index = ownedUnit;
+				unit = this.units[index];
+			} else {
+				while (true) {
+					if (this.helperThreads == null) return;
+					while (this.nextUnitToProcess < this.initialUnits && this.states[this.nextUnitToProcess] != NOT_STARTED)
+						this.nextUnitToProcess++;
+					if (this.nextUnitToProcess >= this.initialUnits) return;
+					if (this.nextUnitToProcess < this.processedIndex + this.helperThreads.length * LOOK_AHEAD_PER_THREAD)
+						break;
+					try {
+						wait(250); // wait until the processing thread catches up
+					} catch (InterruptedException ignore) {
+						// ignore
+					}
+				}
+				index = this.nextUnitToProcess++;
+				unit = helper.getUnitToProcess(index);
+				this.busyHelpers++;
+			}
+			this.states[index] = IN_PROGRESS;
+		}
+		Throwable exception = null;
+		try {
+			helper.process(unit, unit.compilationResult.unitIndex);
+		} catch (Error e) {
+			exception = e;
+		} catch (RuntimeException e) {
+			exception = e;
+		} finally {
+			unit.cleanUp();
+		}
+		synchronized (this) {
+			this.units[index] = unit;
+			this.caughtExceptions[index] = exception;
+			this.states[index] = DONE;
+			ownedUnit = -1;
+			if (exception == null) {
+				addUnits(helper, knownUnitsInHelper);
+				knownUnitsInHelper = helper.totalUnits;
+			}
+			for (int i = this.initialUnits; i < this.unitCount; i++) {
+				if (this.owners[i] == helper && this.states[i] == ADDED) {
+					if (exception == null) {
+						ownedUnit = i; // process the units it added in order
+						break;
+					}
+					// the helper environment may be inconsistent, fail the units it still owns and stop
+					this.caughtExceptions[i] = exception;
+					this.states[i] = DONE;
+				}
+			}
+			if (ownedUnit < 0)
+				this.busyHelpers--;
+			notifyAll(); // wake up the processing thread if it is waiting for this unit
+			if (exception != null) return;
+		}
+	}
+}
+
+public synchronized void shutdown() {
+	this.helperThreads = null; // mark the manager as shutting down so that the helper threads stop
+	this.compiler.lookupEnvironment.nameEnvironment = this.nameEnvironment;
+	notifyAll();
+}
+
+/**
+ * Records the units added to the lookup environment of the compiler while the processing thread processed its last unit.
+ */
+public synchronized void unitProcessed() {
+	addUnits(this.compiler, this.knownUnits);
+	this.knownUnits = this.compiler.totalUnits;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008 IBM Corporation and others.
+ * Copyright (c) 2008, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,6 +21,7 @@ public class ProcessTaskManager implements Runnable {
 	private Thread processingThread;
 	CompilationUnitDeclaration unitToProcess;
 	private Throwable caughtException;
+	ProcessAheadTaskManager processAheadTask; // helper threads processing units ahead, if any
 
 	// queue
 	volatile int currentIndex, availableIndex, size, sleepCount;
@@ -38,6 +39,9 @@ public ProcessTaskManager(Compiler compiler) {
 	this.sleepCount = 0; // 0 is no one, +1 is the processing thread & -1 is the writing/main thread
 	this.units = new CompilationUnitDeclaration[this.size];
 
+	if (ProcessAheadTaskManager.canProcessAhead(compiler))
+		this.processAheadTask = new ProcessAheadTaskManager(compiler, compiler.processingThreads - 1);
+
 	synchronized (this) {
 		this.processingThread = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
 		this.processingThread.setDaemon(true);
@@ -116,12 +120,29 @@ public void run() {
 			synchronized (this) {
 				if (this.processingThread == null) return;
 
-				this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
+				if (this.processAheadTask == null) {
+					this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
+					if (this.unitToProcess == null) {
+						this.processingThread = null;
+						return;
+					}
+					index = this.unitIndex++;
+				}
+			}
+			if (this.processAheadTask != null) {
+				this.unitToProcess = this.processAheadTask.nextUnit(); // waits if a helper thread is processing it
 				if (this.unitToProcess == null) {
-					this.processingThread = null;
+					synchronized (this) {
+						this.processingThread = null;
+					}
 					return;
 				}
-				index = this.unitIndex++;
+				index = this.processAheadTask.processIndex;
+				if (index < 0) {
+					this.processAheadTask.rethrowFailure(this.unitToProcess);
+					addNextUnit(this.unitToProcess); // already processed by a helper thread
+					continue;
+				}
 			}
 
 			try {
@@ -135,6 +156,8 @@ public void run() {
 							new String(this.unitToProcess.getFileName())
 						}));
 				this.compiler.process(this.unitToProcess, index);
+				if (this.processAheadTask != null)
+					this.processAheadTask.unitProcessed();
 			} finally {
 				if (this.unitToProcess != null)
 					this.unitToProcess.cleanUp();
@@ -158,6 +181,8 @@ public void run() {
 }
 
 public void shutdown() {
+	if (this.processAheadTask != null)
+		this.processAheadTask.shutdown();
 	try {
 		Thread t = null;
 		synchronized (this) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2010 IBM Corporation and others.
+ * Copyright (c) 2008, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,21 +15,30 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 
+/**
+ * Reads the contents of the compilation units ahead of the parser on background threads.
+ * <p>
+ * The look-ahead is bounded by the number of characters kept in memory ({@link #CACHE_SIZE}) rather than by a
+ * number of files, so that a few large files do not exhaust the heap and many small files can be read well ahead
+ * on slow file systems. When the parser asks for a unit no reader has started on, it reads it itself, and it only
+ * waits when the unit it needs is currently being read.
+ * </p>
+ */
 public class ReadManager implements Runnable {
 	ICompilationUnit[] units;
+	char[][] contentsRead; // null: not read yet, readInProcessMarker: being read, consumedMarker: consumed or skipped
 	int nextFileToRead;
-	ICompilationUnit[] filesRead;
-	char[][] contentsRead;
-	int readyToReadPosition;
-	int nextAvailablePosition;
+	int nextFileToConsume;
+	int cachedSize; // number of characters read ahead and not consumed yet
 	Thread[] readingThreads;
 	char[] readInProcessMarker = new char[0];
+	char[] consumedMarker = new char[0];
 	int sleepingThreadCount;
 	private Throwable caughtException;
 
-	static final int START_CUSHION = 5;
 	public static final int THRESHOLD = 10;
-	static final int CACHE_SIZE = 15; // do not waste memory by keeping too many files in memory
+	static final int CACHE_SIZE = 4 * 1024 * 1024; // number of characters kept in memory ahead of the parser (8MB)
+	static final int MAX_THREADS = 15;
 
 public ReadManager(ICompilationUnit[] files, int length) {
 	// start the background threads to read the file's contents
@@ -42,8 +51,8 @@ public ReadManager(ICompilationUnit[] files, int length) {
 			threadCount = result.intValue() + 1;
 			if (threadCount < 2)
 				threadCount = 0;
-			else if (threadCount > CACHE_SIZE)
-				threadCount = CACHE_SIZE;
+			else if (threadCount > MAX_THREADS)
+				threadCount = MAX_THREADS;
 		}
 	} catch (IllegalAccessException ignored) { // ignored
 	} catch (ClassNotFoundException e) { // ignored
@@ -57,11 +66,10 @@ public ReadManager(ICompilationUnit[] files, int length) {
 		synchronized (this) {
 			this.units = new ICompilationUnit[length];
 			System.arraycopy(files, 0, this.units, 0, length);
-			this.nextFileToRead = START_CUSHION; // skip some files to reduce the number of times we have to wait
-			this.filesRead = new ICompilationUnit[CACHE_SIZE];
-			this.contentsRead = new char[CACHE_SIZE][];
-			this.readyToReadPosition = 0;
-			this.nextAvailablePosition = 0;
+			this.contentsRead = new char[length][];
+			this.nextFileToRead = 0;
+			this.nextFileToConsume = 0;
+			this.cachedSize = 0;
 			this.sleepingThreadCount = 0;
 			this.readingThreads = new Thread[threadCount];
 			for (int i = threadCount; --i >= 0;) {
@@ -84,99 +92,97 @@ public char[] getContents(ICompilationUnit unit) throws Error {
 		return unit.getContents();
 	}
 
-	boolean yield = false;
 	char[] result = null;
 	synchronized (this) {
-		if (unit == this.filesRead[this.readyToReadPosition]) {
-			result = this.contentsRead[this.readyToReadPosition];
-			while (result == this.readInProcessMarker || result == null) {
-				// let the readingThread know we're waiting
-				//System.out.print('|');
-				this.contentsRead[this.readyToReadPosition] = null;
-				try {
-					wait(250);
-				} catch (InterruptedException ignore) { // ignore
-				}
-				if (this.caughtException != null) {
-					// rethrow the caught exception from the readingThreads in the main compiler thread
-					if (this.caughtException instanceof Error)
-						throw (Error) this.caughtException;
-					throw (RuntimeException) this.caughtException;
-				}
-				result = this.contentsRead[this.readyToReadPosition];
-			}
-			// free spot for next file
-			this.filesRead[this.readyToReadPosition] = null;
-			this.contentsRead[this.readyToReadPosition] = null;
-			if (++this.readyToReadPosition >= this.contentsRead.length)
-				this.readyToReadPosition = 0;
-			if (this.sleepingThreadCount > 0) {
-				//System.out.print('+');
-				//System.out.print(this.nextFileToRead);
-				notify();
-				yield = this.sleepingThreadCount == this.readingThreads.length;
+		int unitIndex = indexOf(unit);
+		if (unitIndex == -1) {
+			// attempting to read a unit that was not included in the initial files - should not happen
+			return unit.getContents();
+		}
+		// release the contents of any unit skipped by the parser
+		for (int i = this.nextFileToConsume; i < unitIndex; i++)
+			consume(i);
+		if (unitIndex >= this.nextFileToConsume)
+			this.nextFileToConsume = unitIndex + 1;
+		if (unitIndex >= this.nextFileToRead)
+			this.nextFileToRead = unitIndex + 1; // the readers must stay ahead of the parser
+
+		result = this.contentsRead[unitIndex];
+		while (result == this.readInProcessMarker) {
+			// only wait for the unit being read, all other units are read by the caller
+			//System.out.print('|');
+			try {
+				wait(250);
+			} catch (InterruptedException ignore) { // ignore
 			}
-		} else {
-			// must make sure we're reading ahead of the unit
-			int unitIndex = 0;
-			for (int l = this.units.length; unitIndex < l; unitIndex++)
-				if (this.units[unitIndex] == unit) break;
-			if (unitIndex == this.units.length) {
-				// attempting to read a unit that was not included in the initial files - should not happen
-				this.units = new ICompilationUnit[0]; // stop looking for more
-			} else if (unitIndex >= this.nextFileToRead) {
-				// start over
-				//System.out.println(unitIndex + " vs " + this.nextFileToRead);
-				this.nextFileToRead = unitIndex + START_CUSHION;
-				this.readyToReadPosition = 0;
-				this.nextAvailablePosition = 0;
-				this.filesRead = new ICompilationUnit[CACHE_SIZE];
-				this.contentsRead = new char[CACHE_SIZE][];
-				notifyAll();
+			if (this.caughtException != null) {
+				// rethrow the caught exception from the readingThreads in the main compiler thread
+				if (this.caughtException instanceof Error)
+					throw (Error) this.caughtException;
+				throw (RuntimeException) this.caughtException;
 			}
+			result = this.contentsRead[unitIndex];
 		}
+		consume(unitIndex);
+		if (this.sleepingThreadCount > 0)
+			notifyAll(); // space is available again in the cache
 	}
-	if (yield)
-		Thread.yield(); // ensure other threads get a chance
-	if (result != null)
+	if (result != null && result != this.consumedMarker)
 		return result;
 	//System.out.print('-');
 	return unit.getContents();
 }
 
+private void consume(int unitIndex) {
+	char[] contents = this.contentsRead[unitIndex];
+	if (contents != null && contents != this.readInProcessMarker && contents != this.consumedMarker)
+		this.cachedSize -= contents.length;
+	this.contentsRead[unitIndex] = this.consumedMarker;
+}
+
+private int indexOf(ICompilationUnit unit) {
+	// units are usually requested in order
+	for (int i = this.nextFileToConsume, l = this.units.length; i < l; i++)
+		if (this.units[i] == unit) return i;
+	for (int i = 0, l = this.nextFileToConsume; i < l; i++)
+		if (this.units[i] == unit) return i;
+	return -1;
+}
+
 public void run() {
 	try {
-		while (this.readingThreads != null && this.nextFileToRead < this.units.length) {
+		while (true) {
 			ICompilationUnit unit = null;
 			int position = -1;
 			synchronized (this) {
-				if (this.readingThreads == null) return;
-
-				while (this.filesRead[this.nextAvailablePosition] != null) {
+				while (true) {
+					if (this.readingThreads == null) return;
+					while (this.nextFileToRead < this.units.length && this.contentsRead[this.nextFileToRead] != null)
+						this.nextFileToRead++;
+					if (this.nextFileToRead >= this.units.length) return;
+					if (this.cachedSize < CACHE_SIZE) break;
 					this.sleepingThreadCount++;
 					try {
-						wait(250); // wait until a spot in contents is available
+						wait(250); // wait until the parser consumed some contents
 					} catch (InterruptedException e) { // ignore
 					}
 					this.sleepingThreadCount--;
-					if (this.readingThreads == null) return;
 				}
-
-				if (this.nextFileToRead >= this.units.length) return;
-				unit = this.units[this.nextFileToRead++];
-				position = this.nextAvailablePosition;
-				if (++this.nextAvailablePosition >= this.contentsRead.length)
-					this.nextAvailablePosition = 0;
-				this.filesRead[position] = unit;
+				position = this.nextFileToRead++;
+				unit = this.units[position];
 				this.contentsRead[position] = this.readInProcessMarker; // mark the spot so we know its being read
 			}
 			char[] result = unit.getContents();
 			synchronized (this) {
-				if (this.filesRead[position] == unit) {
-					if (this.contentsRead[position] == null) // wake up main thread which is waiting for this file
-						notifyAll();
-					this.contentsRead[position] = result;
+				if (this.contentsRead[position] == this.readInProcessMarker) {
+					if (result == null) {
+						this.contentsRead[position] = this.consumedMarker; // let the parser read it again
+					} else {
+						this.contentsRead[position] = result;
+						this.cachedSize += result.length;
+					}
 				}
+				notifyAll(); // wake up main thread if it is waiting for this file
 			}
 		}
 	} catch (Error e) {
@@ -198,4 +204,4 @@ public synchronized void shutdown() {
 	this.readingThreads = null; // mark the read manager as shutting down so that the reading threads stop
 	notifyAll();
 }
-}
\ No newline at end of file
+}
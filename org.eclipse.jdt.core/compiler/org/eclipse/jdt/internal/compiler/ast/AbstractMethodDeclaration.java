@@ -240,6 +240,10 @@ public abstract class AbstractMethodDeclaration
 			classFile.addProblemMethod(this, this.binding, problemsCopy);
 			return;
 		}
+		if (classScope.compilerOptions().generateMethodStubs && !this.binding.isAbstract() && !this.binding.isNative()) {
+			classFile.addMethodStub(this, this.binding);
+			return;
+		}
 		boolean restart = false;
 		boolean abort = false;
 		// regular code generation
@@ -110,6 +110,10 @@ public class Clinit extends AbstractMethodDeclaration {
 			// should never have to add any <clinit> problem method
 			return;
 		}
+		if (classScope.compilerOptions().generateMethodStubs) {
+			// static initializers are not analyzed when method bodies are ignored, and are not part of the signatures
+			return;
+		}
 		boolean restart = false;
 		do {
 			try {
@@ -77,6 +77,7 @@ public void analyseCode(ClassScope classScope, InitializationFlowContext initial
 			if (superClass == null)
 				break checkUnused;
 			// see if there is a no-arg super constructor
+			this.scope.compilationUnitScope().recordMemberReference(TypeConstants.INIT);
 			MethodBinding methodBinding = superClass.getExactConstructor(Binding.NO_PARAMETERS);
 			if (methodBinding == null)
 				break checkUnused;
@@ -253,6 +254,10 @@ public void generateCode(ClassScope classScope, ClassFile classFile) {
 		classFile.addProblemConstructor(this, this.binding, problemsCopy);
 		return;
 	}
+	if (classScope.compilerOptions().generateMethodStubs) {
+		classFile.addMethodStub(this, this.binding);
+		return;
+	}
 	boolean restart = false;
 	boolean abort = false;
 	do {
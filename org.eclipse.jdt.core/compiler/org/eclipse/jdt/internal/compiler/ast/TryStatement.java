@@ -352,6 +352,7 @@ private MethodBinding findCloseMethod(final LocalDeclaration resource, LocalVari
 	TypeBinding type = resourceBinding.type;
 	if (type != null && type.isValidBinding()) {
 		ReferenceBinding binding = (ReferenceBinding) type;
+		this.scope.compilationUnitScope().recordMemberReference(ConstantPool.Close);
 		closeMethod = binding.getExactMethod(ConstantPool.Close, new TypeBinding [0], this.scope.compilationUnitScope()); // scope needs to be tighter
 		if(closeMethod == null) {
 			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=380112
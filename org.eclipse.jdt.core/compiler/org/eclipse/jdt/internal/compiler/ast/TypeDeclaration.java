@@ -549,6 +549,11 @@ public void generateCode(ClassFile enclosingClassFile) {
 			}
 		}
 
+		if (this.enumValuesSyntheticfield == null && this.binding.isEnum() && !this.binding.isAnonymousType()
+				&& this.scope.compilerOptions().generateMethodStubs) {
+			// the code was not analyzed, see analyseCode()
+			this.enumValuesSyntheticfield = this.binding.addSyntheticFieldForEnumValues();
+		}
 		// generate all fiels
 		classFile.addFieldInfos();
 
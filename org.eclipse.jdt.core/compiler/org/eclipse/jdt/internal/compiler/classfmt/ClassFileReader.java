@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,8 @@ import org.eclipse.jdt.internal.compiler.env.*;
 import org.eclipse.jdt.internal.compiler.impl.Constant;
 import org.eclipse.jdt.internal.compiler.lookup.TagBits;
 import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+import org.eclipse.jdt.internal.compiler.util.SimpleSetOfCharArray;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class ClassFileReader extends ClassFileStruct implements IBinaryType {
@@ -833,139 +835,225 @@ public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, bool
 	try {
 		ClassFileReader newClassFile =
 			new ClassFileReader(newBytes, this.classFileName);
-		// type level comparison
-		// modifiers
-		if (getModifiers() != newClassFile.getModifiers())
-			return true;
+		return hasStructuralTypeChanges(newClassFile)
+			|| hasStructuralMemberChanges(newClassFile, orderRequired, excludesSynthetic);
+	} catch (ClassFormatException e) {
+		return true;
+	}
+}
 
-		// only consider a portion of the tagbits which indicate a structural change for dependents
-		// e.g. @Override change has no influence outside
-		long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
-			| TagBits.AnnotationDeprecated // different @Deprecated status ?
-			| TagBits.AnnotationRetentionMASK // different @Retention status ?
-			| TagBits.HierarchyHasProblems; // different hierarchy status ?
+/**
+ * Answer the names of the fields and methods which have structural changes compared to the byte array in argument,
+ * where structural changes are the ones detected by {@link #hasStructuralChanges(byte[])}. Constructors are named &lt;init&gt;.
+ * An empty array is answered when there are no structural changes, and null is answered when the changes can affect types
+ * which do not refer to the changed members by name:
+ * - any change at the type level, e.g. to the modifiers, super types or member types of the type
+ * - any change to the members of an interface, an annotation type or an enum type
+ * - the addition, removal or change of an abstract method
+ * The synthetic members are excluded and the members are not required to be sorted.
+ * @param newBytes the bytes of the .class file we want to compare the receiver to
+ * @return char[][] the names of the changed members, or null if the whole type must be considered as changed
+ */
+public char[][] getStructurallyChangedMembers(byte[] newBytes) {
+	try {
+		ClassFileReader newClassFile =
+			new ClassFileReader(newBytes, this.classFileName);
+		if (hasStructuralTypeChanges(newClassFile))
+			return null;
+		if ((getModifiers() & (ClassFileConstants.AccInterface | ClassFileConstants.AccEnum)) != 0)
+			return hasStructuralMemberChanges(newClassFile, true, true) ? null : CharOperation.NO_CHAR_CHAR;
+
+		SimpleSetOfCharArray changedNames = new SimpleSetOfCharArray(3);
+
+		// fields are matched by name
+		HashtableOfObject otherFields = new HashtableOfObject(newClassFile.fieldsCount);
+		for (int i = 0; i < newClassFile.fieldsCount; i++) {
+			FieldInfo field = newClassFile.fields[i];
+			if (!field.isSynthetic())
+				otherFields.put(field.getName(), field);
+		}
+		for (int i = 0; i < this.fieldsCount; i++) {
+			FieldInfo field = this.fields[i];
+			if (field.isSynthetic()) continue;
+			FieldInfo otherField = (FieldInfo) otherFields.removeKey(field.getName());
+			if (otherField == null || hasStructuralFieldChanges(field, otherField))
+				changedNames.add(field.getName());
+		}
+		for (int i = 0, l = otherFields.valueTable.length; i < l; i++)
+			if (otherFields.valueTable[i] != null)
+				changedNames.add(otherFields.keyTable[i]);
+
+		// methods are matched by selector & descriptor
+		HashtableOfObject otherMethods = new HashtableOfObject(newClassFile.methodsCount);
+		for (int i = 0; i < newClassFile.methodsCount; i++) {
+			MethodInfo method = newClassFile.methods[i];
+			if (!(method.isSynthetic() || method.isClinit()))
+				otherMethods.put(CharOperation.concat(method.getSelector(), method.getMethodDescriptor()), method);
+		}
+		for (int i = 0; i < this.methodsCount; i++) {
+			MethodInfo method = this.methods[i];
+			if (method.isSynthetic() || method.isClinit()) continue;
+			MethodInfo otherMethod = (MethodInfo) otherMethods.removeKey(CharOperation.concat(method.getSelector(), method.getMethodDescriptor()));
+			if (otherMethod == null || hasStructuralMethodChanges(method, otherMethod)) {
+				if ((method.getModifiers() & ClassFileConstants.AccAbstract) != 0)
+					return null; // subclasses must implement it
+				if (otherMethod != null && (otherMethod.getModifiers() & ClassFileConstants.AccAbstract) != 0)
+					return null;
+				changedNames.add(method.getSelector());
+			}
+		}
+		for (int i = 0, l = otherMethods.valueTable.length; i < l; i++) {
+			MethodInfo otherMethod = (MethodInfo) otherMethods.valueTable[i];
+			if (otherMethod != null) {
+				if ((otherMethod.getModifiers() & ClassFileConstants.AccAbstract) != 0)
+					return null;
+				changedNames.add(otherMethod.getSelector());
+			}
+		}
 
-		// meta-annotations
-		if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
-			return true;
-		// annotations
-		if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
-			return true;
+		if (changedNames.elementSize == 0)
+			return CharOperation.NO_CHAR_CHAR;
+		char[][] result = new char[changedNames.elementSize][];
+		changedNames.asArray(result);
+		return result;
+	} catch (ClassFormatException e) {
+		return null;
+	}
+}
 
-		// generic signature
-		if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
-			return true;
-		// superclass
-		if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+private boolean hasStructuralTypeChanges(ClassFileReader newClassFile) {
+	// modifiers
+	if (getModifiers() != newClassFile.getModifiers())
+		return true;
+
+	// only consider a portion of the tagbits which indicate a structural change for dependents
+	// e.g. @Override change has no influence outside
+	long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
+		| TagBits.AnnotationDeprecated // different @Deprecated status ?
+		| TagBits.AnnotationRetentionMASK // different @Retention status ?
+		| TagBits.HierarchyHasProblems; // different hierarchy status ?
+
+	// meta-annotations
+	if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
+		return true;
+	// annotations
+	if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
+		return true;
+
+	// generic signature
+	if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
+		return true;
+	// superclass
+	if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+		return true;
+	// interfaces
+	char[][] newInterfacesNames = newClassFile.getInterfaceNames();
+	if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
+		int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
+		if (newInterfacesLength != this.interfacesCount)
 			return true;
-		// interfaces
-		char[][] newInterfacesNames = newClassFile.getInterfaceNames();
-		if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
-			int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
-			if (newInterfacesLength != this.interfacesCount)
+		for (int i = 0, max = this.interfacesCount; i < max; i++)
+			if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
 				return true;
-			for (int i = 0, max = this.interfacesCount; i < max; i++)
-				if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
+	}
+
+	// member types
+	IBinaryNestedType[] currentMemberTypes = getMemberTypes();
+	IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
+	if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
+		int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
+		int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
+		if (currentMemberTypeLength != otherMemberTypeLength)
+			return true;
+		for (int i = 0; i < currentMemberTypeLength; i++)
+			if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
+				|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
 					return true;
-		}
+	}
 
-		// member types
-		IBinaryNestedType[] currentMemberTypes = getMemberTypes();
-		IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
-		if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
-			int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
-			int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
-			if (currentMemberTypeLength != otherMemberTypeLength)
-				return true;
-			for (int i = 0; i < currentMemberTypeLength; i++)
-				if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
-					|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
-						return true;
+	// missing types
+	char[][][] missingTypes = getMissingTypeNames();
+	char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
+	if (missingTypes != null) {
+		if (newMissingTypes == null) {
+			return true;
 		}
-
-		// fields
-		FieldInfo[] otherFieldInfos = (FieldInfo[]) newClassFile.getFields();
-		int otherFieldInfosLength = otherFieldInfos == null ? 0 : otherFieldInfos.length;
-		boolean compareFields = true;
-		if (this.fieldsCount == otherFieldInfosLength) {
-			int i = 0;
-			for (; i < this.fieldsCount; i++)
-				if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i])) break;
-			if ((compareFields = i != this.fieldsCount) && !orderRequired && !excludesSynthetic)
-				return true;
+		int length = missingTypes.length;
+		if (length != newMissingTypes.length) {
+			return true;
 		}
-		if (compareFields) {
-			if (this.fieldsCount != otherFieldInfosLength && !excludesSynthetic)
+		for (int i = 0; i < length; i++) {
+			if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
 				return true;
-			if (orderRequired) {
-				if (this.fieldsCount != 0)
-					Arrays.sort(this.fields);
-				if (otherFieldInfosLength != 0)
-					Arrays.sort(otherFieldInfos);
-			}
-			if (excludesSynthetic) {
-				if (hasNonSyntheticFieldChanges(this.fields, otherFieldInfos))
-					return true;
-			} else {
-				for (int i = 0; i < this.fieldsCount; i++)
-					if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i]))
-						return true;
 			}
 		}
+	} else if (newMissingTypes != null) {
+		return true;
+	}
+	return false;
+}
 
-		// methods
-		MethodInfo[] otherMethodInfos = (MethodInfo[]) newClassFile.getMethods();
-		int otherMethodInfosLength = otherMethodInfos == null ? 0 : otherMethodInfos.length;
-		boolean compareMethods = true;
-		if (this.methodsCount == otherMethodInfosLength) {
-			int i = 0;
-			for (; i < this.methodsCount; i++)
-				if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i])) break;
-			if ((compareMethods = i != this.methodsCount) && !orderRequired && !excludesSynthetic)
-				return true;
+private boolean hasStructuralMemberChanges(ClassFileReader newClassFile, boolean orderRequired, boolean excludesSynthetic) {
+	// fields
+	FieldInfo[] otherFieldInfos = (FieldInfo[]) newClassFile.getFields();
+	int otherFieldInfosLength = otherFieldInfos == null ? 0 : otherFieldInfos.length;
+	boolean compareFields = true;
+	if (this.fieldsCount == otherFieldInfosLength) {
+		int i = 0;
+		for (; i < this.fieldsCount; i++)
+			if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i])) break;
+		if ((compareFields = i != this.fieldsCount) && !orderRequired && !excludesSynthetic)
+			return true;
+	}
+	if (compareFields) {
+		if (this.fieldsCount != otherFieldInfosLength && !excludesSynthetic)
+			return true;
+		if (orderRequired) {
+			if (this.fieldsCount != 0)
+				Arrays.sort(this.fields);
+			if (otherFieldInfosLength != 0)
+				Arrays.sort(otherFieldInfos);
 		}
-		if (compareMethods) {
-			if (this.methodsCount != otherMethodInfosLength && !excludesSynthetic)
+		if (excludesSynthetic) {
+			if (hasNonSyntheticFieldChanges(this.fields, otherFieldInfos))
 				return true;
-			if (orderRequired) {
-				if (this.methodsCount != 0)
-					Arrays.sort(this.methods);
-				if (otherMethodInfosLength != 0)
-					Arrays.sort(otherMethodInfos);
-			}
-			if (excludesSynthetic) {
-				if (hasNonSyntheticMethodChanges(this.methods, otherMethodInfos))
+		} else {
+			for (int i = 0; i < this.fieldsCount; i++)
+				if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i]))
 					return true;
-			} else {
-				for (int i = 0; i < this.methodsCount; i++)
-					if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i]))
-						return true;
-			}
 		}
+	}
 
-		// missing types
-		char[][][] missingTypes = getMissingTypeNames();
-		char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
-		if (missingTypes != null) {
-			if (newMissingTypes == null) {
-				return true;
-			}
-			int length = missingTypes.length;
-			if (length != newMissingTypes.length) {
+	// methods
+	MethodInfo[] otherMethodInfos = (MethodInfo[]) newClassFile.getMethods();
+	int otherMethodInfosLength = otherMethodInfos == null ? 0 : otherMethodInfos.length;
+	boolean compareMethods = true;
+	if (this.methodsCount == otherMethodInfosLength) {
+		int i = 0;
+		for (; i < this.methodsCount; i++)
+			if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i])) break;
+		if ((compareMethods = i != this.methodsCount) && !orderRequired && !excludesSynthetic)
+			return true;
+	}
+	if (compareMethods) {
+		if (this.methodsCount != otherMethodInfosLength && !excludesSynthetic)
+			return true;
+		if (orderRequired) {
+			if (this.methodsCount != 0)
+				Arrays.sort(this.methods);
+			if (otherMethodInfosLength != 0)
+				Arrays.sort(otherMethodInfos);
+		}
+		if (excludesSynthetic) {
+			if (hasNonSyntheticMethodChanges(this.methods, otherMethodInfos))
 				return true;
-			}
-			for (int i = 0; i < length; i++) {
-				if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
+		} else {
+			for (int i = 0; i < this.methodsCount; i++)
+				if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i]))
 					return true;
-				}
-			}
-		} else if (newMissingTypes != null) {
-			return true;
 		}
-		return false;
-	} catch (ClassFormatException e) {
-		return true;
 	}
+	return false;
 }
 
 private boolean hasStructuralAnnotationChanges(IBinaryAnnotation[] currentAnnotations, IBinaryAnnotation[] otherAnnotations) {
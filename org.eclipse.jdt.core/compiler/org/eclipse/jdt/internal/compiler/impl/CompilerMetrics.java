@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.impl;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.ClassFilePool;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+
+/**
+ * Detailed metrics of a compilation, collected by the compiler when {@link org.eclipse.jdt.internal.compiler.Compiler#metrics}
+ * is set. Unlike {@link CompilerStats}, times are recorded per unit, in nanoseconds when the running VM supports it.
+ * <p>
+ * The bytes allocated for a unit are measured on the thread processing it, and are only available on VMs
+ * providing per thread allocation counters; they are <code>-1</code> otherwise.
+ * </p>
+ */
+public class CompilerMetrics {
+
+	public static class UnitMetrics {
+		public char[] fileName;
+		public int lineCount;
+
+		// compile phases, in nanoseconds
+		public long parseTime;
+		public long resolveTime;
+		public long analyzeTime;
+		public long generateTime;
+
+		public long allocatedBytes = -1;
+
+		UnitMetrics(char[] fileName) {
+			this.fileName = fileName;
+		}
+
+		public long totalTime() {
+			return this.parseTime + this.resolveTime + this.analyzeTime + this.generateTime;
+		}
+
+		public void recordAllocation(long start) {
+			if (start < 0) return;
+			long end = allocatedBytes();
+			if (end < 0) return;
+			this.allocatedBytes = (this.allocatedBytes < 0 ? 0 : this.allocatedBytes) + end - start;
+		}
+	}
+
+	public static class LookupMetrics {
+		public String name;
+		public int calls;
+		public int answers;
+
+		public LookupMetrics(String name, int calls, int answers) {
+			this.name = name;
+			this.calls = calls;
+			this.answers = answers;
+		}
+	}
+
+	ArrayList units; // in the order the units were first seen
+	Map unitsByResult; // CompilationResult -> UnitMetrics
+
+	// lookup environment
+	public int typeCacheHits;
+	public int typeCacheMisses;
+
+	// class file pool
+	public int classFilesAcquired;
+	public int classFilesReused;
+
+	// name environment lookups, per classpath entry
+	public ArrayList lookups = new ArrayList();
+
+	private static Method NanoTime;
+	private static Object ThreadBean;
+	private static Method AllocatedBytes;
+	private static Method ThreadId;
+	static {
+		try {
+			NanoTime = System.class.getMethod("nanoTime", null); //$NON-NLS-1$
+		} catch (NoSuchMethodException e) {
+			// pre 1.5 VM, use milliseconds
+		}
+		try {
+			ThreadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean", null).invoke(null, null); //$NON-NLS-1$ //$NON-NLS-2$
+			Method isSupported = Class.forName("com.sun.management.ThreadMXBean").getMethod("isThreadAllocatedMemorySupported", null); //$NON-NLS-1$ //$NON-NLS-2$
+			if (((Boolean) isSupported.invoke(ThreadBean, null)).booleanValue()) {
+				AllocatedBytes = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", new Class[] { long.class }); //$NON-NLS-1$ //$NON-NLS-2$
+				ThreadId = Thread.class.getMethod("getId", null); //$NON-NLS-1$
+			}
+		} catch (Exception e) {
+			// allocation counters are not available on this VM
+			AllocatedBytes = null;
+		} catch (LinkageError e) {
+			AllocatedBytes = null;
+		}
+	}
+
+public CompilerMetrics() {
+	this.units = new ArrayList();
+	this.unitsByResult = new HashMap();
+}
+
+/**
+ * Answer the current value of the most precise timer available, in nanoseconds.
+ */
+public static long nanoTime() {
+	if (NanoTime != null) {
+		try {
+			return ((Long) NanoTime.invoke(null, null)).longValue();
+		} catch (Exception e) {
+			NanoTime = null;
+		}
+	}
+	return System.currentTimeMillis() * 1000000L;
+}
+
+/**
+ * Answer the number of bytes allocated so far by the current thread, or <code>-1</code> if unknown.
+ */
+public static long allocatedBytes() {
+	if (AllocatedBytes == null) return -1;
+	try {
+		Object id = ThreadId.invoke(Thread.currentThread(), null);
+		return ((Long) AllocatedBytes.invoke(ThreadBean, new Object[] { id })).longValue();
+	} catch (Exception e) {
+		AllocatedBytes = null;
+		return -1;
+	}
+}
+
+/**
+ * Answer the metrics of the unit with the given result, creating them if needed.
+ */
+public synchronized UnitMetrics getUnit(CompilationResult result) {
+	UnitMetrics unit = (UnitMetrics) this.unitsByResult.get(result);
+	if (unit == null) {
+		this.unitsByResult.put(result, unit = new UnitMetrics(result.getFileName()));
+		this.units.add(unit);
+	}
+	return unit;
+}
+
+public synchronized UnitMetrics[] getUnits() {
+	UnitMetrics[] result = new UnitMetrics[this.units.size()];
+	this.units.toArray(result);
+	return result;
+}
+
+/**
+ * Record the counters maintained by the given environment and its class file pool. The counters are cumulative,
+ * so recording them again replaces the previous values.
+ */
+public void recordEnvironment(LookupEnvironment environment) {
+	this.typeCacheHits = environment.typeCacheHits;
+	this.typeCacheMisses = environment.typeCacheMisses;
+	ClassFilePool pool = environment.classFilePool;
+	this.classFilesAcquired = pool.acquired;
+	this.classFilesReused = pool.reused;
+}
+
+/**
+ * Write the metrics as a JSON document.
+ */
+public void writeJSON(PrintWriter writer) {
+	UnitMetrics[] allUnits = getUnits();
+	writer.println('{');
+	writer.println("  \"units\": ["); //$NON-NLS-1$
+	for (int i = 0, length = allUnits.length; i < length; i++) {
+		UnitMetrics unit = allUnits[i];
+		writer.print("    {\"file\": "); //$NON-NLS-1$
+		writeJSONString(writer, new String(unit.fileName));
+		writer.print(", \"lines\": " + unit.lineCount); //$NON-NLS-1$
+		writer.print(", \"parseNanos\": " + unit.parseTime); //$NON-NLS-1$
+		writer.print(", \"resolveNanos\": " + unit.resolveTime); //$NON-NLS-1$
+		writer.print(", \"analyzeNanos\": " + unit.analyzeTime); //$NON-NLS-1$
+		writer.print(", \"generateNanos\": " + unit.generateTime); //$NON-NLS-1$
+		writer.print(", \"totalNanos\": " + unit.totalTime()); //$NON-NLS-1$
+		writer.print(", \"allocatedBytes\": " + unit.allocatedBytes); //$NON-NLS-1$
+		writer.println(i == length - 1 ? "}" : "},"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	writer.println("  ],"); //$NON-NLS-1$
+	writer.println("  \"typeCache\": {\"hits\": " + this.typeCacheHits + ", \"misses\": " + this.typeCacheMisses + "},"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	writer.println("  \"classFilePool\": {\"acquired\": " + this.classFilesAcquired + ", \"reused\": " + this.classFilesReused + "},"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	writer.println("  \"findType\": ["); //$NON-NLS-1$
+	for (int i = 0, length = this.lookups.size(); i < length; i++) {
+		LookupMetrics lookup = (LookupMetrics) this.lookups.get(i);
+		writer.print("    {\"entry\": "); //$NON-NLS-1$
+		writeJSONString(writer, lookup.name);
+		writer.print(", \"calls\": " + lookup.calls + ", \"answers\": " + lookup.answers); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.println(i == length - 1 ? "}" : "},"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	writer.println("  ]"); //$NON-NLS-1$
+	writer.println('}');
+}
+
+/**
+ * Write the metrics as comma separated values, one row per unit, classpath entry and counter.
+ * Hits and misses are respectively the answers and the unanswered calls for classpath entries,
+ * and the reused and newly created class files for the class file pool.
+ */
+public void writeCSV(PrintWriter writer) {
+	writer.println("kind,name,lines,parseNanos,resolveNanos,analyzeNanos,generateNanos,allocatedBytes,hits,misses"); //$NON-NLS-1$
+	UnitMetrics[] allUnits = getUnits();
+	for (int i = 0, length = allUnits.length; i < length; i++) {
+		UnitMetrics unit = allUnits[i];
+		writer.print("unit,"); //$NON-NLS-1$
+		writeCSVString(writer, new String(unit.fileName));
+		writer.println("," + unit.lineCount //$NON-NLS-1$
+			+ ',' + unit.parseTime
+			+ ',' + unit.resolveTime
+			+ ',' + unit.analyzeTime
+			+ ',' + unit.generateTime
+			+ ',' + unit.allocatedBytes
+			+ ",,"); //$NON-NLS-1$
+	}
+	for (int i = 0, length = this.lookups.size(); i < length; i++) {
+		LookupMetrics lookup = (LookupMetrics) this.lookups.get(i);
+		writer.print("findType,"); //$NON-NLS-1$
+		writeCSVString(writer, lookup.name);
+		writer.println(",,,,,,," + lookup.answers + ',' + (lookup.calls - lookup.answers)); //$NON-NLS-1$
+	}
+	writer.println("typeCache,,,,,,,," + this.typeCacheHits + ',' + this.typeCacheMisses); //$NON-NLS-1$
+	writer.println("classFilePool,,,,,,,," + this.classFilesReused + ',' + (this.classFilesAcquired - this.classFilesReused)); //$NON-NLS-1$
+}
+
+private static void writeJSONString(PrintWriter writer, String value) {
+	writer.print('"');
+	for (int i = 0, length = value.length(); i < length; i++) {
+		char c = value.charAt(i);
+		switch (c) {
+			case '"' :
+			case '\\' :
+				writer.print('\\');
+				writer.print(c);
+				break;
+			default :
+				if (c < ' ') {
+					String hex = Integer.toHexString(c);
+					writer.print("\\u0000".substring(0, 6 - hex.length())); //$NON-NLS-1$
+					writer.print(hex);
+				} else {
+					writer.print(c);
+				}
+		}
+	}
+	writer.print('"');
+}
+
+private static void writeCSVString(PrintWriter writer, String value) {
+	if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+		writer.print(value);
+		return;
+	}
+	writer.print('"');
+	for (int i = 0, length = value.length(); i < length; i++) {
+		char c = value.charAt(i);
+		if (c == '"')
+			writer.print('"');
+		writer.print(c);
+	}
+	writer.print('"');
+}
+}
@@ -409,6 +409,8 @@ public class CompilerOptions {
 	public boolean generateClassFiles;
 	/** Indicate if method bodies should be ignored */
 	public boolean ignoreMethodBodies;
+	/** Indicate if class files should still be generated when method bodies are ignored, their methods then only throw an error */
+	public boolean generateMethodStubs;
 	/** Raise null related warnings for variables tainted inside an assert statement (java 1.4 and above)*/
 	public boolean includeNullInfoFromAsserts;
 	/** Controls whether forced generic type problems get reported  */
@@ -1298,6 +1300,7 @@ public class CompilerOptions {
 		
 		// ignore method bodies
 		this.ignoreMethodBodies = false;
+		this.generateMethodStubs = false;
 		
 		this.ignoreSourceFolderWarningOption = false;
 		
@@ -285,6 +285,13 @@ public MethodBinding[] availableMethods() {
 	return availableMethods;
 }
 
+void clearCompatibleCache() {
+	super.clearCompatibleCache();
+	if (this.typeVariables != null)
+		for (int i = this.typeVariables.length; --i >= 0;)
+			this.typeVariables[i].clearCompatibleCache();
+}
+
 void cachePartsFrom(IBinaryType binaryType, boolean needFieldsAndMethods) {
 	try {
 		// default initialization for super-interfaces early, in case some aborting compilation error occurs,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -168,6 +168,7 @@ public class ClassScope extends Scope {
 	void buildFieldsAndMethods() {
 		buildFields();
 		buildMethods();
+		recordDeclaredMembers();
 
 		SourceTypeBinding sourceType = this.referenceContext.binding;
 		if (!sourceType.isPrivate() && sourceType.superclass instanceof SourceTypeBinding && sourceType.superclass.isPrivate())
@@ -181,6 +182,21 @@ public class ClassScope extends Scope {
 			 ((SourceTypeBinding) memberTypes[i]).scope.buildFieldsAndMethods();
 	}
 
+	// a change to a member of a supertype can make the declaration of a member with the same name invalid
+	private void recordDeclaredMembers() {
+		CompilationUnitScope unitScope = compilationUnitScope();
+		FieldDeclaration[] fields = this.referenceContext.fields;
+		if (fields != null)
+			for (int i = 0, length = fields.length; i < length; i++)
+				if (fields[i].getKind() != AbstractVariableDeclaration.INITIALIZER)
+					unitScope.recordMemberReference(fields[i].name);
+		AbstractMethodDeclaration[] methods = this.referenceContext.methods;
+		if (methods != null)
+			for (int i = 0, length = methods.length; i < length; i++)
+				if (!methods[i].isClinit())
+					unitScope.recordMemberReference(methods[i].isConstructor() ? TypeConstants.INIT : methods[i].selector);
+	}
+
 	private LocalTypeBinding buildLocalType(SourceTypeBinding enclosingType, PackageBinding packageBinding) {
 
 		this.referenceContext.scope = this;
@@ -37,6 +37,7 @@ public class CompilationUnitScope extends Scope {
 	private CompoundNameVector qualifiedReferences;
 	private SimpleNameVector simpleNameReferences;
 	private SimpleNameVector rootReferences;
+	private SimpleNameVector memberReferences;
 	private ObjectVector referencedTypes;
 	private ObjectVector referencedSuperTypes;
 
@@ -56,12 +57,14 @@ public CompilationUnitScope(CompilationUnitDeclaration unit, LookupEnvironment e
 		this.qualifiedReferences = new CompoundNameVector();
 		this.simpleNameReferences = new SimpleNameVector();
 		this.rootReferences = new SimpleNameVector();
+		this.memberReferences = new SimpleNameVector();
 		this.referencedTypes = new ObjectVector();
 		this.referencedSuperTypes = new ObjectVector();
 	} else {
 		this.qualifiedReferences = null; // used to test if dependencies should be recorded
 		this.simpleNameReferences = null;
 		this.rootReferences = null;
+		this.memberReferences = null;
 		this.referencedTypes = null;
 		this.referencedSuperTypes = null;
 	}
@@ -128,6 +131,8 @@ void buildTypeBindings(AccessRestriction accessRestriction) {
 			// if its an unresolved binding - its fixed up whenever its needed, see UnresolvedReferenceBinding.resolve()
 			if (this.environment.isProcessingAnnotations)
 				throw new SourceTypeCollisionException(); // resolved a type ref before APT generated the type
+			if (this.environment.libraryBindingsKept && typeBinding.isBinaryBinding())
+				throw new SourceTypeCollisionException(); // the source type replaces a library type kept from the previous compilation
 			// if a type exists, check that its a valid type
 			// it can be a NotFound problem type if its a secondary type referenced before its primary type found in additional units
 			// and it can be an unresolved type which is now being defined
@@ -538,6 +543,7 @@ private MethodBinding findStaticMethod(ReferenceBinding currentType, char[] sele
 	if (!currentType.canBeSeenBy(this))
 		return null;
 
+	recordMemberReference(selector);
 	do {
 		currentType.initializeForStaticImports();
 		MethodBinding[] methods = currentType.getMethods(selector);
@@ -663,6 +669,17 @@ void recordReference(ReferenceBinding type, char[] simpleName) {
 	if (actualType != null)
 		recordReference(actualType.compoundName, simpleName);
 }
+/*
+Record the name of a field or method (<init> for a constructor) which is looked up, declared or inherited
+by a type of this unit, so that adding, removing or changing a member with this name in a referenced type
+only affects the units which recorded it.
+*/
+public void recordMemberReference(char[] memberName) {
+	if (this.memberReferences == null) return; // not recording dependencies
+
+	if (!this.memberReferences.contains(memberName))
+		this.memberReferences.add(memberName);
+}
 void recordRootReference(char[] simpleName) {
 	if (this.rootReferences == null) return; // not recording dependencies
 
@@ -769,6 +786,12 @@ public void storeDependencyInfo() {
 	for (int i = 0; i < size; i++)
 		rootRefs[i] = this.rootReferences.elementAt(i);
 	this.referenceContext.compilationResult.rootReferences = rootRefs;
+
+	size = this.memberReferences.size;
+	char[][] memberRefs = new char[size][];
+	for (int i = 0; i < size; i++)
+		memberRefs[i] = this.memberReferences.elementAt(i);
+	this.referenceContext.compilationResult.memberReferences = memberRefs;
 }
 public String toString() {
 	return "--- CompilationUnit Scope : " + new String(this.referenceContext.getFileName()); //$NON-NLS-1$
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,6 +39,7 @@ import org.eclipse.jdt.internal.compiler.impl.ITypeRequestor;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfPackage;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfType;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 
 public class LookupEnvironment implements ProblemReasons, TypeConstants {
@@ -57,6 +59,8 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 
 	public ProblemReporter problemReporter;
 	public ClassFilePool classFilePool;
+	public int typeCacheHits; // type lookups answered from the known bindings
+	public int typeCacheMisses; // type lookups forwarded to the name environment
 	// indicate in which step on the compilation we are.
 	// step 1 : build the reference binding
 	// step 2 : conect the hierarchy (connect bindings)
@@ -86,6 +90,15 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 	Set typesBeingConnected;
 	public boolean isProcessingAnnotations = false;
 	public boolean mayTolerateMissingType = false;
+	/**
+	 * Whether {@link #reset()} keeps the bindings of library types for the next compilation run with this
+	 * environment. Kept bindings still complete lazily, update the unique binding caches and point back to
+	 * this environment: they are reused by compilations run one after the other, never shared by
+	 * concurrent compilers.
+	 */
+	public boolean keepLibraryBindings = false;
+	boolean libraryBindingsKept = false; // set by #reset() once it kept the library bindings, until the type bindings of the next compilation are completed
+	boolean libraryBindingsInvalid = false; // a library binding refers to a source or missing type, or the compilation failed
 
 	PackageBinding nullableAnnotationPackage;			// the package supposed to contain the Nullable annotation type
 	PackageBinding nonnullAnnotationPackage;			// the package supposed to contain the NonNull annotation type
@@ -128,6 +141,7 @@ public LookupEnvironment(ITypeRequestor typeRequestor, CompilerOptions globalOpt
  */
 
 public ReferenceBinding askForType(char[][] compoundName) {
+	this.typeCacheMisses++;
 	NameEnvironmentAnswer answer = this.nameEnvironment.findType(compoundName);
 	if (answer == null) return null;
 
@@ -151,6 +165,7 @@ ReferenceBinding askForType(PackageBinding packageBinding, char[] name) {
 	if (packageBinding == null) {
 		packageBinding = this.defaultPackage;
 	}
+	this.typeCacheMisses++;
 	NameEnvironmentAnswer answer = this.nameEnvironment.findType(name, packageBinding.compoundName);
 	if (answer == null)
 		return null;
@@ -233,6 +248,7 @@ public void completeTypeBindings() {
 	this.stepCompleted = BUILD_FIELDS_AND_METHODS;
 	this.lastCompletedUnitIndex = this.lastUnitIndex;
 	this.unitBeingCompleted = null;
+	this.libraryBindingsKept = false; // source types built from now on were answered by the name environment instead of a kept library type
 }
 
 /*
@@ -1218,6 +1234,8 @@ public ReferenceBinding getType(char[][] compoundName) {
 			if (packageBinding != null && packageBinding != TheNotFoundPackage)
 				return null; // collides with a known package... should not call this method in such a case
 			referenceBinding = askForType(this.defaultPackage, compoundName[0]);
+		} else {
+			this.typeCacheHits++;
 		}
 	} else {
 		PackageBinding packageBinding = getPackage0(compoundName[0]);
@@ -1237,6 +1255,8 @@ public ReferenceBinding getType(char[][] compoundName) {
 			referenceBinding = askForType(compoundName);
 		else if ((referenceBinding = packageBinding.getType0(compoundName[compoundName.length - 1])) == null)
 			referenceBinding = askForType(packageBinding, compoundName[compoundName.length - 1]);
+		else
+			this.typeCacheHits++;
 	}
 
 	if (referenceBinding == null || referenceBinding == TheNotFoundType)
@@ -1287,9 +1307,14 @@ private ReferenceBinding getTypeFromCompoundName(char[][] compoundName, boolean
 		}
 		// create a proxy for the missing BinaryType
 		binding = createMissingType(null, compoundName);
-	} else if (!isParameterized) {
-	    // check raw type, only for resolved types
-        binding = (ReferenceBinding) convertUnresolvedBinaryToRawType(binding);
+		this.libraryBindingsInvalid = true; // the binary type refers to a missing type
+	} else {
+		if (this.keepLibraryBindings && !isLibraryType(binding))
+			this.libraryBindingsInvalid = true; // the binary type refers to a source type
+		if (!isParameterized) {
+			// check raw type, only for resolved types
+			binding = (ReferenceBinding) convertUnresolvedBinaryToRawType(binding);
+		}
 	}
 	return binding;
 }
@@ -1513,23 +1538,39 @@ public void releaseClassFiles(org.eclipse.jdt.internal.compiler.ClassFile[] clas
 		this.classFilePool.release(classFiles[i]);
 }
 
+/**
+ * Keep the bindings of library types when {@link #keepLibraryBindings} is set, drop everything else.
+ * <p>
+ * Kept are the binary types and the unresolved references read from class files, together with the
+ * array, parameterized, raw, wildcard and intersection types made only of them. All bindings are
+ * dropped instead once a library binding was bound to a source or a missing type, since another
+ * compilation may define different ones, or if annotation based null analysis is enabled, since
+ * library bindings then depend on the null annotations found in the sources.
+ * </p>
+ */
 public void reset() {
-	this.defaultPackage = new PackageBinding(this); // assume the default package always exists
+	if (this.keepLibraryBindings && !this.libraryBindingsInvalid && !this.globalOptions.isAnnotationBasedNullAnalysisEnabled) {
+		keepLibraryBindings0();
+	} else {
+		this.defaultPackage = new PackageBinding(this); // assume the default package always exists
+		this.knownPackages = new HashtableOfPackage();
+		this.accessRestrictions = new HashMap(3);
+		for (int i = this.uniqueArrayBindings.length; --i >= 0;) {
+			ArrayBinding[] arrayBindings = this.uniqueArrayBindings[i];
+			if (arrayBindings != null)
+				for (int j = arrayBindings.length; --j >= 0;)
+					arrayBindings[j] = null;
+		}
+		// NOTE: remember to fix #updateCaches(...) when adding unique binding caches
+		this.uniqueParameterizedTypeBindings = new SimpleLookupTable(3);
+		this.uniqueRawTypeBindings = new SimpleLookupTable(3);
+		this.uniqueWildcardBindings = new SimpleLookupTable(3);
+		this.libraryBindingsKept = false;
+	}
+	this.libraryBindingsInvalid = false;
 	this.defaultImports = null;
-	this.knownPackages = new HashtableOfPackage();
-	this.accessRestrictions = new HashMap(3);
 
 	this.verifier = null;
-	for (int i = this.uniqueArrayBindings.length; --i >= 0;) {
-		ArrayBinding[] arrayBindings = this.uniqueArrayBindings[i];
-		if (arrayBindings != null)
-			for (int j = arrayBindings.length; --j >= 0;)
-				arrayBindings[j] = null;
-	}
-	// NOTE: remember to fix #updateCaches(...) when adding unique binding caches
-	this.uniqueParameterizedTypeBindings = new SimpleLookupTable(3);
-	this.uniqueRawTypeBindings = new SimpleLookupTable(3);
-	this.uniqueWildcardBindings = new SimpleLookupTable(3);
 	this.uniqueParameterizedGenericMethodBindings = new SimpleLookupTable(3);
 	this.uniquePolymorphicMethodBindings = new SimpleLookupTable(3);
 	this.uniqueGetClassMethodBinding = null;
@@ -1548,6 +1589,185 @@ public void reset() {
 	// the code which created it.
 }
 
+/*
+ * Drop the bindings of source types, see #reset().
+ */
+private void keepLibraryBindings0() {
+	keepLibraryTypes(this.defaultPackage);
+	HashtableOfPackage packages = this.knownPackages;
+	this.knownPackages = new HashtableOfPackage();
+	for (int i = 0, l = packages.keyTable.length; i < l; i++) {
+		PackageBinding packageBinding = packages.valueTable[i];
+		if (packageBinding != null && packageBinding != TheNotFoundPackage && keepLibraryTypes(packageBinding))
+			this.knownPackages.put(packages.keyTable[i], packageBinding);
+	}
+	Map restrictions = this.accessRestrictions;
+	this.accessRestrictions = new HashMap(3);
+	for (Iterator iterator = restrictions.entrySet().iterator(); iterator.hasNext();) {
+		Map.Entry entry = (Map.Entry) iterator.next();
+		if (isLibraryType((TypeBinding) entry.getKey()))
+			this.accessRestrictions.put(entry.getKey(), entry.getValue());
+	}
+
+	for (int i = this.uniqueArrayBindings.length; --i >= 0;)
+		keepLibraryTypes(this.uniqueArrayBindings[i]);
+	for (int i = this.uniqueIntersectionCastTypeBindings.length; --i >= 0;)
+		keepLibraryTypes(this.uniqueIntersectionCastTypeBindings[i]);
+	this.uniqueParameterizedTypeBindings = keepLibraryTypes(this.uniqueParameterizedTypeBindings);
+	this.uniqueRawTypeBindings = keepLibraryTypes(this.uniqueRawTypeBindings);
+	this.uniqueWildcardBindings = keepLibraryTypes(this.uniqueWildcardBindings);
+	this.libraryBindingsKept = true;
+}
+
+/*
+ * Drop the source types of the given package and of its subpackages, answer whether some type is left.
+ */
+private boolean keepLibraryTypes(PackageBinding packageBinding) {
+	boolean isEmpty = true;
+	HashtableOfType types = packageBinding.knownTypes;
+	if (types != null) {
+		packageBinding.knownTypes = null;
+		for (int i = 0, l = types.keyTable.length; i < l; i++) {
+			ReferenceBinding type = types.valueTable[i];
+			if (type != null && type != TheNotFoundType && isLibraryType(type)) {
+				if (packageBinding.knownTypes == null)
+					packageBinding.knownTypes = new HashtableOfType(types.elementSize);
+				packageBinding.knownTypes.put(types.keyTable[i], type);
+				type.clearCompatibleCache();
+				isEmpty = false;
+			}
+		}
+	}
+	HashtableOfPackage packages = packageBinding.knownPackages;
+	packageBinding.knownPackages = new HashtableOfPackage(3);
+	for (int i = 0, l = packages.keyTable.length; i < l; i++) {
+		PackageBinding subPackage = packages.valueTable[i];
+		if (subPackage != null && subPackage != TheNotFoundPackage && keepLibraryTypes(subPackage)) {
+			packageBinding.knownPackages.put(packages.keyTable[i], subPackage);
+			isEmpty = false;
+		}
+	}
+	return !isEmpty;
+}
+
+/*
+ * Drop the given unique types but the library ones, keeping the remaining ones first.
+ */
+private void keepLibraryTypes(TypeBinding[] types) {
+	if (types == null) return;
+	int count = 0;
+	for (int i = 0, l = types.length; i < l; i++) {
+		TypeBinding type = types[i];
+		types[i] = null;
+		if (type != null && isLibraryType(type)) {
+			if (type instanceof ReferenceBinding)
+				((ReferenceBinding) type).clearCompatibleCache();
+			types[count++] = type;
+		}
+	}
+}
+
+/*
+ * Answer a copy of the given cache of unique types, made of the library types only.
+ */
+private SimpleLookupTable keepLibraryTypes(SimpleLookupTable uniqueTypes) {
+	SimpleLookupTable libraryTypes = new SimpleLookupTable(3);
+	for (int i = 0, l = uniqueTypes.keyTable.length; i < l; i++) {
+		ReferenceBinding key = (ReferenceBinding) uniqueTypes.keyTable[i];
+		if (key != null && (key == ReferenceBinding.LUB_GENERIC || isLibraryType(key))) {
+			TypeBinding[] types = (TypeBinding[]) uniqueTypes.valueTable[i];
+			keepLibraryTypes(types);
+			if (types[0] != null)
+				libraryTypes.put(key, types);
+		}
+	}
+	return libraryTypes;
+}
+
+/*
+ * Answer whether the given type is made of library types only, see #reset().
+ */
+static boolean isLibraryType(TypeBinding type) {
+	switch (type.kind()) {
+		case Binding.BASE_TYPE :
+			return true;
+		case Binding.ARRAY_TYPE :
+			return isLibraryType(type.leafComponentType());
+		case Binding.PARAMETERIZED_TYPE :
+			TypeBinding[] arguments = ((ParameterizedTypeBinding) type).arguments;
+			if (arguments != null)
+				for (int i = 0, l = arguments.length; i < l; i++)
+					if (!isLibraryType(arguments[i]))
+						return false;
+			//$FALL-THROUGH$
+		case Binding.RAW_TYPE :
+			ReferenceBinding enclosingType = type.enclosingType();
+			return isLibraryType(((ParameterizedTypeBinding) type).actualType()) && (enclosingType == null || isLibraryType(enclosingType));
+		case Binding.WILDCARD_TYPE :
+		case Binding.INTERSECTION_TYPE :
+			WildcardBinding wildcard = (WildcardBinding) type;
+			if (wildcard.genericType != ReferenceBinding.LUB_GENERIC && !isLibraryType(wildcard.genericType))
+				return false;
+			if (wildcard.bound != null && !isLibraryType(wildcard.bound))
+				return false;
+			if (wildcard.otherBounds != null)
+				for (int i = 0, l = wildcard.otherBounds.length; i < l; i++)
+					if (!isLibraryType(wildcard.otherBounds[i]))
+						return false;
+			return true;
+		case Binding.INTERSECTION_CAST_TYPE :
+			ReferenceBinding[] intersectingTypes = ((IntersectionCastTypeBinding) type).intersectingTypes;
+			for (int i = 0, l = intersectingTypes.length; i < l; i++)
+				if (!isLibraryType(intersectingTypes[i]))
+					return false;
+			return true;
+		case Binding.TYPE_PARAMETER :
+			if (type instanceof CaptureBinding)
+				return false;
+			Binding declaringElement = ((TypeVariableBinding) type).declaringElement;
+			if (declaringElement instanceof MethodBinding)
+				return isLibraryType(((MethodBinding) declaringElement).declaringClass);
+			return declaringElement instanceof TypeBinding && isLibraryType((TypeBinding) declaringElement);
+		default :
+			if (type instanceof MissingTypeBinding)
+				return false;
+			return type instanceof BinaryTypeBinding || type instanceof UnresolvedReferenceBinding;
+	}
+}
+
+/**
+ * Drop the library bindings kept from the previous compilation at the next {@link #reset()}.
+ */
+public void discardLibraryBindings() {
+	this.libraryBindingsInvalid = true;
+}
+
+/**
+ * Answer whether the library bindings of the previous compilation were kept, and no type binding
+ * of the current one was completed yet. A source type colliding with a kept library type is then
+ * reported by a {@link SourceTypeCollisionException}.
+ */
+public boolean hasLibraryBindings() {
+	return this.libraryBindingsKept;
+}
+
+/**
+ * Reuse the library bindings kept by this environment for the compilation the given new
+ * environment was created for. Both must be created with the same compiler options.
+ */
+public void reuseLibraryBindings(LookupEnvironment environment) {
+	this.typeRequestor = environment.typeRequestor;
+	this.globalOptions = environment.globalOptions;
+	this.problemReporter = environment.problemReporter;
+	this.nameEnvironment = environment.nameEnvironment;
+	this.typeCacheHits = 0;
+	this.typeCacheMisses = 0;
+	this.stepCompleted = 0;
+	this.missingClassFileLocation = null;
+	this.mayTolerateMissingType = false;
+	this.isProcessingAnnotations = false;
+}
+
 /**
  * Associate a given type with some access restriction
  * (did not store the restriction directly into binding, since sparse information)
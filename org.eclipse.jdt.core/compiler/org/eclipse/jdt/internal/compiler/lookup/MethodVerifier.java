@@ -976,11 +976,21 @@ ReferenceBinding[] resolvedExceptionTypesFor(MethodBinding method) {
 void verify() {
 	computeMethods();
 	computeInheritedMethods();
+	recordInheritedMethods();
 	checkMethods();
 	if (this.type.isClass())
 		checkForMissingHashCodeMethod();
 }
 
+// a change to an inherited method can make the type invalid even when none of its methods has the same name
+void recordInheritedMethods() {
+	CompilationUnitScope unitScope = this.type.scope.compilationUnitScope();
+	char[][] selectors = this.inheritedMethods.keyTable;
+	for (int i = 0, length = selectors.length; i < length; i++)
+		if (selectors[i] != null)
+			unitScope.recordMemberReference(selectors[i]);
+}
+
 void verify(SourceTypeBinding someType) {
 	if (this.type == null) {
 		try {
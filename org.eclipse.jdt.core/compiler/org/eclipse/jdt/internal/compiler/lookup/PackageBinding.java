@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -68,7 +68,10 @@ void addType(ReferenceBinding element) {
 	if ((element.tagBits & TagBits.HasMissingType) == 0) clearMissingTagBit();
 	if (this.knownTypes == null)
 		this.knownTypes = new HashtableOfType(25);
-	this.knownTypes.put(element.compoundName[element.compoundName.length - 1], element);
+	char[] name = element.compoundName[element.compoundName.length - 1];
+	if (this.environment.keepLibraryBindings && this.knownTypes.get(name) instanceof UnresolvedReferenceBinding && !LookupEnvironment.isLibraryType(element))
+		this.environment.libraryBindingsInvalid = true; // library types may refer to the unresolved type, which is no longer found in its package
+	this.knownTypes.put(name, element);
 	if (this.environment.globalOptions.isAnnotationBasedNullAnalysisEnabled)
 		if (element.isAnnotationType() || element instanceof UnresolvedReferenceBinding) // unresolved types don't yet have the modifiers set
 			checkIfNullAnnotationType(element);
@@ -143,6 +146,8 @@ ReferenceBinding getType(char[] name) {
 			addNotFoundType(name);
 			return null;
 		}
+	} else {
+		this.environment.typeCacheHits++;
 	}
 
 	if (referenceBinding == LookupEnvironment.TheNotFoundType)
@@ -179,6 +184,7 @@ ReferenceBinding getType0(char[] name) {
 public Binding getTypeOrPackage(char[] name) {
 	ReferenceBinding referenceBinding = getType0(name);
 	if (referenceBinding != null && referenceBinding != LookupEnvironment.TheNotFoundType) {
+		this.environment.typeCacheHits++;
 		referenceBinding = (ReferenceBinding) BinaryTypeBinding.resolveType(referenceBinding, this.environment, false /* no raw conversion for now */);
 		if (referenceBinding.isNestedType()) {
 			return new ProblemReferenceBinding(new char[][]{name}, referenceBinding, ProblemReasons.InternalNameProvided);
@@ -1157,6 +1157,12 @@ public boolean isClass() {
 	return (this.modifiers & (ClassFileConstants.AccInterface | ClassFileConstants.AccAnnotation | ClassFileConstants.AccEnum)) == 0;
 }
 
+/*
+ * Forget the types this type was found compatible with, which may belong to a former compilation.
+ */
+void clearCompatibleCache() {
+	this.compatibleCache = null;
+}
 /**
  * Answer true if the receiver type can be assigned to the argument type (right)
  * In addition to improving performance, caching also ensures there is no infinite regression
@@ -1059,6 +1059,7 @@ public abstract class Scope {
 	public MethodBinding findExactMethod(ReferenceBinding receiverType, char[] selector, TypeBinding[] argumentTypes, InvocationSite invocationSite) {
 		CompilationUnitScope unitScope = compilationUnitScope();
 		unitScope.recordTypeReferences(argumentTypes);
+		unitScope.recordMemberReference(selector);
 		MethodBinding exactMethod = receiverType.getExactMethod(selector, argumentTypes, unitScope);
 		if (exactMethod != null && exactMethod.typeVariables == Binding.NO_TYPE_VARIABLES && !exactMethod.isBridge()) {
 			// in >= 1.5 mode, ensure the exactMatch did not match raw types
@@ -1118,6 +1119,7 @@ public abstract class Scope {
 
 		CompilationUnitScope unitScope = compilationUnitScope();
 		unitScope.recordTypeReference(receiverType);
+		unitScope.recordMemberReference(fieldName);
 
 		checkArrayField: {
 			TypeBinding leafType;
@@ -1384,6 +1386,7 @@ public abstract class Scope {
 		ObjectVector found = new ObjectVector(3);
 		CompilationUnitScope unitScope = compilationUnitScope();
 		unitScope.recordTypeReferences(argumentTypes);
+		unitScope.recordMemberReference(selector);
 
 		if (receiverTypeIsInterface) {
 			unitScope.recordTypeReference(receiverType);
@@ -2003,6 +2006,7 @@ public abstract class Scope {
 			env.missingClassFileLocation = invocationSite;
 			unitScope.recordTypeReference(receiverType);
 			unitScope.recordTypeReferences(argumentTypes);
+			unitScope.recordMemberReference(TypeConstants.INIT);
 			MethodBinding methodBinding = receiverType.getExactConstructor(argumentTypes);
 			if (methodBinding != null && methodBinding.canBeSeenBy(invocationSite, this)) {
 			    // targeting a non generic constructor with type arguments ?
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -76,6 +76,8 @@ void setResolvedType(ReferenceBinding targetType, LookupEnvironment environment)
 
 	// targetType may be a source or binary type
 	this.resolvedType = targetType;
+	if (environment.keepLibraryBindings && !LookupEnvironment.isLibraryType(targetType))
+		environment.libraryBindingsInvalid = true; // the library types referring to this type may not find it in another compilation
 	// must ensure to update any other type bindings that can contain the resolved type
 	// otherwise we could create 2 : 1 for this unresolved type & 1 for the resolved type
 	if (this.wrappers != null)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -79,6 +79,7 @@ public final class Messages {
 
 	public static String compilation_unresolvedProblem;
 	public static String compilation_unresolvedProblems;
+	public static String compilation_methodStub;
 	public static String compilation_request;
 	public static String compilation_loadBinary;
 	public static String compilation_process;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,15 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -227,6 +236,10 @@ public class Util implements SuffixConstants {
 	private static final int DEFAULT_READING_SIZE = 8192;
 	private static final int DEFAULT_WRITING_SIZE = 1024;
 	public final static String UTF_8 = "UTF-8";	//$NON-NLS-1$
+	private final static String ISO_8859_1 = "ISO-8859-1";	//$NON-NLS-1$
+	private final static String US_ASCII = "US-ASCII";	//$NON-NLS-1$
+	private static final ThreadLocal DECODERS = new ThreadLocal(); // last CharsetDecoder used by the current thread
+	private static Charset defaultCharset;
 	public static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
 
 	public static final String EMPTY_STRING = new String(CharOperation.NO_CHAR);
@@ -527,29 +540,125 @@ public class Util implements SuffixConstants {
 		return contents;
 	}
 
-	/*
-	 * NIO support to get input stream as char array.
-	 * Not used as with JDK 1.4.2 this support is slower than standard IO one...
-	 * Keep it as comment for future in case of next JDK versions improve performance
-	 * in this area...
-	public static char[] getInputStreamAsCharArray(FileInputStream stream, int length, String encoding)
-		throws IOException {
+	/**
+	 * Returns the contents of the given file as a char array, like {@link #getFileCharContent(File, String)}.
+	 * The bytes are read at once through a {@link FileChannel} and decoded straight into the resulting array,
+	 * using a fast path for pure ASCII contents and a {@link CharsetDecoder} reused by the calling thread otherwise.
+	 * The file is not memory mapped: its mapping would outlive the decoding until the buffer is garbage collected,
+	 * using address space and, on Windows, locking the file.
+	 * When encoding is null, then the platform default one is used
+	 * @throws IOException if a problem occured reading the file.
+	 */
+	public static char[] getDecodedFileCharContent(File file, String encoding) throws IOException {
+		FileInputStream stream = null;
+		try {
+			stream = new FileInputStream(file);
+			FileChannel channel = stream.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				return getInputStreamAsCharArray(stream, -1, encoding);
+			ByteBuffer bytes = ByteBuffer.allocate((int) size);
+			while (bytes.hasRemaining() && channel.read(bytes) != -1) {/*read all*/}
+			bytes.flip();
+			return decode(bytes, encoding);
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+	private static char[] decode(ByteBuffer bytes, String encoding) throws IOException {
+		Charset charset = null;
+		if (encoding != null) {
+			try {
+				charset = Charset.forName(encoding);
+			} catch (IllegalCharsetNameException e) {
+				// encoding is not supported
+			} catch (UnsupportedCharsetException e) {
+				// encoding is not supported
+			}
+		}
+		if (charset == null)
+			charset = getDefaultCharset();
+		int length = bytes.remaining();
+		if (length == 0)
+			return CharOperation.NO_CHAR;
+
+		// fast path: every byte maps to the same char
+		String charsetName = charset.name();
+		boolean isLatin1 = ISO_8859_1.equals(charsetName);
+		if (isLatin1 || UTF_8.equals(charsetName) || US_ASCII.equals(charsetName)) {
+			char[] contents = new char[length];
+			int i = 0;
+			for (; i < length; i++) {
+				byte b = bytes.get(i);
+				if (b < 0 && !isLatin1) break;
+				contents[i] = (char) (b & 0xFF);
+			}
+			if (i == length)
+				return contents;
+		}
 
-		FileChannel channel = stream.getChannel();
-		int size = (int)channel.size();
-		if (length >= 0 && length < size) size = length;
-		Charset charset = encoding==null?systemCharset:Charset.forName(encoding);
-		if (charset != null) {
-			MappedByteBuffer bbuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
-		    CharsetDecoder decoder = charset.newDecoder();
-		    CharBuffer buffer = decoder.decode(bbuffer);
-		    char[] contents = new char[buffer.limit()];
-		    buffer.get(contents);
-		    return contents;
-		}
-		throw new UnsupportedCharsetException(SYSTEM_FILE_ENCODING);
+		CharsetDecoder decoder = getDecoder(charset);
+		char[] contents = new char[(int) (length * decoder.maxCharsPerByte()) + 1];
+		CharBuffer buffer = CharBuffer.wrap(contents);
+		while (true) {
+			CoderResult result = decoder.decode(bytes, buffer, true);
+			if (result.isUnderflow())
+				result = decoder.flush(buffer);
+			if (result.isUnderflow())
+				break;
+			if (result.isOverflow()) {
+				int position = buffer.position();
+				System.arraycopy(contents, 0, contents = new char[contents.length * 2], 0, position);
+				buffer = CharBuffer.wrap(contents);
+				buffer.position(position);
+			} else {
+				result.throwException();
+			}
+		}
+		int totalRead = buffer.position();
+
+		// Do not keep first character for UTF-8 BOM encoding
+		int start = 0;
+		if (totalRead > 0 && UTF_8.equals(encoding)) {
+			if (contents[0] == 0xFEFF) { // if BOM char then skip
+				totalRead--;
+				start = 1;
+			}
+		}
+
+		// resize contents if necessary
+		if (totalRead < contents.length)
+			System.arraycopy(contents, start, contents = new char[totalRead], 	0, 	totalRead);
+
+		return contents;
+	}
+	private static synchronized Charset getDefaultCharset() {
+		if (defaultCharset == null) {
+			// same default as the one used by InputStreamReader
+			String defaultEncoding = new InputStreamReader(new ByteArrayInputStream(new byte[0])).getEncoding();
+			defaultCharset = Charset.forName(defaultEncoding);
+		}
+		return defaultCharset;
+	}
+	private static CharsetDecoder getDecoder(Charset charset) {
+		// decoders are not thread safe, each thread keeps the last one it used
+		CharsetDecoder decoder = (CharsetDecoder) DECODERS.get();
+		if (decoder == null || !decoder.charset().equals(charset)) {
+			decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			DECODERS.set(decoder);
+		} else {
+			decoder.reset();
+		}
+		return decoder;
 	}
-	*/
 	/**
 	 * Returns the given input stream's contents as a character array.
 	 * If a length is specified (i.e. if length != -1), this represents the number of bytes in the stream.
@@ -22,6 +22,7 @@ import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.problem.*;
+import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.core.JavaModelManager;
@@ -56,6 +57,7 @@ private boolean inCompiler;
 
 protected boolean keepStoringProblemMarkers;
 protected SimpleSet filesWithAnnotations = null;
+private SimpleLookupTable packageFolders = null; // maps each output folder to its package folders which are known to exist
 
 //2000 is best compromise between space used and speed
 public static int MAX_AT_ONCE = Integer.getInteger(JavaModelManager.MAX_COMPILED_UNITS_AT_ONCE, 2000).intValue();
@@ -204,6 +206,18 @@ public void acceptResult(CompilationResult result) {
 	}
 }
 
+/* Accept the results of compiling the given elements ahead of the build,
+* as if the compiler had just produced them.
+*/
+protected void acceptResults(SourceFile[] units, CompilationResult[] results) {
+	this.compiledAllAtOnce = true;
+	this.notifier.aboutToCompile(units[0]); // just to change the message
+	for (int i = 0, l = results.length; i < l; i++) {
+		this.notifier.checkCancel();
+		acceptResult(results[i]);
+	}
+}
+
 protected void acceptSecondaryType(ClassFile classFile) {
 	// noop
 }
@@ -444,7 +458,7 @@ protected SourceFile findSourceFile(IFile file, boolean mustExist) {
 
 protected void finishedWith(String sourceLocator, CompilationResult result, char[] mainTypeName, ArrayList definedTypeNames, ArrayList duplicateTypeNames) {
 	if (duplicateTypeNames == null) {
-		this.newState.record(sourceLocator, result.qualifiedReferences, result.simpleNameReferences, result.rootReferences, mainTypeName, definedTypeNames);
+		this.newState.record(sourceLocator, result.qualifiedReferences, result.simpleNameReferences, result.rootReferences, result.memberReferences, mainTypeName, definedTypeNames);
 		return;
 	}
 
@@ -460,7 +474,45 @@ protected void finishedWith(String sourceLocator, CompilationResult result, char
 		System.arraycopy(simpleRefs, 0, simpleRefs = new char[sLength + 1][], 0, sLength);
 		simpleRefs[sLength] = typeName;
 	}
-	this.newState.record(sourceLocator, result.qualifiedReferences, simpleRefs, result.rootReferences, mainTypeName, definedTypeNames);
+	this.newState.record(sourceLocator, result.qualifiedReferences, simpleRefs, result.rootReferences, result.memberReferences, mainTypeName, definedTypeNames);
+}
+
+/*
+ * Answer the folder of the given package in the given output folder, creating it if needed.
+ * Since the output folders are only cleaned before compiling, the folders are remembered for the rest of the build
+ * to save parsing the package name & walking the resource tree for each class file.
+ */
+private IContainer getPackageFolder(String qualifiedPackageName, IContainer outputFolder) throws CoreException {
+	if (this.packageFolders == null)
+		this.packageFolders = new SimpleLookupTable(3);
+	SimpleLookupTable folders = (SimpleLookupTable) this.packageFolders.get(outputFolder);
+	if (folders == null)
+		this.packageFolders.put(outputFolder, folders = new SimpleLookupTable());
+	IContainer folder = (IContainer) folders.get(qualifiedPackageName);
+	if (folder == null) {
+		folder = createFolder(new Path(qualifiedPackageName), outputFolder);
+		folders.put(qualifiedPackageName, folder);
+	}
+	return folder;
+}
+
+/*
+ * Answer whether the given existing class file already contains the given bytes, in which case rewriting it
+ * would only cost a disk write & a resource delta.
+ */
+protected boolean hasSameContents(IFile file, byte[] bytes) {
+	try {
+		return hasSameBytes(Util.getResourceContentsAsByteArray(file), bytes);
+	} catch (JavaModelException e) {
+		return false; // rewrite it
+	}
+}
+
+static boolean hasSameBytes(byte[] oldBytes, byte[] newBytes) {
+	if (oldBytes.length != newBytes.length) return false;
+	for (int i = newBytes.length; --i >= 0;)
+		if (newBytes[i] != oldBytes[i]) return false;
+	return true;
 }
 
 protected IContainer createFolder(IPath packagePath, IContainer outputFolder) throws CoreException {
@@ -647,11 +699,8 @@ protected void recordParticipantResult(CompilationParticipantResult result) {
 	}
 
 	String[] dependencies = result.dependencies;
-	if (dependencies != null) {
-		ReferenceCollection refs = (ReferenceCollection) this.newState.references.get(result.sourceFile.typeLocator());
-		if (refs != null)
-			refs.addDependencies(dependencies);
-	}
+	if (dependencies != null)
+		this.newState.addDependencies(result.sourceFile.typeLocator(), dependencies);
 }
 
 /**
@@ -846,31 +895,35 @@ protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) t
 
 protected char[] writeClassFile(ClassFile classFile, SourceFile compilationUnit, boolean isTopLevelType) throws CoreException {
 	String fileName = new String(classFile.fileName()); // the qualified type name "p1/p2/A"
-	IPath filePath = new Path(fileName);
-	IContainer outputFolder = compilationUnit.sourceLocation.binaryFolder;
-	IContainer container = outputFolder;
-	if (filePath.segmentCount() > 1) {
-		container = createFolder(filePath.removeLastSegments(1), outputFolder);
-		filePath = new Path(filePath.lastSegment());
-	}
+	IContainer container = compilationUnit.sourceLocation.binaryFolder;
+	int lastSlash = fileName.lastIndexOf('/');
+	if (lastSlash > 0)
+		container = getPackageFolder(fileName.substring(0, lastSlash), container);
+	String typeName = fileName.substring(lastSlash + 1);
 
-	IFile file = container.getFile(filePath.addFileExtension(SuffixConstants.EXTENSION_class));
+	IFile file = container.getFile(new Path(typeName + SuffixConstants.SUFFIX_STRING_class));
 	writeClassFileContents(classFile, file, fileName, isTopLevelType, compilationUnit);
 	// answer the name of the class file as in Y or Y$M
-	return filePath.lastSegment().toCharArray();
+	return typeName.toCharArray();
 }
 
 protected void writeClassFileContents(ClassFile classFile, IFile file, String qualifiedFileName, boolean isTopLevelType, SourceFile compilationUnit) throws CoreException {
 //	InputStream input = new SequenceInputStream(
 //			new ByteArrayInputStream(classFile.header, 0, classFile.headerOffset),
 //			new ByteArrayInputStream(classFile.contents, 0, classFile.contentsOffset));
-	InputStream input = new ByteArrayInputStream(classFile.getBytes());
+	byte[] bytes = classFile.getBytes();
+	InputStream input = new ByteArrayInputStream(bytes);
 	if (file.exists()) {
 		// Deal with shared output folders... last one wins... no collision cases detected
-		if (JavaBuilder.DEBUG)
-			System.out.println("Writing changed class file " + file.getName());//$NON-NLS-1$
 		if (!file.isDerived())
 			file.setDerived(true, null);
+		if (hasSameContents(file, bytes)) {
+			if (JavaBuilder.DEBUG)
+				System.out.println("Skipped over unchanged class file " + file.getName());//$NON-NLS-1$
+			return;
+		}
+		if (JavaBuilder.DEBUG)
+			System.out.println("Writing changed class file " + file.getName());//$NON-NLS-1$
 		file.setContents(input, true, false, null);
 	} else {
 		// Default implementation just writes out the bytes for the new class file...
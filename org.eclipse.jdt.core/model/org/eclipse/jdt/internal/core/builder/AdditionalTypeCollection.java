@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,8 @@ public class AdditionalTypeCollection extends ReferenceCollection {
 
 char[][] definedTypeNames;
 
-protected AdditionalTypeCollection(char[][] definedTypeNames, char[][][] qualifiedReferences, char[][] simpleNameReferences, char[][] rootReferences) {
-	super(qualifiedReferences, simpleNameReferences, rootReferences);
+protected AdditionalTypeCollection(char[][] definedTypeNames, char[][][] qualifiedReferences, char[][] simpleNameReferences, char[][] rootReferences, char[][] memberReferences) {
+	super(qualifiedReferences, simpleNameReferences, rootReferences, memberReferences);
 	this.definedTypeNames = definedTypeNames; // do not bother interning member type names (i.e. 'A$M')
 }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.core.util.Messages;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -57,7 +58,11 @@ public void build() {
 
 			this.notifier.setProgressPerCompilationUnit(0.75f / allSourceFiles.length);
 			this.workQueue.addAll(allSourceFiles);
-			compile(allSourceFiles);
+			CompilationResult[] results = BuildCoordinator.takeResults(this.javaBuilder.currentProject, allSourceFiles);
+			if (results == null)
+				compile(allSourceFiles);
+			else
+				acceptResults(allSourceFiles, results);
 
 			if (this.typeLocatorsWithUndefinedTypes != null)
 				if (this.secondaryTypes != null && !this.secondaryTypes.isEmpty())
@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+
+import org.eclipse.core.resources.ICommand;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.JavaProject;
+
+/**
+ * Compiles the Java projects of a build cycle which are independent of the project being built.
+ * <p>
+ * The workspace invokes the Java builder of each project one after the other, in the order of their prerequisites.
+ * Once a project has been built, any other Java project whose prerequisites have all been built during this cycle
+ * and which needs a full build can be compiled ahead of time on a worker thread, with its own
+ * {@link NameEnvironment} and compiler, while the workspace keeps on building the other projects. When the
+ * workspace eventually invokes the builder of such a project, its {@link BatchImageBuilder} accepts the
+ * compilation results instead of compiling the source files itself. The workers stop compiling ahead while
+ * {@link #MAX_COMPLETED} compiled projects are waiting for their build.
+ * </p><p>
+ * The worker threads never modify the workspace since the thread of the build owns it: the output folders are
+ * cleaned, the class files written and the problems reported by the builder of the project as usual. Projects
+ * with other builders, compilation participants or annotation processors, or which are involved in a cycle, are
+ * always compiled by their own builder. The results are discarded if any source file was modified in the meantime.
+ * </p>
+ */
+class BuildCoordinator implements Runnable {
+
+	public static int BUILD_THREADS = Integer.getInteger("jdt.core.buildThreads", Math.min(4, Runtime.getRuntime().availableProcessors()) - 1).intValue(); //$NON-NLS-1$
+	// the workers wait once this many compiled projects are waiting for their build, since their results are kept in memory
+	static final int MAX_COMPLETED = 2;
+
+	// the coordinator of the current build cycle, only accessed by the thread of the build
+	private static BuildCoordinator Current = null;
+
+	/*
+	 * The source files of a project compiled ahead of its build.
+	 */
+	static class Precompilation extends AbstractImageBuilder {
+		static final int WAITING = 0;
+		static final int RUNNING = 1;
+		static final int DONE = 2;
+		static final int FAILED = 3;
+
+		IProject project;
+		SourceFile[] units;
+		long[] stamps; // the modification stamps of the units when they were read
+		ArrayList results;
+		int status;
+
+		Precompilation(JavaBuilder javaBuilder) {
+			super(javaBuilder, true, null);
+			this.nameEnvironment.isIncrementalBuild = false;
+			this.project = javaBuilder.currentProject;
+			this.status = WAITING;
+
+			// the output folders of the project are cleaned before the results are accepted, so never look into them
+			ClasspathLocation[] binaryLocations = this.nameEnvironment.binaryLocations;
+			int length = binaryLocations.length, index = 0;
+			ClasspathLocation[] otherLocations = new ClasspathLocation[length];
+			next : for (int i = 0; i < length; i++) {
+				for (int j = 0, m = this.sourceLocations.length; j < m; j++)
+					if (binaryLocations[i] == this.sourceLocations[j])
+						continue next;
+				otherLocations[index++] = binaryLocations[i];
+			}
+			if (index < length)
+				System.arraycopy(otherLocations, 0, this.nameEnvironment.binaryLocations = new ClasspathLocation[index], 0, index);
+		}
+
+		public void acceptResult(CompilationResult result) {
+			this.results.add(result);
+		}
+
+		void compile() {
+			this.results = new ArrayList(this.units.length);
+			try {
+				compile(this.units, null, true);
+			} finally {
+				this.nameEnvironment.cleanup();
+			}
+		}
+
+		/*
+		 * Answer the results of compiling the given source files of the project, or null if they are not
+		 * the ones which were compiled.
+		 */
+		CompilationResult[] resultsFor(SourceFile[] sourceFiles) {
+			int length = sourceFiles.length;
+			if (this.units.length != length || this.results.size() != length) return null;
+			for (int i = 0; i < length; i++)
+				if (this.units[i].resource.getModificationStamp() != this.stamps[i])
+					return null; // edited or generated again since it was compiled
+
+			SimpleLookupTable filesPerLocator = new SimpleLookupTable(length);
+			for (int i = 0; i < length; i++)
+				filesPerLocator.put(sourceFiles[i].typeLocator(), sourceFiles[i]);
+			CompilationResult[] compilationResults = new CompilationResult[length];
+			for (int i = 0; i < length; i++) {
+				CompilationResult result = (CompilationResult) this.results.get(i);
+				SourceFile sourceFile = (SourceFile) filesPerLocator.removeKey(((SourceFile) result.compilationUnit).typeLocator());
+				if (sourceFile == null) return null;
+				result.compilationUnit = sourceFile; // the source files of the build are the ones recorded by its state
+				compilationResults[i] = result;
+			}
+			return compilationResults;
+		}
+
+		protected void processAnnotationResults(CompilationParticipantResult[] participantResults) {
+			// not supported since projects with compilation participants are not compiled ahead of time
+		}
+	}
+
+	private SimpleLookupTable precompilations = new SimpleLookupTable(3); // maps project names to their precompilations
+	private ArrayList queue = new ArrayList(3); // precompilations waiting for a worker thread
+	private int workers = 0;
+	private int completed = 0; // precompilations done whose results were not taken yet
+
+/**
+ * Discard the projects compiled ahead of time and stop compiling the other ones.
+ * Invoked by the thread of the build when a build cycle starts or ends.
+ */
+static void reset() {
+	if (Current == null) return;
+
+	synchronized (Current) {
+		Object[] valueTable = Current.precompilations.valueTable;
+		for (int i = 0, l = valueTable.length; i < l; i++)
+			if (valueTable[i] != null)
+				((Precompilation) valueTable[i]).notifier.monitor.setCanceled(true);
+		Current.queue.clear();
+		Current.notifyAll(); // the waiting workers stop
+	}
+	Current = null;
+}
+
+/**
+ * Compile ahead of time the Java projects which do not depend on any project still to be built,
+ * after a project was fully built. Invoked by the thread of the build.
+ */
+static void projectBuilt() {
+	if (BUILD_THREADS <= 0 || JavaBuilder.builtProjects == null) return;
+
+	IJavaProject[] javaProjects;
+	try {
+		javaProjects = JavaModelManager.getJavaModelManager().getJavaModel().getJavaProjects();
+	} catch (JavaModelException e) {
+		return;
+	}
+	for (int i = 0, l = javaProjects.length; i < l; i++) {
+		IProject project = javaProjects[i].getProject();
+		String projectName = project.getName();
+		if (JavaBuilder.builtProjects.contains(projectName)) continue;
+		if (Current != null && Current.precompilations.containsKey(projectName)) continue;
+
+		Precompilation precompilation = null;
+		try {
+			precompilation = newPrecompilation((JavaProject) javaProjects[i]);
+		} catch (CoreException e) {
+			// compile it when it is built
+		}
+		if (precompilation != null) {
+			if (Current == null)
+				Current = new BuildCoordinator();
+			Current.schedule(precompilation);
+		}
+	}
+}
+
+/*
+ * Answer a precompilation of the given project if it needs a full build and it only depends on projects which
+ * were built during this build cycle, or null if it should be compiled by its own builder.
+ */
+private static Precompilation newPrecompilation(JavaProject javaProject) throws CoreException {
+	IProject project = javaProject.getProject();
+	if (!project.isAccessible() || javaProject.hasCycleMarker()) return null;
+
+	JavaModelManager manager = JavaModelManager.getJavaModelManager();
+	if (manager.getLastBuiltState(project, null) != null) return null; // an incremental build is likely
+	if (manager.compilationParticipants.getCompilationParticipants(javaProject) != null) return null;
+	if (!JavaCore.CLEAN.equals(javaProject.getOption(JavaCore.CORE_JAVA_BUILD_CLEAN_OUTPUT_FOLDER, true))) return null;
+
+	JavaBuilder javaBuilder = new JavaBuilder();
+	javaBuilder.currentProject = project;
+	javaBuilder.javaProject = javaProject;
+	javaBuilder.workspaceRoot = project.getWorkspace().getRoot();
+	if (!hasOnlyJavaBuilder(project))
+		return null; // the other builders could generate or change its source files before the Java builder runs
+
+	IProject[] requiredProjects = javaBuilder.getRequiredProjects(true);
+	for (int i = 0, l = requiredProjects.length; i < l; i++) {
+		IProject p = requiredProjects[i];
+		if (!p.isAccessible()) continue;
+		if (JavaProject.hasJavaNature(p)) {
+			if (!JavaBuilder.builtProjects.contains(p.getName())) return null;
+			if (!hasOnlyJavaBuilder(p)) return null; // the other builders could change its binaries after the Java builder ran
+			if (manager.getLastBuiltState(p, null) == null) return null;
+			if (((JavaProject) JavaCore.create(p)).hasCycleMarker()) return null;
+		} else if (p.getDescription().getBuildSpec().length > 0) {
+			return null; // its binaries could be built later during this cycle
+		}
+	}
+
+	javaBuilder.notifier = new BuildNotifier(new NullProgressMonitor(), project);
+	javaBuilder.initializeBuilder(IncrementalProjectBuilder.FULL_BUILD, false);
+	Precompilation precompilation = new Precompilation(javaBuilder);
+	if (precompilation.compiler.options.processAnnotations) return null;
+
+	ArrayList sourceFiles = new ArrayList(33);
+	precompilation.addAllSourceFiles(sourceFiles);
+	int size = sourceFiles.size();
+	if (size == 0 || (AbstractImageBuilder.MAX_AT_ONCE > 0 && size > AbstractImageBuilder.MAX_AT_ONCE)) return null;
+
+	precompilation.units = new SourceFile[size];
+	sourceFiles.toArray(precompilation.units);
+	precompilation.stamps = new long[size];
+	for (int i = 0; i < size; i++)
+		precompilation.stamps[i] = precompilation.units[i].resource.getModificationStamp();
+	return precompilation;
+}
+
+private static boolean hasOnlyJavaBuilder(IProject project) throws CoreException {
+	ICommand[] buildCommands = project.getDescription().getBuildSpec();
+	return buildCommands.length == 1 && buildCommands[0].getBuilderName().equals(JavaCore.BUILDER_ID);
+}
+
+/**
+ * Answer the results of compiling the given source files of the given project ahead of its build,
+ * waiting for its compilation to complete if needed, or null if the project was not compiled ahead of time.
+ * Invoked by the thread of the build.
+ */
+static CompilationResult[] takeResults(IProject project, SourceFile[] sourceFiles) {
+	if (Current == null) return null;
+
+	Precompilation precompilation;
+	synchronized (Current) {
+		precompilation = (Precompilation) Current.precompilations.removeKey(project.getName());
+		if (precompilation == null) return null;
+		if (precompilation.status == Precompilation.DONE) {
+			Current.completed--;
+			Current.notifyAll(); // a worker can compile the next project
+		} else if (precompilation.status == Precompilation.WAITING) {
+			Current.queue.remove(precompilation); // compiling it now is faster than waiting for a worker
+			return null;
+		}
+		while (precompilation.status == Precompilation.RUNNING) {
+			try {
+				Current.wait();
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		}
+	}
+	if (precompilation.status == Precompilation.FAILED) {
+		if (JavaBuilder.DEBUG)
+			System.out.println("Compiling " + project.getName() + " since it failed to compile ahead of its build"); //$NON-NLS-1$ //$NON-NLS-2$
+		return null;
+	}
+	CompilationResult[] results = precompilation.resultsFor(sourceFiles);
+	if (JavaBuilder.DEBUG)
+		System.out.println(results == null
+			? "Compiling " + project.getName() + " since its source files changed after it was compiled ahead of its build" //$NON-NLS-1$ //$NON-NLS-2$
+			: "Accepting the results of compiling " + project.getName() + " ahead of its build"); //$NON-NLS-1$ //$NON-NLS-2$
+	return results;
+}
+
+private synchronized void schedule(Precompilation precompilation) {
+	if (JavaBuilder.DEBUG)
+		System.out.println("Compiling " + precompilation.project.getName() + " ahead of its build"); //$NON-NLS-1$ //$NON-NLS-2$
+	this.precompilations.put(precompilation.project.getName(), precompilation);
+	this.queue.add(precompilation);
+	if (this.workers < BUILD_THREADS) {
+		this.workers++;
+		Thread thread = new Thread(this, "Java builder: " + precompilation.project.getName()); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.currentThread().getPriority());
+		thread.start();
+	}
+}
+
+public void run() {
+	while (true) {
+		Precompilation precompilation;
+		synchronized (this) {
+			while (this.completed >= MAX_COMPLETED && !this.queue.isEmpty()) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}
+			if (this.queue.isEmpty()) {
+				this.workers--;
+				return;
+			}
+			precompilation = (Precompilation) this.queue.remove(0);
+			precompilation.status = Precompilation.RUNNING;
+		}
+		int status = Precompilation.FAILED;
+		try {
+			precompilation.compile();
+			if (!precompilation.notifier.monitor.isCanceled())
+				status = Precompilation.DONE;
+		} catch (RuntimeException e) {
+			// compile it when it is built
+		} catch (Error e) {
+			// compile it when it is built
+		} finally {
+			synchronized (this) {
+				precompilation.status = status;
+				if (status == Precompilation.DONE && this.precompilations.get(precompilation.project.getName()) == precompilation)
+					this.completed++; // otherwise its build is already waiting for it
+				notifyAll();
+			}
+		}
+	}
+}
+}
@@ -38,6 +38,11 @@ protected ArrayList previousSourceFiles;
 protected StringSet qualifiedStrings;
 protected StringSet simpleStrings;
 protected StringSet rootStrings;
+// the dependents of the types whose structural changes are limited to the members named in memberStrings
+protected StringSet memberQualifiedStrings;
+protected StringSet memberSimpleStrings;
+protected StringSet memberRootStrings;
+protected StringSet memberStrings;
 protected SimpleLookupTable secondaryTypesToRemove;
 protected boolean hasStructuralChanges;
 protected int compileLoop;
@@ -180,12 +185,17 @@ protected void buildAfterBatchBuild() {
 }
 
 protected void addAffectedSourceFiles() {
-	if (this.qualifiedStrings.elementSize == 0 && this.simpleStrings.elementSize == 0) return;
-
-	addAffectedSourceFiles(this.qualifiedStrings, this.simpleStrings, this.rootStrings, null);
+	if (this.qualifiedStrings.elementSize > 0 || this.simpleStrings.elementSize > 0)
+		addAffectedSourceFiles(this.qualifiedStrings, this.simpleStrings, this.rootStrings, null, null);
+	if (this.memberStrings.elementSize > 0)
+		addAffectedSourceFiles(this.memberQualifiedStrings, this.memberSimpleStrings, this.memberRootStrings, this.memberStrings, null);
 }
 
 protected void addAffectedSourceFiles(StringSet qualifiedSet, StringSet simpleSet, StringSet rootSet, StringSet affectedTypes) {
+	addAffectedSourceFiles(qualifiedSet, simpleSet, rootSet, null, affectedTypes);
+}
+
+protected void addAffectedSourceFiles(StringSet qualifiedSet, StringSet simpleSet, StringSet rootSet, StringSet memberSet, StringSet affectedTypes) {
 	// the qualifiedStrings are of the form 'p1/p2' & the simpleStrings are just 'X'
 	char[][][] internedQualifiedNames = ReferenceCollection.internQualifiedNames(qualifiedSet);
 	// if a well known qualified name was found then we can skip over these
@@ -196,15 +206,20 @@ protected void addAffectedSourceFiles(StringSet qualifiedSet, StringSet simpleSe
 	if (internedSimpleNames.length < simpleSet.elementSize)
 		internedSimpleNames = null;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(rootSet, false);
-
-	Object[] keyTable = this.newState.references.keyTable;
-	Object[] valueTable = this.newState.references.valueTable;
-	next : for (int i = 0, l = valueTable.length; i < l; i++) {
+	// when only some members have changed, only the types using, declaring or inheriting a member with the same name are affected
+	char[][] internedMemberNames = memberSet == null ? null : ReferenceCollection.internSimpleNames(memberSet, false);
+
+	// only check the types which reference one of the names, unless they are all well known
+	Object[] keyTable = this.newState.getDependents(internedQualifiedNames, internedSimpleNames);
+	if (keyTable == null)
+		keyTable = this.newState.references.keyTable;
+	next : for (int i = 0, l = keyTable.length; i < l; i++) {
 		String typeLocator = (String) keyTable[i];
 		if (typeLocator != null) {
 			if (affectedTypes != null && !affectedTypes.includes(typeLocator)) continue next;
-			ReferenceCollection refs = (ReferenceCollection) valueTable[i];
-			if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)) {
+			ReferenceCollection refs = this.newState.getReferences(typeLocator);
+			if (refs != null && refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)
+					&& (internedMemberNames == null || refs.includesMember(internedMemberNames))) {
 				IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
 				SourceFile sourceFile = findSourceFile(file, true);
 				if (sourceFile == null) continue next;
@@ -297,6 +312,10 @@ protected void cleanUp() {
 	this.qualifiedStrings = null;
 	this.simpleStrings = null;
 	this.rootStrings = null;
+	this.memberQualifiedStrings = null;
+	this.memberSimpleStrings = null;
+	this.memberRootStrings = null;
+	this.memberStrings = null;
 	this.secondaryTypesToRemove = null;
 	this.hasStructuralChanges = false;
 	this.compileLoop = 0;
@@ -783,6 +802,10 @@ protected void resetCollections() {
 		this.qualifiedStrings = new StringSet(3);
 		this.simpleStrings = new StringSet(3);
 		this.rootStrings = new StringSet(3);
+		this.memberQualifiedStrings = new StringSet(3);
+		this.memberSimpleStrings = new StringSet(3);
+		this.memberRootStrings = new StringSet(3);
+		this.memberStrings = new StringSet(3);
 		this.hasStructuralChanges = false;
 		this.compileLoop = 0;
 	} else {
@@ -792,6 +815,10 @@ protected void resetCollections() {
 		this.qualifiedStrings.clear();
 		this.simpleStrings.clear();
 		this.rootStrings.clear();
+		this.memberQualifiedStrings.clear();
+		this.memberSimpleStrings.clear();
+		this.memberRootStrings.clear();
+		this.memberStrings.clear();
 		this.workQueue.clear();
 	}
 }
@@ -886,21 +913,28 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newBytes) throws CoreException {
 	try {
 		byte[] oldBytes = Util.getResourceContentsAsByteArray(file);
-		notEqual : if (newBytes.length == oldBytes.length) {
-			for (int i = newBytes.length; --i >= 0;)
-				if (newBytes[i] != oldBytes[i]) break notEqual;
+		if (hasSameBytes(oldBytes, newBytes))
 			return false; // bytes are identical so skip them
-		}
 		URI location = file.getLocationURI();
 		if (location == null) return false; // unable to determine location of this class file
 		String filePath = location.getSchemeSpecificPart();
 		ClassFileReader reader = new ClassFileReader(oldBytes, filePath.toCharArray());
 		// ignore local types since they're only visible inside a single method
-		if (!(reader.isLocal() || reader.isAnonymous()) && reader.hasStructuralChanges(newBytes)) {
-			if (JavaBuilder.DEBUG)
-				System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
-			addDependentsOf(new Path(fileName), true);
-			this.newState.wasStructurallyChanged(fileName);
+		if (!(reader.isLocal() || reader.isAnonymous())) {
+			char[][] changedMembers = reader.getStructurallyChangedMembers(newBytes);
+			if (changedMembers == null) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
+				addDependentsOf(new Path(fileName), true);
+				this.newState.wasStructurallyChanged(fileName);
+			} else if (changedMembers.length > 0) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("Type has structural changes to its members " + CharOperation.toString(changedMembers) + " in " + fileName); //$NON-NLS-1$ //$NON-NLS-2$
+				addDependentsOf(new Path(fileName), true, this.memberQualifiedStrings, this.memberSimpleStrings, this.memberRootStrings);
+				for (int i = 0, l = changedMembers.length; i < l; i++)
+					this.memberStrings.add(new String(changedMembers[i]));
+				this.newState.wasStructurallyChanged(fileName);
+			}
 		}
 	} catch (ClassFormatException e) {
 		addDependentsOf(new Path(fileName), true);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -98,6 +98,7 @@ public static void buildStarting() {
  */
 public static void buildFinished() {
 	BuildNotifier.resetProblemCounters();
+	BuildCoordinator.reset();
 }
 
 public static void removeProblemsFor(IResource resource) {
@@ -253,6 +254,7 @@ private void buildAll() {
 	BatchImageBuilder imageBuilder = new BatchImageBuilder(this, true);
 	imageBuilder.build();
 	recordNewState(imageBuilder.newState);
+	BuildCoordinator.projectBuilt();
 }
 
 private void buildDeltas(SimpleLookupTable deltas) {
@@ -426,7 +428,7 @@ public State getLastState(IProject project) {
 * beyond the next build. Missing projects should be specified but will be ignored until
 * they are added to the workspace.
 */
-private IProject[] getRequiredProjects(boolean includeBinaryPrerequisites) {
+IProject[] getRequiredProjects(boolean includeBinaryPrerequisites) {
 	if (this.javaProject == null || this.workspaceRoot == null) return new IProject[0];
 
 	ArrayList projects = new ArrayList();
@@ -577,7 +579,7 @@ private boolean hasStructuralDelta() {
 	return false;
 }
 
-private int initializeBuilder(int kind, boolean forBuild) throws CoreException {
+int initializeBuilder(int kind, boolean forBuild) throws CoreException {
 	// some calls just need the nameEnvironment initialized so skip the rest
 	this.javaProject = (JavaProject) JavaCore.create(this.currentProject);
 	this.workspaceRoot = this.currentProject.getWorkspace().getRoot();
@@ -594,6 +596,7 @@ private int initializeBuilder(int kind, boolean forBuild) throws CoreException {
 		String projectName = this.currentProject.getName();
 		if (builtProjects == null || builtProjects.contains(projectName)) {
 			JavaModel.flushExternalFileCache();
+			BuildCoordinator.reset();
 			builtProjects = new ArrayList();
 		}
 		builtProjects.add(projectName);
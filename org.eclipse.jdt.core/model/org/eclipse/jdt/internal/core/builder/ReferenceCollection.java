@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,11 +19,13 @@ public class ReferenceCollection {
 char[][][] qualifiedNameReferences; // contains no simple names as in just 'a' which is kept in simpleNameReferences instead
 char[][] simpleNameReferences;
 char[][] rootReferences;
+char[][] memberReferences; // the names of the fields & methods which are used, declared or inherited, null if unknown
 
-protected ReferenceCollection(char[][][] qualifiedNameReferences, char[][] simpleNameReferences, char[][] rootReferences) {
+protected ReferenceCollection(char[][][] qualifiedNameReferences, char[][] simpleNameReferences, char[][] rootReferences, char[][] memberReferences) {
 	this.qualifiedNameReferences = internQualifiedNames(qualifiedNameReferences, false);
 	this.simpleNameReferences = internSimpleNames(simpleNameReferences, true);
 	this.rootReferences = internSimpleNames(rootReferences, false);
+	this.memberReferences = memberReferences == null ? null : internSimpleNames(memberReferences, false);
 }
 
 public void addDependencies(String[] typeNameDependencies) {
@@ -73,6 +75,17 @@ public boolean includes(char[][] qualifiedName) {
 	return false;
 }
 
+public boolean includesMember(char[][] memberNames) {
+	if (this.memberReferences == null) return true; // must assume any member is used
+
+	for (int i = 0, l = memberNames.length; i < l; i++) {
+		char[] memberName = memberNames[i];
+		for (int j = 0, m = this.memberReferences.length; j < m; j++)
+			if (memberName == this.memberReferences[j]) return true;
+	}
+	return false;
+}
+
 /**
  * @deprecated
  */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,9 +30,13 @@ String javaProjectName;
 public ClasspathMultiDirectory[] sourceLocations;
 ClasspathLocation[] binaryLocations;
 // keyed by the project relative path of the type (i.e. "src1/p1/p2/A.java"), value is a ReferenceCollection or an AdditionalTypeCollection
+// or the Integer position of its encoded collection in savedReferences until it is consulted, see getReferences(String)
 SimpleLookupTable references;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
 public SimpleLookupTable typeLocators;
+// keyed by an interned simple name or qualified name, value is the String[] of the type locators whose ReferenceCollection includes it
+// the arrays are never modified in place so they can be shared with the copies of this state
+SimpleLookupTable dependents;
 
 int buildNumber;
 long lastStructuralBuildTime;
@@ -40,11 +44,17 @@ SimpleLookupTable structuralBuildTimes;
 
 private String[] knownPackageNames; // of the form "p1/p2"
 
+// the encoded collections of the references table when it was read, along with the interned names they refer to
+private byte[] savedReferences;
+private char[][] savedRootNames;
+private char[][] savedSimpleNames;
+private char[][][] savedQualifiedNames;
+
 private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
 
-public static final byte VERSION = 0x001B;
+public static final byte VERSION = 0x001E;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -64,6 +74,7 @@ protected State(JavaBuilder javaBuilder) {
 	this.binaryLocations = javaBuilder.nameEnvironment.binaryLocations;
 	this.references = new SimpleLookupTable(7);
 	this.typeLocators = new SimpleLookupTable(7);
+	this.dependents = new SimpleLookupTable(7);
 
 	this.buildNumber = 0; // indicates a full build
 	this.lastStructuralBuildTime = computeStructuralBuildTime(javaBuilder.lastState == null ? 0 : javaBuilder.lastState.lastStructuralBuildTime);
@@ -84,10 +95,15 @@ void copyFrom(State lastState) {
 	this.buildNumber = lastState.buildNumber + 1;
 	this.lastStructuralBuildTime = lastState.lastStructuralBuildTime;
 	this.structuralBuildTimes = lastState.structuralBuildTimes;
+	this.savedReferences = lastState.savedReferences;
+	this.savedRootNames = lastState.savedRootNames;
+	this.savedSimpleNames = lastState.savedSimpleNames;
+	this.savedQualifiedNames = lastState.savedQualifiedNames;
 
 	try {
 		this.references = (SimpleLookupTable) lastState.references.clone();
 		this.typeLocators = (SimpleLookupTable) lastState.typeLocators.clone();
+		this.dependents = (SimpleLookupTable) lastState.dependents.clone();
 	} catch (CloneNotSupportedException e) {
 		this.references = new SimpleLookupTable(lastState.references.elementSize);
 		Object[] keyTable = lastState.references.keyTable;
@@ -102,19 +118,191 @@ void copyFrom(State lastState) {
 		for (int i = 0, l = keyTable.length; i < l; i++)
 			if (keyTable[i] != null)
 				this.typeLocators.put(keyTable[i], valueTable[i]);
+
+		this.dependents = new SimpleLookupTable(lastState.dependents.elementSize);
+		keyTable = lastState.dependents.keyTable;
+		valueTable = lastState.dependents.valueTable;
+		for (int i = 0, l = keyTable.length; i < l; i++)
+			if (keyTable[i] != null)
+				this.dependents.put(keyTable[i], valueTable[i]);
+	}
+}
+
+void addDependencies(String typeLocator, String[] typeNameDependencies) {
+	ReferenceCollection refs = getReferences(typeLocator);
+	if (refs == null) return;
+
+	// addDependencies() only appends names so index the names past the previous ends of the arrays
+	int qLength = refs.qualifiedNameReferences.length;
+	int sLength = refs.simpleNameReferences.length;
+	refs.addDependencies(typeNameDependencies);
+	char[][][] qNames = refs.qualifiedNameReferences;
+	for (int i = qLength, l = qNames.length; i < l; i++)
+		addDependent(qNames[i], typeLocator);
+	char[][] sNames = refs.simpleNameReferences;
+	for (int i = sLength, l = sNames.length; i < l; i++)
+		addDependent(sNames[i], typeLocator);
+}
+
+private void addDependent(Object name, String typeLocator) {
+	String[] locators = (String[]) this.dependents.get(name);
+	if (locators == null) {
+		this.dependents.put(name, new String[] {typeLocator});
+		return;
+	}
+	int length = locators.length;
+	for (int i = 0; i < length; i++)
+		if (locators[i].equals(typeLocator)) return;
+	System.arraycopy(locators, 0, locators = new String[length + 1], 0, length);
+	locators[length] = typeLocator;
+	this.dependents.put(name, locators);
+}
+
+private void removeDependent(Object name, String typeLocator) {
+	String[] locators = (String[]) this.dependents.get(name);
+	if (locators == null) return;
+	for (int i = 0, length = locators.length; i < length; i++) {
+		if (locators[i].equals(typeLocator)) {
+			if (length == 1) {
+				this.dependents.removeKey(name);
+			} else {
+				String[] newLocators = new String[length - 1];
+				System.arraycopy(locators, 0, newLocators, 0, i);
+				System.arraycopy(locators, i + 1, newLocators, i, length - i - 1);
+				this.dependents.put(name, newLocators);
+			}
+			return;
+		}
+	}
+}
+
+/*
+ * Index the names included by newRefs but not by oldRefs, and unindex the names only included by oldRefs.
+ * Either collection can be null.
+ */
+private void updateDependents(String typeLocator, ReferenceCollection oldRefs, ReferenceCollection newRefs) {
+	if (oldRefs != null) {
+		char[][][] qNames = oldRefs.qualifiedNameReferences;
+		for (int i = 0, l = qNames.length; i < l; i++)
+			if (newRefs == null || !newRefs.includes(qNames[i]))
+				removeDependent(qNames[i], typeLocator);
+		char[][] sNames = oldRefs.simpleNameReferences;
+		for (int i = 0, l = sNames.length; i < l; i++)
+			if (newRefs == null || !newRefs.includes(sNames[i]))
+				removeDependent(sNames[i], typeLocator);
+	}
+	if (newRefs != null) {
+		char[][][] qNames = newRefs.qualifiedNameReferences;
+		for (int i = 0, l = qNames.length; i < l; i++)
+			if (oldRefs == null || !oldRefs.includes(qNames[i]))
+				addDependent(qNames[i], typeLocator);
+		char[][] sNames = newRefs.simpleNameReferences;
+		for (int i = 0, l = sNames.length; i < l; i++)
+			if (oldRefs == null || !oldRefs.includes(sNames[i]))
+				addDependent(sNames[i], typeLocator);
+	}
+}
+/*
+ * Decode the collection saved at the given position of savedReferences.
+ */
+private ReferenceCollection decodeReferences(int position) {
+	byte[] bytes = this.savedReferences;
+	int[] next = {position};
+	readCompactInt(bytes, next); // the length of the collection
+	char[][] definedTypeNames = null;
+	if (bytes[next[0]++] == 1) {
+		definedTypeNames = new char[readCompactInt(bytes, next)][];
+		for (int i = 0, l = definedTypeNames.length; i < l; i++) {
+			char[] name = new char[readCompactInt(bytes, next)];
+			for (int j = 0, m = name.length; j < m; j++)
+				name[j] = (char) readCompactInt(bytes, next);
+			definedTypeNames[i] = name;
+		}
 	}
+	char[][][] qualifiedNames = new char[readCompactInt(bytes, next)][][];
+	for (int i = 0, l = qualifiedNames.length; i < l; i++)
+		qualifiedNames[i] = this.savedQualifiedNames[readCompactInt(bytes, next)];
+	char[][] simpleNames = new char[readCompactInt(bytes, next)][];
+	for (int i = 0, l = simpleNames.length; i < l; i++)
+		simpleNames[i] = this.savedSimpleNames[readCompactInt(bytes, next)];
+	char[][] rootNames = new char[readCompactInt(bytes, next)][];
+	for (int i = 0, l = rootNames.length; i < l; i++)
+		rootNames[i] = this.savedRootNames[readCompactInt(bytes, next)];
+	char[][] memberNames = null;
+	int mLength = readCompactInt(bytes, next) - 1; // -1 when the member names are unknown
+	if (mLength >= 0) {
+		memberNames = new char[mLength][];
+		for (int i = 0; i < mLength; i++)
+			memberNames[i] = this.savedSimpleNames[readCompactInt(bytes, next)];
+	}
+	return definedTypeNames == null
+		? new ReferenceCollection(qualifiedNames, simpleNames, rootNames, memberNames)
+		: new AdditionalTypeCollection(definedTypeNames, qualifiedNames, simpleNames, rootNames, memberNames);
 }
+
 public char[][] getDefinedTypeNamesFor(String typeLocator) {
-	Object c = this.references.get(typeLocator);
+	Object c = getReferences(typeLocator);
 	if (c instanceof AdditionalTypeCollection)
 		return ((AdditionalTypeCollection) c).definedTypeNames;
 	return null; // means only one type is defined with the same name as the file... saves space
 }
 
-public SimpleLookupTable getReferences() {
+/*
+ * Answer the locators of the types whose ReferenceCollection can include the given names,
+ * or null if any type can, i.e. when both the qualified names and the simple names are well known.
+ * The answered array can contain null slots.
+ * @see ReferenceCollection#includes(char[][][], char[][], char[][])
+ */
+String[] getDependents(char[][][] qualifiedNames, char[][] simpleNames) {
+	StringSet locators = new StringSet(7);
+	if (simpleNames != null) {
+		// a type must include one of the simple names
+		for (int i = 0, l = simpleNames.length; i < l; i++)
+			addDependents(simpleNames[i], locators);
+	} else if (qualifiedNames != null) {
+		// a type must include one of the qualified names, which is checked as a simple name when it has a single segment
+		for (int i = 0, l = qualifiedNames.length; i < l; i++) {
+			char[][] qualifiedName = qualifiedNames[i];
+			addDependents(qualifiedName.length == 1 ? (Object) qualifiedName[0] : qualifiedName, locators);
+		}
+	} else {
+		return null;
+	}
+	return locators.values;
+}
+
+private void addDependents(Object name, StringSet locators) {
+	String[] locatorsOfName = (String[]) this.dependents.get(name);
+	if (locatorsOfName != null)
+		for (int i = 0, l = locatorsOfName.length; i < l; i++)
+			locators.add(locatorsOfName[i]);
+}
+
+/**
+ * Answer the references table, after decoding the collections which were not consulted since the state was read.
+ */
+public synchronized SimpleLookupTable getReferences() {
+	Object[] valueTable = this.references.valueTable;
+	for (int i = 0, l = valueTable.length; i < l; i++)
+		if (valueTable[i] instanceof Integer)
+			valueTable[i] = decodeReferences(((Integer) valueTable[i]).intValue());
 	return this.references;
 }
 
+/*
+ * Answer the collection of the given type locator, decoding it if it was not consulted since the state was read.
+ */
+synchronized ReferenceCollection getReferences(String typeLocator) {
+	Object value = this.references.get(typeLocator);
+	if (value instanceof Integer) {
+		ReferenceCollection refs = decodeReferences(((Integer) value).intValue());
+		this.references.put(typeLocator, refs);
+		return refs;
+	}
+	return (ReferenceCollection) value;
+}
+
+
 StringSet getStructurallyChangedTypes(State prereqState) {
 	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
 		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
@@ -168,14 +356,19 @@ boolean isSourceFolderEmpty(IContainer sourceFolder) {
 	return true;
 }
 
-void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[][] memberRefs, char[] mainTypeName, ArrayList typeNames) {
+	ReferenceCollection refs;
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		refs = new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs, memberRefs);
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		refs = new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs, memberRefs);
 	}
+	Object oldRefs = this.references.put(typeLocator, refs);
+	if (oldRefs instanceof Integer)
+		oldRefs = decodeReferences(((Integer) oldRefs).intValue());
+	updateDependents(typeLocator, (ReferenceCollection) oldRefs, refs);
 }
 
 void recordLocatorForType(String qualifiedTypeName, String typeLocator) {
@@ -195,7 +388,10 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 
 void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
-	this.references.removeKey(typeLocatorToRemove);
+	Object oldRefs = this.references.removeKey(typeLocatorToRemove);
+	if (oldRefs instanceof Integer)
+		oldRefs = decodeReferences(((Integer) oldRefs).intValue());
+	updateDependents(typeLocatorToRemove, (ReferenceCollection) oldRefs, null);
 	this.typeLocators.removeValue(typeLocatorToRemove);
 }
 
@@ -299,43 +495,55 @@ static State read(IProject project, DataInputStream in) throws IOException {
 	}
 	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false);
 
-	newState.references = new SimpleLookupTable(length = in.readInt());
+	// the collections are only decoded when they are consulted
+	int[] locatorIds = new int[length = in.readInt()];
+	for (int i = 0; i < length; i++)
+		locatorIds[i] = in.readInt();
+	byte[] bytes = new byte[in.readInt()];
+	in.readFully(bytes);
+	newState.references = new SimpleLookupTable(length);
+	int[] next = {0};
 	for (int i = 0; i < length; i++) {
-		String typeLocator = internedTypeLocators[in.readInt()];
-		ReferenceCollection collection = null;
-		switch (in.readByte()) {
-			case 1 :
-				char[][] additionalTypeNames = readNames(in);
-				char[][][] qualifiedNames = new char[in.readInt()][][];
-				for (int j = 0, m = qualifiedNames.length; j < m; j++)
-					qualifiedNames[j] = internedQualifiedNames[in.readInt()];
-				char[][] simpleNames = new char[in.readInt()][];
-				for (int j = 0, m = simpleNames.length; j < m; j++)
-					simpleNames[j] = internedSimpleNames[in.readInt()];
-				char[][] rootNames = new char[in.readInt()][];
-				for (int j = 0, m = rootNames.length; j < m; j++)
-					rootNames[j] = internedRootNames[in.readInt()];
-				collection = new AdditionalTypeCollection(additionalTypeNames, qualifiedNames, simpleNames, rootNames);
-				break;
-			case 2 :
-				char[][][] qNames = new char[in.readInt()][][];
-				for (int j = 0, m = qNames.length; j < m; j++)
-					qNames[j] = internedQualifiedNames[in.readInt()];
-				char[][] sNames = new char[in.readInt()][];
-				for (int j = 0, m = sNames.length; j < m; j++)
-					sNames[j] = internedSimpleNames[in.readInt()];
-				char[][] rNames = new char[in.readInt()][];
-				for (int j = 0, m = rNames.length; j < m; j++)
-					rNames[j] = internedRootNames[in.readInt()];
-				collection = new ReferenceCollection(qNames, sNames, rNames);
-		}
-		newState.references.put(typeLocator, collection);
+		int position = next[0];
+		next[0] += readCompactInt(bytes, next);
+		newState.references.put(internedTypeLocators[locatorIds[i]], new Integer(position));
+	}
+	newState.savedReferences = bytes;
+	newState.savedRootNames = internedRootNames;
+	newState.savedSimpleNames = internedSimpleNames;
+	newState.savedQualifiedNames = internedQualifiedNames;
+
+	newState.dependents = new SimpleLookupTable(length = in.readInt());
+	for (int i = 0; i < length; i++) {
+		Object name = in.readByte() == 1
+			? (Object) internedSimpleNames[in.readInt()]
+			: (Object) internedQualifiedNames[in.readInt()];
+		String[] locators = new String[in.readInt()];
+		for (int j = 0, m = locators.length; j < m; j++)
+			locators[j] = internedTypeLocators[in.readInt()];
+		newState.dependents.put(name, locators);
 	}
 	if (JavaBuilder.DEBUG)
 		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
 	return newState;
 }
 
+/*
+ * Read the compact int at the given position of the bytes, 7 bits per byte with the high bit set on all but the last byte,
+ * and move the position past it.
+ */
+private static int readCompactInt(byte[] bytes, int[] position) {
+	int value = 0;
+	int shift = 0;
+	byte b;
+	do {
+		b = bytes[position[0]++];
+		value |= (b & 0x7F) << shift;
+		shift += 7;
+	} while (b < 0);
+	return value;
+}
+
 private static char[] readName(DataInputStream in) throws IOException {
 	int nLength = in.readInt();
 	char[] name = new char[nLength];
@@ -397,6 +605,16 @@ void wasStructurallyChanged(String typeName) {
 	}
 }
 
+/*
+ * Give the given name the next id unless it already has one, and answer whether it was given one.
+ */
+private static boolean internName(Object name, SimpleLookupTable internedNames, ArrayList names) {
+	if (internedNames.containsKey(name)) return false; // remember the names have been interned
+	internedNames.put(name, new Integer(names.size()));
+	names.add(name);
+	return true;
+}
+
 void write(DataOutputStream out) throws IOException {
 	int length;
 	Object[] keyTable;
@@ -527,76 +745,73 @@ void write(DataOutputStream out) throws IOException {
 
 /*
  * char[][]	Interned root names
- * char[][][]	Interned qualified names
  * char[][]	Interned simple names
+ * char[][][]	Interned qualified names
+ * The names read with the state keep their ids while some of its collections are still encoded
  */
 	SimpleLookupTable internedRootNames = new SimpleLookupTable(3);
-	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
 	SimpleLookupTable internedSimpleNames = new SimpleLookupTable(31);
+	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
+	ArrayList rootNames = new ArrayList(3);
+	ArrayList simpleNames = new ArrayList(31);
+	ArrayList qualifiedNames = new ArrayList(31);
 	valueTable = this.references.valueTable;
 	for (int i = 0, l = valueTable.length; i < l; i++) {
-		if (valueTable[i] != null) {
+		if (valueTable[i] instanceof Integer) {
+			for (int j = 0, m = this.savedRootNames.length; j < m; j++) {
+				rootNames.add(this.savedRootNames[j]);
+				if (!internedRootNames.containsKey(this.savedRootNames[j]))
+					internedRootNames.put(this.savedRootNames[j], new Integer(j));
+			}
+			for (int j = 0, m = this.savedSimpleNames.length; j < m; j++) {
+				simpleNames.add(this.savedSimpleNames[j]);
+				if (!internedSimpleNames.containsKey(this.savedSimpleNames[j]))
+					internedSimpleNames.put(this.savedSimpleNames[j], new Integer(j));
+			}
+			for (int j = 0, m = this.savedQualifiedNames.length; j < m; j++) {
+				char[][] qName = this.savedQualifiedNames[j];
+				qualifiedNames.add(qName);
+				if (!internedQualifiedNames.containsKey(qName))
+					internedQualifiedNames.put(qName, new Integer(j));
+				for (int k = 0, n = qName.length; k < n; k++)
+					internName(qName[k], internedSimpleNames, simpleNames);
+			}
+			break;
+		}
+	}
+	for (int i = 0, l = valueTable.length; i < l; i++) {
+		if (valueTable[i] instanceof ReferenceCollection) {
 			ReferenceCollection collection = (ReferenceCollection) valueTable[i];
 			char[][] rNames = collection.rootReferences;
-			for (int j = 0, m = rNames.length; j < m; j++) {
-				char[] rName = rNames[j];
-				if (!internedRootNames.containsKey(rName)) // remember the names have been interned
-					internedRootNames.put(rName, new Integer(internedRootNames.elementSize));
-			}
+			for (int j = 0, m = rNames.length; j < m; j++)
+				internName(rNames[j], internedRootNames, rootNames);
 			char[][][] qNames = collection.qualifiedNameReferences;
 			for (int j = 0, m = qNames.length; j < m; j++) {
 				char[][] qName = qNames[j];
-				if (!internedQualifiedNames.containsKey(qName)) { // remember the names have been interned
-					internedQualifiedNames.put(qName, new Integer(internedQualifiedNames.elementSize));
-					for (int k = 0, n = qName.length; k < n; k++) {
-						char[] sName = qName[k];
-						if (!internedSimpleNames.containsKey(sName)) // remember the names have been interned
-							internedSimpleNames.put(sName, new Integer(internedSimpleNames.elementSize));
-					}
-				}
+				if (internName(qName, internedQualifiedNames, qualifiedNames))
+					for (int k = 0, n = qName.length; k < n; k++)
+						internName(qName[k], internedSimpleNames, simpleNames);
 			}
 			char[][] sNames = collection.simpleNameReferences;
-			for (int j = 0, m = sNames.length; j < m; j++) {
-				char[] sName = sNames[j];
-				if (!internedSimpleNames.containsKey(sName)) // remember the names have been interned
-					internedSimpleNames.put(sName, new Integer(internedSimpleNames.elementSize));
-			}
-		}
-	}
-	char[][] internedArray = new char[internedRootNames.elementSize][];
-	Object[] rootNames = internedRootNames.keyTable;
-	Object[] positions = internedRootNames.valueTable;
-	for (int i = positions.length; --i >= 0; ) {
-		if (positions[i] != null) {
-			int index = ((Integer) positions[i]).intValue();
-			internedArray[index] = (char[]) rootNames[i];
+			for (int j = 0, m = sNames.length; j < m; j++)
+				internName(sNames[j], internedSimpleNames, simpleNames);
+			char[][] mNames = collection.memberReferences;
+			if (mNames != null)
+				for (int j = 0, m = mNames.length; j < m; j++)
+					internName(mNames[j], internedSimpleNames, simpleNames);
 		}
 	}
+	char[][] internedArray = new char[rootNames.size()][];
+	rootNames.toArray(internedArray);
 	writeNames(internedArray, out);
 	// now write the interned simple names
-	internedArray = new char[internedSimpleNames.elementSize][];
-	Object[] simpleNames = internedSimpleNames.keyTable;
-	positions = internedSimpleNames.valueTable;
-	for (int i = positions.length; --i >= 0; ) {
-		if (positions[i] != null) {
-			int index = ((Integer) positions[i]).intValue();
-			internedArray[index] = (char[]) simpleNames[i];
-		}
-	}
+	internedArray = new char[simpleNames.size()][];
+	simpleNames.toArray(internedArray);
 	writeNames(internedArray, out);
 	// now write the interned qualified names as arrays of interned simple names
-	char[][][] internedQArray = new char[internedQualifiedNames.elementSize][][];
-	Object[] qualifiedNames = internedQualifiedNames.keyTable;
-	positions = internedQualifiedNames.valueTable;
-	for (int i = positions.length; --i >= 0; ) {
-		if (positions[i] != null) {
-			int index = ((Integer) positions[i]).intValue();
-			internedQArray[index] = (char[][]) qualifiedNames[i];
-		}
-	}
-	out.writeInt(length = internedQArray.length);
+	out.writeInt(length = qualifiedNames.size());
 	for (int i = 0; i < length; i++) {
-		char[][] qName = internedQArray[i];
+		char[][] qName = (char[][]) qualifiedNames.get(i);
 		int qLength = qName.length;
 		out.writeInt(qLength);
 		for (int j = 0; j < qLength; j++) {
@@ -607,53 +822,122 @@ void write(DataOutputStream out) throws IOException {
 
 /*
  * References table
- * int		interned locator id
- * ReferenceCollection
+ * int[]		interned locator ids
+ * int		length of the encoded collections
+ * byte[]	encoded collections in the same order, each one preceded by its length
+ * 			byte			1 for an AdditionalTypeCollection, 2 for a ReferenceCollection
+ * 			char[][]	defined type names of an AdditionalTypeCollection
+ * 			int[]		interned qualified, simple and root name ids
+ * 			int[]		interned member name ids, preceded by their count + 1 or by 0 when they are unknown
+ * all the ints of the encoded collections are compact ints
 */
 	out.writeInt(length = this.references.elementSize);
+	ByteArrayOutputStream encodedCollections = new ByteArrayOutputStream(length * 64);
 	if (length > 0) {
+		ByteArrayOutputStream encodedCollection = new ByteArrayOutputStream(256);
 		keyTable = this.references.keyTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
 				Integer index = (Integer) internedTypeLocators.get(keyTable[i]);
 				out.writeInt(index.intValue());
+				if (valueTable[i] instanceof Integer) {
+					// copy the collection as it was read since its names kept their ids
+					int position = ((Integer) valueTable[i]).intValue();
+					int[] next = {position};
+					int collectionLength = readCompactInt(this.savedReferences, next);
+					encodedCollections.write(this.savedReferences, position, next[0] - position + collectionLength);
+					continue;
+				}
 				ReferenceCollection collection = (ReferenceCollection) valueTable[i];
+				encodedCollection.reset();
 				if (collection instanceof AdditionalTypeCollection) {
-					out.writeByte(1);
-					AdditionalTypeCollection atc = (AdditionalTypeCollection) collection;
-					writeNames(atc.definedTypeNames, out);
+					encodedCollection.write(1);
+					char[][] names = ((AdditionalTypeCollection) collection).definedTypeNames;
+					writeCompactInt(names.length, encodedCollection);
+					for (int j = 0, m = names.length; j < m; j++) {
+						char[] name = names[j];
+						writeCompactInt(name.length, encodedCollection);
+						for (int k = 0, n = name.length; k < n; k++)
+							writeCompactInt(name[k], encodedCollection);
+					}
 				} else {
-					out.writeByte(2);
+					encodedCollection.write(2);
 				}
-				char[][][] qNames = collection.qualifiedNameReferences;
-				int qLength = qNames.length;
-				out.writeInt(qLength);
-				for (int j = 0; j < qLength; j++) {
-					index = (Integer) internedQualifiedNames.get(qNames[j]);
-					out.writeInt(index.intValue());
+				writeCompactIds(collection.qualifiedNameReferences, internedQualifiedNames, encodedCollection);
+				writeCompactIds(collection.simpleNameReferences, internedSimpleNames, encodedCollection);
+				writeCompactIds(collection.rootReferences, internedRootNames, encodedCollection);
+				char[][] mNames = collection.memberReferences;
+				if (mNames == null) {
+					writeCompactInt(0, encodedCollection);
+				} else {
+					writeCompactInt(mNames.length + 1, encodedCollection);
+					for (int j = 0, m = mNames.length; j < m; j++)
+						writeCompactInt(((Integer) internedSimpleNames.get(mNames[j])).intValue(), encodedCollection);
 				}
-				char[][] sNames = collection.simpleNameReferences;
-				int sLength = sNames.length;
-				out.writeInt(sLength);
-				for (int j = 0; j < sLength; j++) {
-					index = (Integer) internedSimpleNames.get(sNames[j]);
-					out.writeInt(index.intValue());
+				writeCompactInt(encodedCollection.size(), encodedCollections);
+				encodedCollection.writeTo(encodedCollections);
+			}
+		}
+		if (JavaBuilder.DEBUG && length != 0)
+			System.out.println("references table is inconsistent"); //$NON-NLS-1$
+	}
+	out.writeInt(encodedCollections.size());
+	encodedCollections.writeTo(out);
+
+/*
+ * Dependents table
+ * byte		1 for an interned simple name, 2 for an interned qualified name
+ * int		interned name id
+ * int[]		interned locator ids
+ */
+	out.writeInt(length = this.dependents.elementSize);
+	if (length > 0) {
+		keyTable = this.dependents.keyTable;
+		valueTable = this.dependents.valueTable;
+		for (int i = 0, l = keyTable.length; i < l; i++) {
+			if (keyTable[i] != null) {
+				length--;
+				Integer index;
+				if (keyTable[i] instanceof char[]) {
+					out.writeByte(1);
+					index = (Integer) internedSimpleNames.get(keyTable[i]);
+				} else {
+					out.writeByte(2);
+					index = (Integer) internedQualifiedNames.get(keyTable[i]);
 				}
-				char[][] rNames = collection.rootReferences;
-				int rLength = rNames.length;
-				out.writeInt(rLength);
-				for (int j = 0; j < rLength; j++) {
-					index = (Integer) internedRootNames.get(rNames[j]);
+				out.writeInt(index.intValue());
+				String[] locators = (String[]) valueTable[i];
+				out.writeInt(locators.length);
+				for (int j = 0, m = locators.length; j < m; j++) {
+					index = (Integer) internedTypeLocators.get(locators[j]);
 					out.writeInt(index.intValue());
 				}
 			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
-			System.out.println("references table is inconsistent"); //$NON-NLS-1$
+			System.out.println("dependents table is inconsistent"); //$NON-NLS-1$
 	}
 }
 
+/*
+ * Write the given int as a compact int.
+ * @see #readCompactInt(byte[], int[])
+ */
+private static void writeCompactInt(int value, ByteArrayOutputStream out) {
+	while ((value & ~0x7F) != 0) {
+		out.write((value & 0x7F) | 0x80);
+		value >>>= 7;
+	}
+	out.write(value);
+}
+
+private static void writeCompactIds(Object[] names, SimpleLookupTable internedNames, ByteArrayOutputStream out) {
+	writeCompactInt(names.length, out);
+	for (int i = 0, l = names.length; i < l; i++)
+		writeCompactInt(((Integer) internedNames.get(names[i])).intValue(), out);
+}
+
 private void writeName(char[] name, DataOutputStream out) throws IOException {
 	int nLength = name.length;
 	out.writeInt(nLength);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.eclipse.jdt.internal.compiler.parser.Scanner;
 import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
 import org.eclipse.jdt.internal.core.LocalVariable;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
 import org.eclipse.jdt.internal.core.index.EntryResult;
 import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.search.HierarchyScope;
@@ -2291,8 +2292,9 @@ public void decodeIndexKey(char[] key) {
  */
 public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchParticipant participant, IJavaSearchScope scope, IProgressMonitor monitor) throws IOException {
 	if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+	DiskIndex queriedDiskIndex = null;
 	try {
-		index.startQuery();
+		queriedDiskIndex = index.startQuery();
 		SearchPattern pattern = currentPattern();
 		EntryResult[] entries = pattern.queryIn(index);
 		if (entries == null) return;
@@ -2313,7 +2315,7 @@ public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchP
 			}
 		}
 	} finally {
-		index.stopQuery();
+		index.stopQuery(queriedDiskIndex);
 	}
 }
 /**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,11 +15,13 @@ import java.io.*;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.internal.core.util.*;
+import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfIntValues;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SimpleSetOfCharArray;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 
 public class DiskIndex {
 
@@ -29,14 +31,16 @@ private int headerInfoOffset;
 private int numberOfChunks;
 private int sizeOfLastChunk;
 private int[] chunkOffsets;
-private int documentReferenceSize; // 1, 2 or more bytes... depends on # of document names
 private int startOfCategoryTables;
 private HashtableOfIntValues categoryOffsets, categoryEnds;
+private HashtableOfIntValues categoryDirectoryOffsets; // category name -> offset of the directory of its sorted words
 
 private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
-private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
+private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s, their encoding in a byte[] or their offset if not read yet)
 private char[] cachedCategoryName;
+private HashtableOfObject categoryDirectories; // category name -> WordDirectory, kept once read
+private MappedIndexReader mappedReader; // set once the index file is saved, null if it is read through streams
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
 private static int BUFFER_READ_SIZE = DEFAULT_BUFFER_SIZE;
@@ -46,14 +50,24 @@ private int bufferIndex, bufferEnd; // used when reading from the file into the
 private int streamEnd; // used when writing data from the streamBuffer to the file
 char separator = Index.DEFAULT_SEPARATOR;
 
-public static final String SIGNATURE= "INDEX VERSION 1.126"; //$NON-NLS-1$
+public static final String SIGNATURE= "INDEX VERSION 1.130"; //$NON-NLS-1$
 private static final char[] SIGNATURE_CHARS = SIGNATURE.toCharArray();
 public static boolean DEBUG = false;
+// on Windows, a mapped file cannot be deleted until its mapping is garbage collected, but saving an index replaces its file
+public static boolean MAP_INDEX_FILES = File.separatorChar != '\\';
+// whether the declaration categories are saved with the index of the trigrams of their words, see writeNgrams()
+public static boolean INDEX_NGRAMS = true;
 
 private static final int RE_INDEXED = -1;
 private static final int DELETED = -2;
 
 private static final int CHUNK_SIZE = 100;
+private static final int WORD_BLOCK_SIZE = 64; // number of words of a category table per entry of its directory
+private static final int LARGE_ARRAY_SIZE = 256;
+private static final int FILTER_BITS_PER_WORD = 10; // with FILTER_HASHES, about 1% of the absent words pass the filter
+private static final int FILTER_HASHES = 4;
+private static final int NGRAM_LENGTH = 3;
+private static final char[][] NGRAM_CATEGORIES = {IIndexConstants.TYPE_DECL, IIndexConstants.METHOD_DECL, IIndexConstants.FIELD_DECL};
 
 private static final SimpleSetOfCharArray INTERNED_CATEGORY_NAMES = new SimpleSetOfCharArray(20);
 
@@ -81,19 +95,131 @@ int[] asArray() {
 }
 }
 
+/*
+ * The words of a category table are sorted by compareWords(), so that the words starting with a given prefix,
+ * ignoring case, are contiguous. The directory holds the offset and the first word of each block of
+ * WORD_BLOCK_SIZE words, to find the block where such a range starts without reading the table.
+ * It also holds a Bloom filter of the words ignoring case, to know that a word is not in the table without
+ * reading it, and the offset of the index of the trigrams of the words if the category has one.
+ */
+static class WordDirectory {
+
+int wordCount;
+int[] blockOffsets;
+char[][] firstWords;
+int[] filter;
+int ngramsOffset = -1;
+HashtableOfObject ngrams; // trigram -> Integer offset of the numbers of the words which have it, once read
+
+WordDirectory(int wordCount, int numberOfBlocks) {
+	this.wordCount = wordCount;
+	this.blockOffsets = new int[numberOfBlocks];
+	this.firstWords = new char[numberOfBlocks][];
+}
+/*
+ * Answer the last block whose first word sorts before the words starting with the given lower case prefix.
+ */
+int findBlock(char[] prefix) {
+	int low = 0;
+	int high = this.firstWords.length - 1;
+	int block = 0;
+	while (low <= high) {
+		int middle = (low + high) >>> 1;
+		if (compareFoldedPrefix(this.firstWords[middle], prefix) < 0) {
+			block = middle;
+			low = middle + 1;
+		} else {
+			high = middle - 1;
+		}
+	}
+	return block;
+}
+/*
+ * Answer false if no word of the table is equal to the given word ignoring case.
+ */
+boolean mayContain(char[] word) {
+	return filterHas(this.filter, word);
+}
+}
+
+/*
+ * Iterates over the document numbers of a word in increasing order, decoding them one at a time instead of
+ * reading them in an array. See writeDocumentNumbers() for their encoding.
+ */
+static class DocumentIterator {
+
+private int[] numbers; // the numbers when they are already decoded
+private byte[] bytes; // or their encoding, read from the index file
+private MappedIndexReader.Cursor cursor; // or the cursor reading their encoding in the mapped index file
+private int size = -1;
+private int position;
+private int lastNumber;
+
+DocumentIterator(int[] numbers) {
+	this.numbers = numbers;
+	this.size = numbers.length;
+}
+DocumentIterator(byte[] bytes) {
+	this.bytes = bytes;
+}
+DocumentIterator(MappedIndexReader.Cursor cursor) {
+	this.cursor = cursor;
+	this.size = cursor.readInt();
+	cursor.readVarInt(); // the length of the encoding
+}
+boolean hasNext() {
+	if (this.bytes != null)
+		return this.position < this.bytes.length;
+	return this.position < this.size;
+}
+int next() {
+	if (this.numbers != null)
+		return this.numbers[this.position++];
+	if (this.cursor != null) {
+		this.position++;
+		return this.lastNumber += this.cursor.readVarInt();
+	}
+	int delta = 0;
+	for (int shift = 0;; shift += 7) {
+		byte b = this.bytes[this.position++];
+		delta |= (b & 0x7F) << shift;
+		if (b >= 0)
+			return this.lastNumber += delta;
+	}
+}
+int size() {
+	if (this.size < 0) {
+		int count = 0;
+		for (int i = 0, length = this.bytes.length; i < length; i++)
+			if (this.bytes[i] >= 0) // the last byte of a number
+				count++;
+		this.size = count;
+	}
+	return this.size;
+}
+}
+
+static final Util.Comparer WORD_ORDER = new Util.Comparer() {
+	public int compare(Object word1, Object word2) {
+		return compareWords((char[]) word1, (char[]) word2);
+	}
+};
+
 
 DiskIndex() {
 	this.headerInfoOffset = -1;
 	this.numberOfChunks = -1;
 	this.sizeOfLastChunk = -1;
 	this.chunkOffsets = null;
-	this.documentReferenceSize = -1;
 	this.cacheUserCount = -1;
 	this.cachedChunks = null;
 	this.categoryTables = null;
 	this.cachedCategoryName = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
+	this.categoryDirectoryOffsets = null;
+	this.categoryDirectories = null;
+	this.mappedReader = null;
 }
 DiskIndex(IndexLocation location) throws IOException {
 	this();
@@ -141,15 +267,14 @@ private HashtableOfObject addQueryResult(HashtableOfObject results, char[] word,
 	EntryResult result = prevResults ? (EntryResult) results.get(word) : null;
 	if (memoryIndex == null) {
 		if (result == null)
-			results.putUnsafely(word, new EntryResult(word, docs));
+			results.putUnsafely(word, new EntryResult(word, docs, this));
 		else
 			result.addDocumentTable(docs);
 	} else {
 		SimpleLookupTable docsToRefs = memoryIndex.docsToReferences;
 		if (result == null) result = new EntryResult(word, null);
-		int[] docNumbers = readDocumentNumbers(docs);
-		for (int i = 0, l = docNumbers.length; i < l; i++) {
-			String docName = readDocumentName(docNumbers[i]);
+		for (DocumentIterator docNumbers = documentNumbers(docs); docNumbers.hasNext();) {
+			String docName = readDocumentName(docNumbers.next());
 			if (!docsToRefs.containsKey(docName))
 				result.addDocumentName(docName);
 		}
@@ -187,7 +312,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 		switch (matchRule) {
 			case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = mayContain(categories[i], key) ? readCategoryTable(categories[i], false) : null;
 					Object value;
 					if (wordsToDocNumbers != null && (value = wordsToDocNumbers.get(key)) != null)
 						results = addQueryResult(results, key, value, memoryIndex, prevResults);
@@ -196,7 +321,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				break;
 			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = readMatchingWords(categories[i], key, matchRule);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
@@ -210,8 +335,9 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				}
 				break;
 			default:
+				boolean exactMatch = matchRule == SearchPattern.R_EXACT_MATCH;
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = exactMatch && !mayContain(categories[i], key) ? null : readMatchingWords(categories[i], key, matchRule);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
@@ -228,8 +354,126 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	return results;
 }
+/*
+ * Compare the given words ignoring case first, so that the words starting with the same prefix ignoring case
+ * are contiguous, then the words which only differ by case.
+ */
+static int compareWords(char[] word1, char[] word2) {
+	int length1 = word1.length;
+	int length2 = word2.length;
+	int min = length1 < length2 ? length1 : length2;
+	for (int i = 0; i < min; i++) {
+		char c1 = ScannerHelper.toLowerCase(word1[i]);
+		char c2 = ScannerHelper.toLowerCase(word2[i]);
+		if (c1 != c2)
+			return c1 - c2;
+	}
+	if (length1 != length2)
+		return length1 - length2;
+	for (int i = 0; i < length1; i++)
+		if (word1[i] != word2[i])
+			return word1[i] - word2[i];
+	return 0;
+}
+/*
+ * Answer whether the given word sorts before (< 0), within (0) or after (> 0) the range of the words
+ * starting with the given lower case prefix.
+ */
+static int compareFoldedPrefix(char[] word, char[] prefix) {
+	int prefixLength = prefix.length;
+	int length = word.length < prefixLength ? word.length : prefixLength;
+	for (int i = 0; i < length; i++) {
+		char c = ScannerHelper.toLowerCase(word[i]);
+		if (c != prefix[i])
+			return c - prefix[i];
+	}
+	return word.length < prefixLength ? -1 : 0;
+}
+/*
+ * Add the given word ignoring case to the given Bloom filter.
+ */
+private static void filterAdd(int[] filter, char[] word) {
+	int hash = filterHash(word);
+	int increment = (hash >>> 17 | hash << 15) | 1;
+	long bits = filter.length * 32L;
+	for (int i = 0; i < FILTER_HASHES; i++, hash += increment) {
+		int bit = (int) ((hash & 0xFFFFFFFFL) % bits);
+		filter[bit >>> 5] |= 1 << (bit & 31);
+	}
+}
+private static boolean filterHas(int[] filter, char[] word) {
+	int hash = filterHash(word);
+	int increment = (hash >>> 17 | hash << 15) | 1;
+	long bits = filter.length * 32L;
+	if (bits == 0)
+		return true; // no filter
+	for (int i = 0; i < FILTER_HASHES; i++, hash += increment) {
+		int bit = (int) ((hash & 0xFFFFFFFFL) % bits);
+		if ((filter[bit >>> 5] & (1 << (bit & 31))) == 0)
+			return false;
+	}
+	return true;
+}
+private static int filterHash(char[] word) {
+	// the characters are folded like in compareWords(), then the bits of the hash are mixed like in MurmurHash3
+	int hash = word.length;
+	for (int i = 0, length = word.length; i < length; i++)
+		hash = 31 * hash + ScannerHelper.toLowerCase(word[i]);
+	hash ^= hash >>> 16;
+	hash *= 0x85EBCA6B;
+	hash ^= hash >>> 13;
+	hash *= 0xC2B2AE35;
+	return hash ^ (hash >>> 16);
+}
+/*
+ * Answer the lower case prefix that all the words matching the given key with the given rule start with,
+ * or null if they may start with anything.
+ */
+static char[] rangePrefix(char[] key, int matchRule) {
+	int length = 0;
+	switch (matchRule & ~SearchPattern.R_CASE_SENSITIVE) {
+		case SearchPattern.R_PREFIX_MATCH :
+			length = key.length;
+			break;
+		case SearchPattern.R_PATTERN_MATCH :
+			while (length < key.length && key[length] != '*' && key[length] != '?')
+				length++;
+			break;
+		case SearchPattern.R_CAMELCASE_MATCH :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH :
+			// a camel case match starts with the first part of the key, which also starts the prefix matches
+			if (key.length > 0)
+				length = 1;
+			while (length < key.length && ScannerHelper.isLowerCase(key[length]))
+				length++;
+			break;
+		default :
+			return null;
+	}
+	if (length == 0)
+		return null;
+	char[] prefix = new char[length];
+	for (int i = 0; i < length; i++)
+		prefix[i] = ScannerHelper.toLowerCase(key[i]);
+	return prefix;
+}
 private void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
+	if (this.mappedReader != null) {
+		String[][] chunks = new String[this.numberOfChunks][];
+		MappedIndexReader.Cursor cursor = this.mappedReader.at(this.chunkOffsets[0]);
+		for (int i = 0; i < this.numberOfChunks; i++) {
+			int size = i == this.numberOfChunks - 1 ? this.sizeOfLastChunk : CHUNK_SIZE;
+			cursor.readChunk(chunks[i] = new String[size], 0, size);
+		}
+		synchronized (this) {
+			this.cachedChunks = chunks;
+		}
+	} else {
+		cacheStreamDocumentNames();
+	}
+}
+private synchronized void cacheStreamDocumentNames() throws IOException {
 	this.cachedChunks = new String[this.numberOfChunks][];
 	InputStream stream = this.indexLocation.getInputStream();
 	try {
@@ -395,6 +639,7 @@ void initialize(boolean reuseExistingFile) throws IOException {
 			} finally {
 				stream.close();
 			}
+			mapIndexFile();
 			return;
 		}
 		if (!this.indexLocation.delete()) {
@@ -437,9 +682,32 @@ private void initializeFrom(DiskIndex diskIndex, File newIndexFile) throws IOExc
 	int size = diskIndex.categoryOffsets == null ? 8 : diskIndex.categoryOffsets.elementSize;
 	this.categoryOffsets = new HashtableOfIntValues(size);
 	this.categoryEnds = new HashtableOfIntValues(size);
+	this.categoryDirectoryOffsets = new HashtableOfIntValues(size);
 	this.categoryTables = new HashtableOfObject(size);
 	this.separator = diskIndex.separator;
 }
+/*
+ * Answer whether queries can keep reading this index while mergeWith() replaces its file: either the file is not
+ * read, or it is read through its mapping, which stays valid after the file is replaced.
+ */
+boolean isReadableWhileMerging() {
+	return this.mappedReader != null || this.numberOfChunks <= 0;
+}
+/*
+ * Map the saved index file, so that it is read without copies nor locks. The stream reads are used when
+ * the file cannot be mapped.
+ */
+private void mapIndexFile() {
+	File indexFile = this.indexLocation.getIndexFile();
+	if (!MAP_INDEX_FILES || indexFile == null || this.numberOfChunks <= 0)
+		return;
+	try {
+		this.mappedReader = MappedIndexReader.map(indexFile);
+	} catch (IOException e) {
+		if (DEBUG)
+			System.out.println("mapIndexFile - Failed to map " + this.indexLocation); //$NON-NLS-1$
+	}
+}
 private void mergeCategories(DiskIndex onDisk, int[] positions, FileOutputStream stream) throws IOException {
 	// at this point, this.categoryTables contains the names -> wordsToDocs added in copyQueryResults()
 	char[][] oldNames = onDisk.categoryOffsets.keyTable;
@@ -467,7 +735,7 @@ private void mergeCategory(char[] categoryName, DiskIndex onDisk, int[] position
 		nextWord: for (int i = 0, l = oldWords.length; i < l; i++) {
 			char[] oldWord = oldWords[i];
 			if (oldWord != null) {
-				int[] oldDocNumbers = (int[]) oldArrayOffsets[i];
+				int[] oldDocNumbers = onDisk.readDocumentNumbers(oldArrayOffsets[i]);
 				int length = oldDocNumbers.length;
 				int[] mappedNumbers = new int[length];
 				int count = 0;
@@ -497,7 +765,10 @@ private void mergeCategory(char[] categoryName, DiskIndex onDisk, int[] position
 				}
 			}
 		}
-		onDisk.categoryTables.put(categoryName, null); // flush cached table
+		synchronized (onDisk) { // queries may still be reading it, and stopQuery() may have dropped its cached tables
+			if (onDisk.categoryTables != null)
+				onDisk.categoryTables.put(categoryName, null); // flush cached table
+		}
 	}
 	writeCategoryTable(categoryName, wordsToDocs, stream);
 }
@@ -575,11 +846,23 @@ DiskIndex mergeWith(MemoryIndex memoryIndex) throws IOException {
 	}
 
 	newDiskIndex.indexLocation = this.indexLocation;
+	newDiskIndex.mapIndexFile();
 	return newDiskIndex;
 }
-private synchronized String[] readAllDocumentNames() throws IOException {
+private String[] readAllDocumentNames() throws IOException {
 	if (this.numberOfChunks <= 0)
 		return CharOperation.NO_STRINGS;
+	if (this.mappedReader == null)
+		return readStreamAllDocumentNames();
+
+	MappedIndexReader.Cursor cursor = this.mappedReader.at(this.chunkOffsets[0]);
+	int lastIndex = this.numberOfChunks - 1;
+	String[] docNames = new String[lastIndex * CHUNK_SIZE + this.sizeOfLastChunk];
+	for (int i = 0; i < this.numberOfChunks; i++)
+		cursor.readChunk(docNames, i * CHUNK_SIZE, i < lastIndex ? CHUNK_SIZE : this.sizeOfLastChunk);
+	return docNames;
+}
+private synchronized String[] readStreamAllDocumentNames() throws IOException {
 
 	InputStream stream = this.indexLocation.getInputStream();
 	try {
@@ -598,7 +881,40 @@ private synchronized String[] readAllDocumentNames() throws IOException {
 		this.streamBuffer = null;
 	}
 }
-private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+private HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+	// result will be null if categoryName is unknown
+	if (this.mappedReader == null)
+		return readStreamCategoryTable(categoryName, readDocNumbers);
+
+	int offset = this.categoryOffsets.get(categoryName);
+	if (offset == HashtableOfIntValues.NO_VALUE)
+		return null;
+	HashtableOfObject cachedTable;
+	synchronized (this) {
+		if (this.categoryTables == null)
+			this.categoryTables = new HashtableOfObject(3);
+		else if ((cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName)) != null)
+			return cachedTable;
+	}
+
+	// the document numbers of the words are left in the mapped file and read by readDocumentNumbers() when needed,
+	// so readDocNumbers is ignored: the table is never modified once cached, and is read without locking
+	MappedIndexReader.Cursor cursor = this.mappedReader.at(offset);
+	int size = cursor.readInt();
+	HashtableOfObject categoryTable = new HashtableOfObject(size);
+	for (int i = 0; i < size; i++) {
+		char[] word = cursor.readChars();
+		categoryTable.putUnsafely(word, readMappedDocuments(cursor));
+	}
+	synchronized (this) {
+		if (this.categoryTables == null)
+			this.categoryTables = new HashtableOfObject(3);
+		this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
+		this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
+	}
+	return categoryTable;
+}
+private synchronized HashtableOfObject readStreamCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
 	// result will be null if categoryName is unknown
 	int offset = this.categoryOffsets.get(categoryName);
 	if (offset == HashtableOfIntValues.NO_VALUE) {
@@ -614,7 +930,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 				Object[] arrayOffsets = cachedTable.valueTable;
 				for (int i = 0, l = arrayOffsets.length; i < l; i++)
 					if (arrayOffsets[i] instanceof Integer)
-						arrayOffsets[i] = readDocumentNumbers(arrayOffsets[i]);
+						arrayOffsets[i] = readStreamDocumentNumbers(((Integer) arrayOffsets[i]).intValue());
 			}
 			return cachedTable;
 		}
@@ -656,12 +972,12 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 			int arrayOffset = readStreamInt(stream);
 			// if arrayOffset is:
 			//		<= 0 then the array size == 1 with the value -> -arrayOffset
-			//		> 1 & < 256 then the size of the array is > 1 & < 256, the document array follows immediately
+			//		> 1 & < 256 then the size of the array is > 1 & < 256, the encoded document array follows immediately
 			//		256 if the array size >= 256 followed by another int which is the offset to the array (written prior to the table)
 			if (arrayOffset <= 0) {
 				categoryTable.putUnsafely(word, new int[] {-arrayOffset}); // store 1 element array by negating documentNumber
 			} else if (arrayOffset < largeArraySize) {
-				categoryTable.putUnsafely(word, readStreamDocumentArray(stream, arrayOffset)); // read in-lined array providing size
+				categoryTable.putUnsafely(word, readStreamDocumentBytes(stream)); // keep the encoding of the in-lined array
 			} else {
 				arrayOffset = readStreamInt(stream); // read actual offset
 				if (readDocNumbers) {
@@ -692,7 +1008,8 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 			this.bufferIndex = 0;
 			this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
 			for (int i = 0; i < count; i++) { // each array follows the previous one
-				categoryTable.put(matchingWords[i], readStreamDocumentArray(stream, readStreamInt(stream)));
+				readStreamInt(stream); // the size of the array
+				categoryTable.put(matchingWords[i], readStreamDocumentBytes(stream));
 			}
 		} catch (IOException ioe) {
 			this.streamBuffer = null;
@@ -704,6 +1021,262 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 	this.streamBuffer = null;
 	return categoryTable;
 }
+/*
+ * Answer false if no word of the given category is equal to the given word ignoring case, by checking the filter of
+ * its directory instead of reading its table.
+ */
+private boolean mayContain(char[] categoryName, char[] word) throws IOException {
+	if (this.categoryOffsets.get(categoryName) == HashtableOfIntValues.NO_VALUE)
+		return false;
+	synchronized (this) {
+		if (this.categoryTables != null && this.categoryTables.get(categoryName) != null)
+			return true; // looking up the cached table is as fast
+		return readWordDirectory(categoryName).mayContain(word);
+	}
+}
+/*
+ * Answer a table of the words of the given category which may match the given key, with their document numbers or
+ * the offsets of their document numbers in the file. When the matching words start with a known prefix, only the
+ * blocks of the sorted table holding the range of words with that prefix are read, and only the matching words
+ * are decoded. When a pattern has no such prefix, only the words having the trigrams of the pattern are read if
+ * the category has an index of trigrams. Otherwise or when the category table is cached, answer the whole table.
+ */
+private HashtableOfObject readMatchingWords(char[] categoryName, char[] key, int matchRule) throws IOException {
+	char[] prefix = rangePrefix(key, matchRule);
+	if (prefix != null)
+		return readCategoryRange(categoryName, prefix, key, matchRule);
+	if ((matchRule & ~SearchPattern.R_CASE_SENSITIVE) == SearchPattern.R_PATTERN_MATCH) {
+		HashtableOfObject matchingWords = readNgramMatches(categoryName, key, matchRule);
+		if (matchingWords != null)
+			return matchingWords;
+	}
+	return readCategoryTable(categoryName, false);
+}
+/*
+ * Answer the words of the given category which match the given pattern, reading only the words which have all
+ * the trigrams of the parts of the pattern between its wild cards, or null if the category has no index of
+ * trigrams, if it is not read through the mapped file or if the pattern has no trigram.
+ */
+private HashtableOfObject readNgramMatches(char[] categoryName, char[] key, int matchRule) throws IOException {
+	if (this.mappedReader == null || this.categoryOffsets.get(categoryName) == HashtableOfIntValues.NO_VALUE)
+		return null;
+	WordDirectory directory;
+	synchronized (this) {
+		if (this.categoryTables != null && this.categoryTables.get(categoryName) != null)
+			return null; // scanning the cached table is as fast
+		directory = readWordDirectory(categoryName);
+		if (directory.ngramsOffset < 0)
+			return null;
+		if (directory.ngrams == null) {
+			MappedIndexReader.Cursor cursor = this.mappedReader.at(directory.ngramsOffset);
+			int size = cursor.readInt();
+			HashtableOfObject ngrams = new HashtableOfObject(size);
+			for (int i = 0; i < size; i++) {
+				ngrams.putUnsafely(cursor.readChars(), new Integer(cursor.position));
+				cursor.readInt(); // the number of words
+				cursor.skip(cursor.readVarInt());
+			}
+			directory.ngrams = ngrams;
+		}
+	}
+
+	// find the lists of the words having each trigram of the pattern, and intersect them from the shortest one
+	DocumentIterator[] lists = new DocumentIterator[key.length];
+	int count = 0;
+	for (int start = 0, end = 0, length = key.length; start < length; start = ++end) {
+		while (end < length && key[end] != '*' && key[end] != '?')
+			end++;
+		for (int i = start; i + NGRAM_LENGTH <= end; i++) {
+			char[] ngram = new char[NGRAM_LENGTH];
+			for (int j = 0; j < NGRAM_LENGTH; j++)
+				ngram[j] = ScannerHelper.toLowerCase(key[i + j]);
+			Object offset = directory.ngrams.get(ngram);
+			if (offset == null)
+				return new HashtableOfObject(1); // no word has this trigram
+			lists[count++] = new DocumentIterator(this.mappedReader.at(((Integer) offset).intValue()));
+		}
+	}
+	if (count == 0)
+		return null;
+	int shortest = 0;
+	for (int i = 1; i < count; i++)
+		if (lists[i].size() < lists[shortest].size())
+			shortest = i;
+	int[] wordNumbers = new int[lists[shortest].size()];
+	for (int i = 0; lists[shortest].hasNext(); i++)
+		wordNumbers[i] = lists[shortest].next();
+	for (int i = 0; i < count && wordNumbers.length > 0; i++)
+		if (i != shortest)
+			wordNumbers = intersect(wordNumbers, lists[i]);
+
+	// read the candidate words, in the order of the table
+	HashtableOfObject matchingWords = new HashtableOfObject(wordNumbers.length);
+	MappedIndexReader.Cursor cursor = null;
+	int next = 0; // the number of the word at the cursor
+	for (int i = 0, l = wordNumbers.length; i < l; i++) {
+		int wordNumber = wordNumbers[i];
+		if (cursor == null || wordNumber / WORD_BLOCK_SIZE > next / WORD_BLOCK_SIZE) {
+			cursor = this.mappedReader.at(directory.blockOffsets[wordNumber / WORD_BLOCK_SIZE]);
+			next = wordNumber - wordNumber % WORD_BLOCK_SIZE;
+		}
+		for (; next < wordNumber; next++) {
+			cursor.skipChars();
+			readMappedDocuments(cursor);
+		}
+		char[] word = cursor.readChars();
+		Object documentNumbers = readMappedDocuments(cursor);
+		next++;
+		if (Index.isMatch(key, word, matchRule))
+			matchingWords.putUnsafely(word, documentNumbers);
+	}
+	return matchingWords;
+}
+/*
+ * Answer the given increasing numbers which are also answered by the given iterator.
+ */
+private static int[] intersect(int[] numbers, DocumentIterator iterator) {
+	int count = 0;
+	int other = -1;
+	for (int i = 0, l = numbers.length; i < l; i++) {
+		int number = numbers[i];
+		while (other < number && iterator.hasNext())
+			other = iterator.next();
+		if (other == number)
+			numbers[count++] = number;
+		else if (other < number)
+			break; // no more numbers to intersect with
+	}
+	if (count < numbers.length)
+		System.arraycopy(numbers, 0, numbers = new int[count], 0, count);
+	return numbers;
+}
+private HashtableOfObject readCategoryRange(char[] categoryName, char[] prefix, char[] key, int matchRule) throws IOException {
+	if (this.mappedReader == null)
+		return readStreamCategoryRange(categoryName, prefix, key, matchRule);
+
+	if (this.categoryOffsets.get(categoryName) == HashtableOfIntValues.NO_VALUE)
+		return null;
+	WordDirectory directory;
+	synchronized (this) {
+		if (this.categoryTables != null) {
+			HashtableOfObject cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
+			if (cachedTable != null)
+				return cachedTable;
+		}
+		directory = readWordDirectory(categoryName);
+	}
+	if (directory.wordCount == 0)
+		return null;
+	int block = directory.findBlock(prefix);
+	HashtableOfObject matchingWords = new HashtableOfObject(3);
+	MappedIndexReader.Cursor cursor = this.mappedReader.at(directory.blockOffsets[block]);
+	for (int i = block * WORD_BLOCK_SIZE, size = directory.wordCount; i < size; i++) {
+		char[] word = cursor.readChars();
+		int comparison = compareFoldedPrefix(word, prefix);
+		if (comparison > 0)
+			break; // past the range of words starting with the prefix
+		Object documentNumbers = readMappedDocuments(cursor);
+		if (comparison == 0 && Index.isMatch(key, word, matchRule))
+			matchingWords.putUnsafely(word, documentNumbers);
+	}
+	return matchingWords;
+}
+private synchronized HashtableOfObject readStreamCategoryRange(char[] categoryName, char[] prefix, char[] key, int matchRule) throws IOException {
+	if (this.categoryOffsets.get(categoryName) == HashtableOfIntValues.NO_VALUE)
+		return null;
+	if (this.categoryTables != null) {
+		HashtableOfObject cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
+		if (cachedTable != null)
+			return cachedTable;
+	}
+
+	WordDirectory directory = readWordDirectory(categoryName);
+	if (directory.wordCount == 0)
+		return null;
+	int block = directory.findBlock(prefix);
+	HashtableOfObject matchingWords = new HashtableOfObject(3);
+	InputStream stream = this.indexLocation.getInputStream();
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	try {
+		stream.skip(directory.blockOffsets[block]);
+		this.bufferIndex = 0;
+		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+		for (int i = block * WORD_BLOCK_SIZE, size = directory.wordCount; i < size; i++) {
+			char[] word = readStreamChars(stream);
+			int comparison = compareFoldedPrefix(word, prefix);
+			if (comparison > 0)
+				break; // past the range of words starting with the prefix
+			if (comparison == 0 && Index.isMatch(key, word, matchRule))
+				matchingWords.putUnsafely(word, readStreamDocuments(stream));
+			else
+				skipStreamDocuments(stream);
+		}
+	} finally {
+		stream.close();
+		this.streamBuffer = null;
+	}
+	return matchingWords;
+}
+private synchronized WordDirectory readWordDirectory(char[] categoryName) throws IOException {
+	if (this.categoryDirectories == null) {
+		this.categoryDirectories = new HashtableOfObject(3);
+	} else {
+		WordDirectory directory = (WordDirectory) this.categoryDirectories.get(categoryName);
+		if (directory != null)
+			return directory;
+	}
+
+	int offset = this.categoryDirectoryOffsets.get(categoryName);
+	WordDirectory directory;
+	MappedIndexReader reader = this.mappedReader;
+	if (reader != null) {
+		// validate against the mapping, the file can be deleted or replaced while merging
+		long length = reader.length();
+		MappedIndexReader.Cursor cursor = reader.at(offset);
+		int wordCount = cursor.readInt();
+		directory = new WordDirectory(wordCount, checkSize(cursor.readInt(), length));
+		for (int i = 0, l = directory.blockOffsets.length; i < l; i++) {
+			directory.blockOffsets[i] = cursor.readInt();
+			directory.firstWords[i] = cursor.readChars();
+		}
+		directory.filter = new int[checkSize(cursor.readInt(), length)];
+		for (int i = 0, l = directory.filter.length; i < l; i++)
+			directory.filter[i] = cursor.readInt();
+		directory.ngramsOffset = cursor.readInt();
+	} else {
+		long length = this.indexLocation.length();
+		InputStream stream = this.indexLocation.getInputStream();
+		this.streamBuffer = new byte[BUFFER_READ_SIZE];
+		try {
+			stream.skip(offset);
+			this.bufferIndex = 0;
+			this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+			int wordCount = readStreamInt(stream);
+			directory = new WordDirectory(wordCount, checkSize(readStreamInt(stream), length));
+			for (int i = 0, l = directory.blockOffsets.length; i < l; i++) {
+				directory.blockOffsets[i] = readStreamInt(stream);
+				directory.firstWords[i] = readStreamChars(stream);
+			}
+			directory.filter = new int[checkSize(readStreamInt(stream), length)];
+			for (int i = 0, l = directory.filter.length; i < l; i++)
+				directory.filter[i] = readStreamInt(stream);
+			directory.ngramsOffset = readStreamInt(stream);
+		} finally {
+			stream.close();
+			this.streamBuffer = null;
+		}
+	}
+	this.categoryDirectories.put(INTERNED_CATEGORY_NAMES.get(categoryName), directory);
+	return directory;
+}
+private int checkSize(int size, long length) throws IOException {
+	if (size < 0 || (length != -1 && size > length)) {
+		if (DEBUG)
+			System.out.println("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
+		throw new IOException("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
+	}
+	return size;
+}
 private void readChunk(String[] docNames, InputStream stream, int index, int size) throws IOException {
 	String current = new String(readStreamChars(stream));
 	docNames[index++] = current;
@@ -728,7 +1301,30 @@ private void readChunk(String[] docNames, InputStream stream, int index, int siz
 		current = next;
 	}
 }
-synchronized String readDocumentName(int docNumber) throws IOException {
+String readDocumentName(int docNumber) throws IOException {
+	if (this.mappedReader == null)
+		return readStreamDocumentName(docNumber);
+
+	int chunkNumber = docNumber / CHUNK_SIZE;
+	String[] chunk = null;
+	synchronized (this) {
+		if (this.cachedChunks == null)
+			this.cachedChunks = new String[this.numberOfChunks][];
+		else
+			chunk = this.cachedChunks[chunkNumber];
+	}
+	if (chunk == null) {
+		int numberOfNames = chunkNumber == this.numberOfChunks - 1 ? this.sizeOfLastChunk : CHUNK_SIZE;
+		chunk = new String[numberOfNames];
+		this.mappedReader.at(this.chunkOffsets[chunkNumber]).readChunk(chunk, 0, numberOfNames);
+		synchronized (this) {
+			if (this.cachedChunks != null) // may have been cleared by stopQuery()
+				this.cachedChunks[chunkNumber] = chunk;
+		}
+	}
+	return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
+}
+private synchronized String readStreamDocumentName(int docNumber) throws IOException {
 	if (this.cachedChunks == null)
 		this.cachedChunks = new String[this.numberOfChunks][];
 
@@ -766,19 +1362,38 @@ synchronized String readDocumentName(int docNumber) throws IOException {
 	this.streamBuffer = null;
 	return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
 }
-synchronized int[] readDocumentNumbers(Object arrayOffset) throws IOException {
-	// arrayOffset is either a cached array of docNumbers or an Integer offset in the file
+/*
+ * Answer an iterator over the given document numbers of a word, which are either a cached array of document numbers,
+ * their encoding or an Integer offset in the file.
+ */
+DocumentIterator documentNumbers(Object arrayOffset) throws IOException {
+	if (arrayOffset instanceof int[])
+		return new DocumentIterator((int[]) arrayOffset);
+	if (arrayOffset instanceof byte[])
+		return new DocumentIterator((byte[]) arrayOffset);
+	if (this.mappedReader == null)
+		return new DocumentIterator(readStreamDocumentNumbers(((Integer) arrayOffset).intValue()));
+	return new DocumentIterator(this.mappedReader.at(((Integer) arrayOffset).intValue()));
+}
+int[] readDocumentNumbers(Object arrayOffset) throws IOException {
 	if (arrayOffset instanceof int[])
 		return (int[]) arrayOffset;
+	DocumentIterator iterator = documentNumbers(arrayOffset);
+	int[] documentNumbers = new int[iterator.size()];
+	for (int i = 0; iterator.hasNext(); i++)
+		documentNumbers[i] = iterator.next();
+	return documentNumbers;
+}
+private synchronized byte[] readStreamDocumentNumbers(int offset) throws IOException {
 
 	InputStream stream = this.indexLocation.getInputStream();
 	try {
-		int offset = ((Integer) arrayOffset).intValue();
 		stream.skip(offset);
 		this.streamBuffer = new byte[BUFFER_READ_SIZE];
 		this.bufferIndex = 0;
 		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
-		return readStreamDocumentArray(stream, readStreamInt(stream));
+		readStreamInt(stream); // the size of the array
+		return readStreamDocumentBytes(stream);
 	} finally {
 		stream.close();
 		this.streamBuffer = null;
@@ -789,7 +1404,6 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 	// must be same order as writeHeaderInfo()
 	this.numberOfChunks = readStreamInt(stream);
 	this.sizeOfLastChunk = this.streamBuffer[this.bufferIndex++] & 0xFF;
-	this.documentReferenceSize = this.streamBuffer[this.bufferIndex++] & 0xFF;
 	this.separator = (char) (this.streamBuffer[this.bufferIndex++] & 0xFF);
 	long length = this.indexLocation.length();
 	if (length != -1 && this.numberOfChunks > length) {
@@ -807,6 +1421,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 	int size = readStreamInt(stream);
 	this.categoryOffsets = new HashtableOfIntValues(size);
 	this.categoryEnds = new HashtableOfIntValues(size);
+	this.categoryDirectoryOffsets = new HashtableOfIntValues(size);
 	if (length != -1 && size > length) {
 		//  not an accurate check, but good enough  https://bugs.eclipse.org/bugs/show_bug.cgi?id=350612
 		if (DEBUG)
@@ -819,6 +1434,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 		char[] categoryName = INTERNED_CATEGORY_NAMES.get(readStreamChars(stream));
 		offset = readStreamInt(stream);
 		this.categoryOffsets.put(categoryName, offset); // cache offset to category table
+		this.categoryDirectoryOffsets.put(categoryName, readStreamInt(stream)); // cache offset to the directory of its words
 		if (previousCategory != null) {
 			this.categoryEnds.put(previousCategory, offset); // cache end of the category table
 		}
@@ -941,46 +1557,68 @@ private char[] readStreamChars(InputStream stream) throws IOException {
 	}
 	return word;
 }
-private int[] readStreamDocumentArray(InputStream stream, int arraySize) throws IOException {
-	int[] indexes = new int[arraySize];
-	if (arraySize == 0) return indexes;
-
+private byte[] readStreamDocumentBytes(InputStream stream) throws IOException {
+	// see writeDocumentNumbers() for the encoding of the array, which is kept as is until iterated
+	byte[] bytes = new byte[readStreamVarInt(stream)];
+	int length = bytes.length;
 	int i = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while (i < arraySize) {
-				// how many bytes without refilling the buffer?
-				int bytesInBuffer = i + this.bufferEnd - this.bufferIndex;
-				if (bytesInBuffer > arraySize)
-					bytesInBuffer = arraySize;
-				while (i < bytesInBuffer) {
-					indexes[i++] = this.streamBuffer[this.bufferIndex++] & 0xFF;
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		case 2 :
-			while (i < arraySize) {
-				// how many shorts without refilling the buffer?
-				int shortsInBuffer = i + ((this.bufferEnd - this.bufferIndex) / 2);
-				if (shortsInBuffer > arraySize)
-					shortsInBuffer = arraySize;
-				while (i < shortsInBuffer) {
-					int val = (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
-					indexes[i++] = val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		default :
-			while (i < arraySize) {
-				indexes[i++] = readStreamInt(stream);
-			}
-			break;
+	while (i < length) {
+		// how many bytes without refilling the buffer?
+		int bytesInBuffer = this.bufferEnd - this.bufferIndex;
+		if (bytesInBuffer > length - i)
+			bytesInBuffer = length - i;
+		System.arraycopy(this.streamBuffer, this.bufferIndex, bytes, i, bytesInBuffer);
+		this.bufferIndex += bytesInBuffer;
+		i += bytesInBuffer;
+		if (i < length) {
+			readStreamBuffer(stream);
+			if (this.bufferIndex >= this.bufferEnd)
+				throw new EOFException();
+		}
+	}
+	return bytes;
+}
+private Object readMappedDocuments(MappedIndexReader.Cursor cursor) {
+	// see readStreamCategoryTable() for the encoding of the document numbers of a word
+	// an array of more than one element is left in the file, where its size is followed by its elements
+	int arrayOffset = cursor.readInt();
+	if (arrayOffset <= 0)
+		return new int[] {-arrayOffset};
+	if (arrayOffset < LARGE_ARRAY_SIZE) {
+		Integer offset = new Integer(cursor.position - 4);
+		cursor.skip(cursor.readVarInt());
+		return offset;
+	}
+	return new Integer(cursor.readInt()); // offset to the array in the file
+}
+private Object readStreamDocuments(InputStream stream) throws IOException {
+	// see readStreamCategoryTable() for the encoding of the document numbers of a word
+	int arrayOffset = readStreamInt(stream);
+	if (arrayOffset <= 0)
+		return new int[] {-arrayOffset};
+	if (arrayOffset < LARGE_ARRAY_SIZE)
+		return readStreamDocumentBytes(stream);
+	return new Integer(readStreamInt(stream)); // offset to the array in the file
+}
+private void skipStreamDocuments(InputStream stream) throws IOException {
+	int arrayOffset = readStreamInt(stream);
+	if (arrayOffset <= 0)
+		return;
+	skipStreamBytes(stream, arrayOffset < LARGE_ARRAY_SIZE ? readStreamVarInt(stream) : 4);
+}
+private void skipStreamBytes(InputStream stream, int length) throws IOException {
+	while (true) {
+		int bytesInBuffer = this.bufferEnd - this.bufferIndex;
+		if (length <= bytesInBuffer) {
+			this.bufferIndex += length;
+			return;
+		}
+		length -= bytesInBuffer;
+		this.bufferIndex = this.bufferEnd;
+		readStreamBuffer(stream);
+		if (this.bufferIndex >= this.bufferEnd)
+			throw new EOFException();
 	}
-	return indexes;
 }
 private int readStreamInt(InputStream stream) throws IOException {
 	if (this.bufferIndex + 4 >= this.bufferEnd) {
@@ -991,6 +1629,19 @@ private int readStreamInt(InputStream stream) throws IOException {
 	val += (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
 	return val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
 }
+private int readStreamVarInt(InputStream stream) throws IOException {
+	// see writeStreamVarInt() for the encoding
+	if (this.bufferIndex + 5 >= this.bufferEnd) {
+		readStreamBuffer(stream);
+	}
+	int val = 0;
+	for (int shift = 0;; shift += 7) {
+		byte b = this.streamBuffer[this.bufferIndex++];
+		val |= (b & 0x7F) << shift;
+		if (b >= 0)
+			return val;
+	}
+}
 private void writeAllDocumentNames(String[] sortedDocNames, FileOutputStream stream) throws IOException {
 	if (sortedDocNames.length == 0)
 		throw new IllegalArgumentException();
@@ -1012,7 +1663,6 @@ private void writeAllDocumentNames(String[] sortedDocNames, FileOutputStream str
 		this.numberOfChunks--;
 		this.sizeOfLastChunk = CHUNK_SIZE;
 	}
-	this.documentReferenceSize = size <= 0x7F ? 1 : (size <= 0x7FFF ? 2 : 4); // number of bytes used to encode a reference
 
 	this.chunkOffsets = new int[this.numberOfChunks];
 	int lastIndex = this.numberOfChunks - 1;
@@ -1069,103 +1719,144 @@ private void writeCategoryTable(char[] categoryName, HashtableOfObject wordsToDo
 	// the format of a category table is as follows:
 	// any document number arrays with >= 256 elements are written before the table (the offset to each array is remembered)
 	// then the number of word->int[] pairs in the table is written
-	// for each word -> int[] pair, the word is written followed by:
+	// for each word -> int[] pair, in the order of compareWords(), the word is written followed by:
 	//		an int <= 0 if the array size == 1
-	//		an int > 1 & < 256 for the size of the array if its > 1 & < 256, the document array follows immediately
+	//		an int > 1 & < 256 for the size of the array if its > 1 & < 256, the encoded document array follows immediately
 	//		256 if the array size >= 256 followed by another int which is the offset to the array (written prior to the table)
+	// then the directory of the table: the number of words, the number of blocks of WORD_BLOCK_SIZE words,
+	// for each block, its offset followed by its first word, then the number of ints of the Bloom filter of the
+	// words followed by these ints, and the offset of the index of trigrams written by writeNgrams() or -1
 
-	int largeArraySize = 256;
+	int largeArraySize = LARGE_ARRAY_SIZE;
+	int size = wordsToDocs.elementSize;
+	char[][] sortedWords = new char[size][];
+	char[][] words = wordsToDocs.keyTable;
 	Object[] values = wordsToDocs.valueTable;
-	for (int i = 0, l = values.length; i < l; i++) {
+	for (int i = 0, l = values.length, count = 0; i < l; i++) {
 		Object o = values[i];
 		if (o != null) {
 			if (o instanceof IntList)
-				o = values[i] = ((IntList) values[i]).asArray();
-			int[] documentNumbers = (int[]) o;
-			if (documentNumbers.length >= largeArraySize) {
-				values[i] = new Integer(this.streamEnd);
-				writeDocumentNumbers(documentNumbers, stream);
-			}
+				values[i] = ((IntList) values[i]).asArray();
+			sortedWords[count++] = words[i];
+		}
+	}
+	Util.sort(sortedWords, WORD_ORDER);
+	// the large arrays are written in the order of the table, since readCategoryTable() reads them in one pass
+	for (int i = 0; i < size; i++) {
+		int[] documentNumbers = (int[]) wordsToDocs.get(sortedWords[i]);
+		if (documentNumbers.length >= largeArraySize) {
+			wordsToDocs.put(sortedWords[i], new Integer(this.streamEnd));
+			writeDocumentNumbers(documentNumbers, stream);
 		}
 	}
 
 	this.categoryOffsets.put(categoryName, this.streamEnd); // remember the offset to the start of the table
 	this.categoryTables.put(categoryName, null); // flush cached table
-	writeStreamInt(stream, wordsToDocs.elementSize);
-	char[][] words = wordsToDocs.keyTable;
-	for (int i = 0, l = words.length; i < l; i++) {
-		Object o = values[i];
-		if (o != null) {
-			writeStreamChars(stream, words[i]);
-			if (o instanceof int[]) {
-				int[] documentNumbers = (int[]) o;
-				if (documentNumbers.length == 1)
-					writeStreamInt(stream, -documentNumbers[0]); // store an array of 1 element by negating the documentNumber (can be zero)
-				else
-					writeDocumentNumbers(documentNumbers, stream);
-			} else {
-				writeStreamInt(stream, largeArraySize); // mark to identify that an offset follows
-				writeStreamInt(stream, ((Integer) o).intValue()); // offset in the file of the array of document numbers
-			}
+	int numberOfBlocks = (size + WORD_BLOCK_SIZE - 1) / WORD_BLOCK_SIZE;
+	int[] blockOffsets = new int[numberOfBlocks];
+	writeStreamInt(stream, size);
+	for (int i = 0; i < size; i++) {
+		if (i % WORD_BLOCK_SIZE == 0)
+			blockOffsets[i / WORD_BLOCK_SIZE] = this.streamEnd;
+		char[] word = sortedWords[i];
+		Object o = wordsToDocs.get(word);
+		writeStreamChars(stream, word);
+		if (o instanceof int[]) {
+			int[] documentNumbers = (int[]) o;
+			if (documentNumbers.length == 1)
+				writeStreamInt(stream, -documentNumbers[0]); // store an array of 1 element by negating the documentNumber (can be zero)
+			else
+				writeDocumentNumbers(documentNumbers, stream);
+		} else {
+			writeStreamInt(stream, largeArraySize); // mark to identify that an offset follows
+			writeStreamInt(stream, ((Integer) o).intValue()); // offset in the file of the array of document numbers
 		}
 	}
+
+	int ngramsOffset = -1;
+	if (INDEX_NGRAMS && hasNgrams(categoryName)) {
+		ngramsOffset = this.streamEnd;
+		writeNgrams(sortedWords, stream);
+	}
+
+	// the directory of the blocks of words follows the table
+	this.categoryDirectoryOffsets.put(categoryName, this.streamEnd);
+	writeStreamInt(stream, size);
+	writeStreamInt(stream, numberOfBlocks);
+	for (int i = 0; i < numberOfBlocks; i++) {
+		writeStreamInt(stream, blockOffsets[i]);
+		writeStreamChars(stream, sortedWords[i * WORD_BLOCK_SIZE]);
+	}
+	int[] filter = new int[(size * FILTER_BITS_PER_WORD + 31) / 32 + 1];
+	for (int i = 0; i < size; i++)
+		filterAdd(filter, sortedWords[i]);
+	writeStreamInt(stream, filter.length);
+	for (int i = 0, l = filter.length; i < l; i++)
+		writeStreamInt(stream, filter[i]);
+	writeStreamInt(stream, ngramsOffset);
 }
 private void writeDocumentNumbers(int[] documentNumbers, FileOutputStream stream) throws IOException {
 	// must store length as a positive int to detect in-lined array of 1 element
+	// the sorted document numbers follow as the number of bytes of their encoding, then the first number and
+	// the difference between each number and the previous one, with writeStreamVarInt()
 	int length = documentNumbers.length;
 	writeStreamInt(stream, length);
 	Util.sort(documentNumbers);
-	int start = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while ((this.bufferIndex + length - start) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int bytesLeft = BUFFER_WRITE_SIZE - this.bufferIndex;
-				for (int i=0; i < bytesLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length;
-			break;
-		case 2 :
-			while ((this.bufferIndex + ((length - start) * 2)) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int shortsLeft = (BUFFER_WRITE_SIZE - this.bufferIndex) / 2;
-				for (int i=0; i < shortsLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length * 2;
-			break;
-		default :
-			while (start < length) {
-				writeStreamInt(stream, documentNumbers[start++]);
-			}
-			break;
+	int byteCount = 0;
+	for (int i = 0, previous = 0; i < length; i++) {
+		int delta = documentNumbers[i] - previous;
+		byteCount += delta < 0x80 ? 1 : delta < 0x4000 ? 2 : delta < 0x200000 ? 3 : delta < 0x10000000 ? 4 : 5;
+		previous = documentNumbers[i];
+	}
+	writeStreamVarInt(stream, byteCount);
+	for (int i = 0, previous = 0; i < length; i++) {
+		writeStreamVarInt(stream, documentNumbers[i] - previous);
+		previous = documentNumbers[i];
+	}
+}
+private static boolean hasNgrams(char[] categoryName) {
+	for (int i = 0, l = NGRAM_CATEGORIES.length; i < l; i++)
+		if (CharOperation.equals(NGRAM_CATEGORIES[i], categoryName))
+			return true;
+	return false;
+}
+private void writeNgrams(char[][] sortedWords, FileOutputStream stream) throws IOException {
+	// the index of the trigrams of the words of a category table is the number of distinct trigrams, then for each
+	// trigram, its characters in lower case followed by the numbers of the words having it in the order of the table,
+	// encoded like document numbers by writeDocumentNumbers()
+	HashtableOfObject ngrams = new HashtableOfObject(sortedWords.length);
+	for (int i = 0, l = sortedWords.length; i < l; i++) {
+		char[] word = sortedWords[i];
+		for (int j = 0, max = word.length - NGRAM_LENGTH; j <= max; j++) {
+			char[] ngram = new char[NGRAM_LENGTH];
+			for (int k = 0; k < NGRAM_LENGTH; k++)
+				ngram[k] = ScannerHelper.toLowerCase(word[j + k]);
+			IntList wordNumbers = (IntList) ngrams.get(ngram);
+			if (wordNumbers == null)
+				ngrams.putUnsafely(ngram, new IntList(new int[] {i}));
+			else if (wordNumbers.elements[wordNumbers.size - 1] != i) // the word may have the trigram several times
+				wordNumbers.add(i);
+		}
+	}
+	writeStreamInt(stream, ngrams.elementSize);
+	char[][] keys = ngrams.keyTable;
+	Object[] values = ngrams.valueTable;
+	for (int i = 0, l = keys.length; i < l; i++) {
+		if (keys[i] != null) {
+			writeStreamChars(stream, keys[i]);
+			writeDocumentNumbers(((IntList) values[i]).asArray(), stream);
+		}
 	}
 }
 private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 	writeStreamInt(stream, this.numberOfChunks);
-	if ((this.bufferIndex + 3) >= BUFFER_WRITE_SIZE)  {
+	if ((this.bufferIndex + 2) >= BUFFER_WRITE_SIZE)  {
 		stream.write(this.streamBuffer, 0, this.bufferIndex);
 		this.bufferIndex = 0;
 	}
 	this.streamBuffer[this.bufferIndex++] = (byte) this.sizeOfLastChunk;
-	this.streamBuffer[this.bufferIndex++] = (byte) this.documentReferenceSize;
 	this.streamBuffer[this.bufferIndex++] = (byte) this.separator;
-	this.streamEnd += 3;
+	this.streamEnd += 2;
 
 	// apend the file with chunk offsets
 	for (int i = 0; i < this.numberOfChunks; i++) {
@@ -1174,7 +1865,8 @@ private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 
 	writeStreamInt(stream, this.startOfCategoryTables);
 
-	// append the file with the category offsets... # of name -> offset pairs, followed by each name & an offset to its word->doc# table
+	// append the file with the category offsets... # of name -> offset pairs, followed by each name, an offset to its word->doc# table
+	// & an offset to the directory of its words
 	writeStreamInt(stream, this.categoryOffsets.elementSize);
 	char[][] categoryNames = this.categoryOffsets.keyTable;
 	int[] offsets = this.categoryOffsets.valueTable;
@@ -1182,6 +1874,7 @@ private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 		if (categoryNames[i] != null) {
 			writeStreamChars(stream, categoryNames[i]);
 			writeStreamInt(stream, offsets[i]);
+			writeStreamInt(stream, this.categoryDirectoryOffsets.get(categoryNames[i]));
 		}
 	}
 	// ensure buffer is written to the stream
@@ -1302,4 +1995,21 @@ private void writeStreamInt(FileOutputStream stream, int val) throws IOException
 	this.streamBuffer[this.bufferIndex++] = (byte) val;
 	this.streamEnd += 4;
 }
+/*
+ * Write the given positive int in 1 to 5 bytes, 7 bits at a time from the lowest ones, with the highest bit
+ * of each byte set when more bytes follow.
+ */
+private void writeStreamVarInt(FileOutputStream stream, int val) throws IOException {
+	if ((this.bufferIndex + 5) >= BUFFER_WRITE_SIZE)  {
+		stream.write(this.streamBuffer, 0, this.bufferIndex);
+		this.bufferIndex = 0;
+	}
+	int oldIndex = this.bufferIndex;
+	while ((val & ~0x7F) != 0) {
+		this.streamBuffer[this.bufferIndex++] = (byte) ((val & 0x7F) | 0x80);
+		val >>>= 7;
+	}
+	this.streamBuffer[this.bufferIndex++] = (byte) val;
+	this.streamEnd += this.bufferIndex - oldIndex;
+}
 }
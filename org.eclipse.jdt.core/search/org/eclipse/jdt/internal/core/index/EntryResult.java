@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,12 +18,17 @@ public class EntryResult {
 private char[] word;
 private Object[] documentTables;
 private SimpleSet documentNames;
+private DiskIndex diskIndex; // the disk index the document tables were read from, which a save may have replaced since
 
 public EntryResult(char[] word, Object table) {
 	this.word = word;
 	if (table != null)
 		this.documentTables = new Object[] {table};
 }
+EntryResult(char[] word, Object table, DiskIndex diskIndex) {
+	this(word, table);
+	this.diskIndex = diskIndex;
+}
 public void addDocumentName(String documentName) {
 	if (this.documentNames == null)
 		this.documentNames = new SimpleSet(3);
@@ -43,21 +48,21 @@ public char[] getWord() {
 }
 public String[] getDocumentNames(Index index) throws java.io.IOException {
 	if (this.documentTables != null) {
+		DiskIndex tablesIndex = this.diskIndex == null ? index.diskIndex : this.diskIndex;
 		int length = this.documentTables.length;
 		if (length == 1 && this.documentNames == null) { // have a single table
 			Object offset = this.documentTables[0];
-			int[] numbers = index.diskIndex.readDocumentNumbers(offset);
-			String[] names = new String[numbers.length];
-			for (int i = 0, l = numbers.length; i < l; i++)
-				names[i] = index.diskIndex.readDocumentName(numbers[i]);
+			DiskIndex.DocumentIterator numbers = tablesIndex.documentNumbers(offset);
+			String[] names = new String[numbers.size()];
+			for (int i = 0; numbers.hasNext(); i++)
+				names[i] = tablesIndex.readDocumentName(numbers.next());
 			return names;
 		}
 
 		for (int i = 0; i < length; i++) {
 			Object offset = this.documentTables[i];
-			int[] numbers = index.diskIndex.readDocumentNumbers(offset);
-			for (int j = 0, k = numbers.length; j < k; j++)
-				addDocumentName(index.diskIndex.readDocumentName(numbers[j]));
+			for (DiskIndex.DocumentIterator numbers = tablesIndex.documentNumbers(offset); numbers.hasNext();)
+				addDocumentName(tablesIndex.readDocumentName(numbers.next()));
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,7 +23,12 @@ import org.eclipse.jdt.internal.core.search.indexing.ReadWriteMonitor;
  * <p>
  * Queries can search a single category or several at the same time.
  * </p>
- * Indexes are not synchronized structures and should only be queried/updated one at a time.
+ * <p>
+ * Indexes are queried under the read lock of their monitor, and updated or saved under its write lock.
+ * Each query reads a snapshot made of the disk index and of the memory index of changes, so that when the disk
+ * index can be read while its file is replaced, {@link #save()} lets queries read the previous snapshot while
+ * it merges the changes into a new disk index, then swaps the new one in.
+ * </p>
  */
 public class Index {
 
@@ -134,13 +139,19 @@ public EntryResult[] query(char[][] categories, char[] key, int matchRule) throw
 		}
 	}
 
+	DiskIndex snapshotDiskIndex;
+	MemoryIndex snapshotMemoryIndex;
+	synchronized (this) {
+		snapshotDiskIndex = this.diskIndex;
+		snapshotMemoryIndex = this.memoryIndex;
+	}
 	HashtableOfObject results;
 	int rule = matchRule & MATCH_RULE_INDEX_MASK;
-	if (this.memoryIndex.hasChanged()) {
-		results = this.diskIndex.addQueryResults(categories, key, rule, this.memoryIndex);
-		results = this.memoryIndex.addQueryResults(categories, key, rule, results);
+	if (snapshotMemoryIndex.hasChanged()) {
+		results = snapshotDiskIndex.addQueryResults(categories, key, rule, snapshotMemoryIndex);
+		results = snapshotMemoryIndex.addQueryResults(categories, key, rule, results);
 	} else {
-		results = this.diskIndex.addQueryResults(categories, key, rule, null);
+		results = snapshotDiskIndex.addQueryResults(categories, key, rule, null);
 	}
 	if (results == null) return null;
 
@@ -158,12 +169,18 @@ public EntryResult[] query(char[][] categories, char[] key, int matchRule) throw
  * Returns the document names that contain the given substring, if null then returns all of them.
  */
 public String[] queryDocumentNames(String substring) throws IOException {
+	DiskIndex snapshotDiskIndex;
+	MemoryIndex snapshotMemoryIndex;
+	synchronized (this) {
+		snapshotDiskIndex = this.diskIndex;
+		snapshotMemoryIndex = this.memoryIndex;
+	}
 	SimpleSet results;
-	if (this.memoryIndex.hasChanged()) {
-		results = this.diskIndex.addDocumentNames(substring, this.memoryIndex);
-		this.memoryIndex.addDocumentNames(substring, results);
+	if (snapshotMemoryIndex.hasChanged()) {
+		results = snapshotDiskIndex.addDocumentNames(substring, snapshotMemoryIndex);
+		snapshotMemoryIndex.addDocumentNames(substring, results);
 	} else {
-		results = this.diskIndex.addDocumentNames(substring, null);
+		results = snapshotDiskIndex.addDocumentNames(substring, null);
 	}
 	if (results.elementSize == 0) return null;
 
@@ -184,9 +201,12 @@ public void remove(String containerRelativePath) {
  * @throws IOException
  */
 public void reset() throws IOException {
-	this.memoryIndex = new MemoryIndex();
-	this.diskIndex = new DiskIndex(this.diskIndex.indexLocation);
-	this.diskIndex.initialize(false/*do not reuse the index file*/);
+	DiskIndex newDiskIndex = new DiskIndex(this.diskIndex.indexLocation);
+	newDiskIndex.initialize(false/*do not reuse the index file*/);
+	synchronized (this) {
+		this.memoryIndex = new MemoryIndex();
+		this.diskIndex = newDiskIndex;
+	}
 }
 public void save() throws IOException {
 	// must own the write lock of the monitor
@@ -194,18 +214,36 @@ public void save() throws IOException {
 
 	int numberOfChanges = this.memoryIndex.docsToReferences.elementSize;
 	this.diskIndex.separator = this.separator;
-	this.diskIndex = this.diskIndex.mergeWith(this.memoryIndex);
-	this.memoryIndex = new MemoryIndex();
+	// while merging, the changes cannot be modified as long as the writers are kept out
+	// so queries can be let in if they can keep reading the current disk index
+	boolean readWhileMerging = this.monitor != null && this.diskIndex.isReadableWhileMerging()
+		&& this.monitor.exitWriteEnterReadIfWriting(); // the index may be saved without monitor by its only user
+	try {
+		DiskIndex newDiskIndex = this.diskIndex.mergeWith(this.memoryIndex);
+		synchronized (this) {
+			this.diskIndex = newDiskIndex;
+			this.memoryIndex = new MemoryIndex();
+		}
+	} finally {
+		if (readWhileMerging)
+			this.monitor.exitReadEnterWriteWhenAlone();
+	}
 	if (numberOfChanges > 1000)
 		System.gc(); // reclaim space if the MemoryIndex was very BIG
 }
-public void startQuery() {
-	if (this.diskIndex != null)
-		this.diskIndex.startQuery();
-}
-public void stopQuery() {
-	if (this.diskIndex != null)
-		this.diskIndex.stopQuery();
+/**
+ * Starts a query, and answers the disk index which caches its reads until {@link #stopQuery(DiskIndex)}
+ * releases it. Since {@link #save()} can replace the disk index in the meantime, the same instance is released.
+ */
+public synchronized DiskIndex startQuery() {
+	DiskIndex queriedDiskIndex = this.diskIndex;
+	if (queriedDiskIndex != null)
+		queriedDiskIndex.startQuery();
+	return queriedDiskIndex;
+}
+public void stopQuery(DiskIndex queriedDiskIndex) {
+	if (queriedDiskIndex != null)
+		queriedDiskIndex.stopQuery();
 }
 public String toString() {
 	return "Index for " + this.containerPath; //$NON-NLS-1$
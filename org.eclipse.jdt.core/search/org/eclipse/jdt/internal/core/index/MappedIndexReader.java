@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a saved index file through a read only mapping of the whole file, as an alternative to the
+ * stream reads of {@link DiskIndex}.
+ * <p>
+ * The mapping is shared by all the readers of the index: it is only accessed with absolute reads, and each read
+ * goes through its own {@link Cursor}, so that concurrent readers do not need to synchronize. The encoding is the
+ * one written by <code>DiskIndex</code>.
+ * </p>
+ */
+class MappedIndexReader {
+
+private ByteBuffer buffer; // never read relatively, its position is not used
+
+/*
+ * The position of a read in the mapped index file.
+ */
+class Cursor {
+
+int position;
+
+Cursor(int position) {
+	this.position = position;
+}
+void readChunk(String[] docNames, int index, int size) throws IOException {
+	// see DiskIndex.writeAllDocumentNames() for the encoding of a chunk of document names
+	String current = new String(readChars());
+	docNames[index++] = current;
+	for (int i = 1; i < size; i++) {
+		int start = MappedIndexReader.this.buffer.get(this.position++) & 0xFF;
+		int end = MappedIndexReader.this.buffer.get(this.position++) & 0xFF;
+		String next = new String(readChars());
+		if (start > 0) {
+			if (end > 0) {
+				int length = current.length();
+				next = current.substring(0, start) + next + current.substring(length - end, length);
+			} else {
+				next = current.substring(0, start) + next;
+			}
+		} else if (end > 0) {
+			int length = current.length();
+			next = next + current.substring(length - end, length);
+		}
+		docNames[index++] = next;
+		current = next;
+	}
+}
+char[] readChars() throws IOException {
+	// see DiskIndex.readStreamChars() for the modified UTF-8 encoding
+	ByteBuffer bytes = MappedIndexReader.this.buffer;
+	int length = (bytes.get(this.position++) & 0xFF) << 8;
+	length += bytes.get(this.position++) & 0xFF;
+	char[] word = new char[length];
+	for (int i = 0; i < length; i++) {
+		byte b = bytes.get(this.position++);
+		switch (b & 0xF0) {
+			case 0x00 :
+			case 0x10 :
+			case 0x20 :
+			case 0x30 :
+			case 0x40 :
+			case 0x50 :
+			case 0x60 :
+			case 0x70 :
+				word[i] = (char) b;
+				break;
+			case 0xC0 :
+			case 0xD0 :
+				char next = (char) bytes.get(this.position++);
+				if ((next & 0xC0) != 0x80)
+					throw new UTFDataFormatException();
+				word[i] = (char) (((b & 0x1F) << 6) | (next & 0x3F));
+				break;
+			case 0xE0 :
+				char first = (char) bytes.get(this.position++);
+				char second = (char) bytes.get(this.position++);
+				if ((first & second & 0xC0) != 0x80)
+					throw new UTFDataFormatException();
+				word[i] = (char) (((b & 0x0F) << 12) | ((first & 0x3F) << 6) | (second & 0x3F));
+				break;
+			default :
+				throw new UTFDataFormatException();
+		}
+	}
+	return word;
+}
+void skipChars() {
+	// see readChars(), the encoded length is the number of characters
+	ByteBuffer bytes = MappedIndexReader.this.buffer;
+	int length = (bytes.get(this.position++) & 0xFF) << 8;
+	length += bytes.get(this.position++) & 0xFF;
+	for (int i = 0; i < length; i++) {
+		switch (bytes.get(this.position) & 0xF0) {
+			case 0xC0 :
+			case 0xD0 :
+				this.position += 2;
+				break;
+			case 0xE0 :
+				this.position += 3;
+				break;
+			default :
+				this.position++;
+		}
+	}
+}
+int readInt() {
+	int value = MappedIndexReader.this.buffer.getInt(this.position);
+	this.position += 4;
+	return value;
+}
+int readVarInt() {
+	// see DiskIndex.writeStreamVarInt() for the encoding
+	ByteBuffer bytes = MappedIndexReader.this.buffer;
+	int value = 0;
+	for (int shift = 0;; shift += 7) {
+		byte b = bytes.get(this.position++);
+		value |= (b & 0x7F) << shift;
+		if (b >= 0)
+			return value;
+	}
+}
+void skip(int length) {
+	this.position += length;
+}
+}
+
+private MappedIndexReader(ByteBuffer buffer) {
+	this.buffer = buffer;
+}
+/*
+ * Answer a reader of the given index file, or null if it is too large to be mapped.
+ * The mapping is kept until the reader is garbage collected, after the file itself is closed.
+ */
+static MappedIndexReader map(File indexFile) throws IOException {
+	FileInputStream stream = new FileInputStream(indexFile);
+	try {
+		FileChannel channel = stream.getChannel();
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE)
+			return null;
+		return new MappedIndexReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+	} finally {
+		stream.close();
+	}
+}
+Cursor at(int position) {
+	return new Cursor(position);
+}
+/*
+ * Answer the length of the mapped index file, which does not change when the file is deleted or replaced.
+ */
+long length() {
+	return this.buffer.capacity();
+}
+}
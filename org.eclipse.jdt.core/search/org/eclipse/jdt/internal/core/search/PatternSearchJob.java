@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.search.*;
+import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.index.FileIndexLocation;
 import org.eclipse.jdt.internal.core.index.Index;
@@ -35,6 +36,112 @@ protected IndexQueryRequestor requestor;
 protected boolean areIndexesReady;
 protected long executionTime = 0;
 
+/*
+ * The number of threads querying the indexes of a search job, including the thread running the job.
+ */
+public static int QUERY_THREADS = Integer.getInteger("jdt.search.queryThreads", Math.min(4, Runtime.getRuntime().availableProcessors())).intValue(); //$NON-NLS-1$
+
+/*
+ * Queries the indexes of the job with helper threads. Each thread takes the next index to query, and the
+ * matches are passed to the requestor of the job one at a time, as soon as they are found. Only the thread
+ * running the job reports progress; the first failure or cancellation stops all the threads, and is
+ * rethrown by the thread running the job.
+ */
+class ConcurrentSearch implements Runnable {
+	Index[] indexes;
+	IProgressMonitor progressMonitor;
+	IndexQueryRequestor serializedRequestor;
+	int nextIndex = 0;
+	int searchedIndexes = 0;
+	int reportedIndexes = 0;
+	int runningThreads = 0;
+	Thread jobThread;
+	boolean isComplete = COMPLETE;
+	volatile Throwable failure; // also read by the serialized requestor
+
+	ConcurrentSearch(Index[] indexes, IProgressMonitor progressMonitor) {
+		this.indexes = indexes;
+		this.progressMonitor = progressMonitor;
+		this.serializedRequestor = new IndexQueryRequestor() {
+			public synchronized boolean acceptIndexMatch(String documentPath, SearchPattern indexRecord, SearchParticipant searchParticipant, AccessRuleSet access) {
+				if (ConcurrentSearch.this.failure != null)
+					return false; // another thread failed or was cancelled
+				return PatternSearchJob.this.requestor.acceptIndexMatch(documentPath, indexRecord, searchParticipant, access);
+			}
+		};
+	}
+	boolean execute(int threadCount) {
+		synchronized (this) {
+			this.runningThreads = threadCount;
+			this.jobThread = Thread.currentThread();
+		}
+		for (int i = 1; i < threadCount; i++) {
+			Thread thread = new Thread(this, "Java indexing: query"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.start();
+		}
+		run(); // this thread queries indexes too
+		synchronized (this) {
+			while (true) {
+				reportProgress();
+				if (this.runningThreads == 0) break;
+				try {
+					wait(250);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}
+			if (this.failure instanceof RuntimeException)
+				throw (RuntimeException) this.failure;
+			if (this.failure instanceof Error)
+				throw (Error) this.failure;
+			return this.isComplete;
+		}
+	}
+	public void run() {
+		try {
+			while (true) {
+				int index;
+				synchronized (this) {
+					if (this.failure != null || this.nextIndex == this.indexes.length) return;
+					index = this.nextIndex++;
+				}
+				boolean complete = search(this.indexes[index], this.serializedRequestor, this.progressMonitor);
+				synchronized (this) {
+					this.isComplete &= complete;
+					this.searchedIndexes++;
+					if (Thread.currentThread() == this.jobThread)
+						reportProgress();
+				}
+			}
+		} catch (RuntimeException e) {
+			failed(e);
+		} catch (Error e) {
+			failed(e);
+		} finally {
+			synchronized (this) {
+				this.runningThreads--;
+				notifyAll();
+			}
+		}
+	}
+	/*
+	 * Report the indexes searched since the last report and check for cancellation.
+	 * Only called by the thread running the job.
+	 */
+	private synchronized void reportProgress() {
+		if (this.progressMonitor == null) return;
+		if (this.failure == null && this.progressMonitor.isCanceled())
+			this.failure = new OperationCanceledException();
+		this.progressMonitor.worked(this.searchedIndexes - this.reportedIndexes);
+		this.reportedIndexes = this.searchedIndexes;
+	}
+	private synchronized void failed(Throwable e) {
+		if (this.failure == null)
+			this.failure = e;
+	}
+}
+
 public PatternSearchJob(SearchPattern pattern, SearchParticipant participant, IJavaSearchScope scope, IndexQueryRequestor requestor) {
 	this.pattern = pattern;
 	this.participant = participant;
@@ -61,11 +168,16 @@ public boolean execute(IProgressMonitor progressMonitor) {
 		int max = indexes.length;
 		if (progressMonitor != null)
 			progressMonitor.beginTask("", max); //$NON-NLS-1$
-		for (int i = 0; i < max; i++) {
-			isComplete &= search(indexes[i], progressMonitor);
-			if (progressMonitor != null) {
-				if (progressMonitor.isCanceled()) throw new OperationCanceledException();
-				progressMonitor.worked(1);
+		int threadCount = Math.min(QUERY_THREADS, max);
+		if (threadCount > 1 && canSearchConcurrently()) {
+			isComplete = new ConcurrentSearch(indexes, progressMonitor).execute(threadCount);
+		} else {
+			for (int i = 0; i < max; i++) {
+				isComplete &= search(indexes[i], progressMonitor);
+				if (progressMonitor != null) {
+					if (progressMonitor.isCanceled()) throw new OperationCanceledException();
+					progressMonitor.worked(1);
+				}
 			}
 		}
 		if (JobManager.VERBOSE)
@@ -76,6 +188,16 @@ public boolean execute(IProgressMonitor progressMonitor) {
 			progressMonitor.done();
 	}
 }
+/*
+ * Answer whether the indexes of this job can be queried by several threads at the same time:
+ * the pattern must not keep the state of its current query, and the scope must be safe to read
+ * concurrently, which is not the case of a hierarchy scope that is computed lazily.
+ */
+protected boolean canSearchConcurrently() {
+	return this.participant instanceof JavaSearchParticipant
+		&& (this.scope instanceof JavaSearchScope || this.scope instanceof JavaWorkspaceScope)
+		&& MatchLocator.canFindIndexMatchesConcurrently(this.pattern);
+}
 public Index[] getIndexes(IProgressMonitor progressMonitor) {
 	// acquire the in-memory indexes on the fly
 	IndexLocation[] indexLocations;
@@ -99,6 +221,9 @@ public String getJobFamily() {
 	return ""; //$NON-NLS-1$
 }
 public boolean search(Index index, IProgressMonitor progressMonitor) {
+	return search(index, this.requestor, progressMonitor);
+}
+protected boolean search(Index index, IndexQueryRequestor indexRequestor, IProgressMonitor progressMonitor) {
 	if (index == null) return COMPLETE;
 	if (progressMonitor != null && progressMonitor.isCanceled()) throw new OperationCanceledException();
 	ReadWriteMonitor monitor = index.monitor;
@@ -106,8 +231,11 @@ public boolean search(Index index, IProgressMonitor progressMonitor) {
 	try {
 		monitor.enterRead(); // ask permission to read
 		long start = System.currentTimeMillis();
-		MatchLocator.findIndexMatches(this.pattern, index, this.requestor, this.participant, this.scope, progressMonitor);
-		this.executionTime += System.currentTimeMillis() - start;
+		MatchLocator.findIndexMatches(this.pattern, index, indexRequestor, this.participant, this.scope, progressMonitor);
+		long time = System.currentTimeMillis() - start;
+		synchronized (this) {
+			this.executionTime += time;
+		}
 		return COMPLETE;
 	} catch (IOException e) {
 		if (e instanceof java.io.EOFException)
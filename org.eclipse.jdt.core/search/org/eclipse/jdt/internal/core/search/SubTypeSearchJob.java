@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,21 +12,26 @@ package org.eclipse.jdt.internal.core.search;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.search.*;
-import org.eclipse.jdt.internal.compiler.util.SimpleSet;
+import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
 import org.eclipse.jdt.internal.core.index.Index;
 
 public class SubTypeSearchJob extends PatternSearchJob {
 
-SimpleSet indexes = new SimpleSet(5);
+SimpleLookupTable indexes = new SimpleLookupTable(5); // maps each queried index to the disk index its query started on
 
 public SubTypeSearchJob(SearchPattern pattern, SearchParticipant participant, IJavaSearchScope scope, IndexQueryRequestor requestor) {
 	super(pattern, participant, scope, requestor);
 }
+protected boolean canSearchConcurrently() {
+	return false; // the queried indexes are recorded by #search(Index, IProgressMonitor)
+}
 public void finished() {
-	Object[] values = this.indexes.values;
-	for (int i = 0, l = values.length; i < l; i++)
-		if (values[i] != null)
-			((Index) values[i]).stopQuery();
+	Object[] keys = this.indexes.keyTable;
+	Object[] values = this.indexes.valueTable;
+	for (int i = 0, l = keys.length; i < l; i++)
+		if (keys[i] != null)
+			((Index) keys[i]).stopQuery((DiskIndex) values[i]);
 }
 public Index[] getIndexes(IProgressMonitor progressMonitor) {
 	if (this.indexes.elementSize == 0) {
@@ -34,13 +39,16 @@ public Index[] getIndexes(IProgressMonitor progressMonitor) {
 	}
 	this.areIndexesReady = true; // use stored indexes until the job's end
 	Index[] values = new Index[this.indexes.elementSize];
-	this.indexes.asArray(values);
+	Object[] keys = this.indexes.keyTable;
+	for (int i = 0, l = keys.length, index = 0; i < l; i++)
+		if (keys[i] != null)
+			values[index++] = (Index) keys[i];
 	return values;
 }
 public boolean search(Index index, IProgressMonitor progressMonitor) {
 	if (index == null) return COMPLETE;
-	if (this.indexes.addIfNotIncluded(index) == index)
-		index.startQuery();
+	if (!this.indexes.containsKey(index))
+		this.indexes.put(index, index.startQuery());
 	return super.search(index, progressMonitor);
 }
 }
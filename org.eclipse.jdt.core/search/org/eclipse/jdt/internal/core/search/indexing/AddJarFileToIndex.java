@@ -100,6 +100,10 @@ class AddJarFileToIndex extends IndexRequest {
 				return true;
 			}
 
+			// reuse the index of a jar with the same contents from the shared index store, unless the jar has an index file
+			if (this.manager.reuseSharedIndex(this.containerPath, getJarFile()))
+				return true;
+
 			index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 			if (index == null) {
 				if (JobManager.VERBOSE)
@@ -161,6 +165,23 @@ class AddJarFileToIndex extends IndexRequest {
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> indexing " + zip.getName()); //$NON-NLS-1$
 				long initialTime = System.currentTimeMillis();
 
+				// enumerate the entries of the jar once, to check the index and to index the class files
+				ZipEntry[] classFileEntries = new ZipEntry[Math.max(zip.size(), 1)];
+				int classFileCount = 0, entryCount = 0;
+				for (Enumeration e = zip.entries(); e.hasMoreElements();) {
+					ZipEntry ze = (ZipEntry) e.nextElement();
+					String zipEntryName = ze.getName();
+					if (Util.isClassFileName(zipEntryName)) {
+						classFileCount++;
+						if (isValidPackageNameForClass(zipEntryName)) {
+							// index only classes coming from valid packages - https://bugs.eclipse.org/bugs/show_bug.cgi?id=293861
+							if (entryCount == classFileEntries.length)
+								System.arraycopy(classFileEntries, 0, classFileEntries = new ZipEntry[entryCount * 2], 0, entryCount);
+							classFileEntries[entryCount++] = ze;
+						}
+					}
+				}
+
 				String[] paths = index.queryDocumentNames(""); // all file names //$NON-NLS-1$
 				if (paths != null) {
 					int max = paths.length;
@@ -174,14 +195,8 @@ class AddJarFileToIndex extends IndexRequest {
 					SimpleLookupTable indexedFileNames = new SimpleLookupTable(max == 0 ? 33 : max + 11);
 					for (int i = 0; i < max; i++)
 						indexedFileNames.put(paths[i], DELETED);
-					for (Enumeration e = zip.entries(); e.hasMoreElements();) {
-						// iterate each entry to index it
-						ZipEntry ze = (ZipEntry) e.nextElement();
-						String zipEntryName = ze.getName();
-						if (Util.isClassFileName(zipEntryName) && isValidPackageNameForClass(zipEntryName))
-								// the class file may not be there if the package name is not valid
-							indexedFileNames.put(zipEntryName, EXISTS);
-					}
+					for (int i = 0; i < entryCount; i++)
+						indexedFileNames.put(classFileEntries[i].getName(), EXISTS);
 					boolean needToReindex = indexedFileNames.elementSize != max; // a new file was added
 					if (!needToReindex) {
 						Object[] valueTable = indexedFileNames.valueTable;
@@ -197,6 +212,7 @@ class AddJarFileToIndex extends IndexRequest {
 								+ zip.getName() + " (" //$NON-NLS-1$
 								+ (System.currentTimeMillis() - initialTime) + "ms)"); //$NON-NLS-1$
 							this.manager.saveIndex(index); // to ensure its placed into the saved state
+							this.manager.shareIndex(index, zip);
 							return true;
 						}
 					}
@@ -216,25 +232,36 @@ class AddJarFileToIndex extends IndexRequest {
 				if ((indexLocation = index.getIndexLocation()) != null) {
 					indexPath = new Path(indexLocation.getCanonicalFilePath());
 				}
-				for (Enumeration e = zip.entries(); e.hasMoreElements();) {
-					if (this.isCancelled) {
+				// skip the method references of huge jars, see IndexManager.computeSharedIndexName(File)
+				boolean indexMethodReferences = classFileCount <= IndexManager.JAR_METHOD_REFERENCES_LIMIT;
+				int workers = Math.min(IndexManager.JAR_INDEXING_THREADS - 1, entryCount / ParallelBinaryIndexer.WINDOW);
+				if (workers > 0) {
+					if (!new ParallelBinaryIndexer(this, indexMethodReferences).index(zip, classFileEntries, entryCount, zipFilePath, participant, index, workers)) {
 						if (JobManager.VERBOSE)
 							org.eclipse.jdt.internal.core.util.Util.verbose("-> indexing of " + zip.getName() + " has been cancelled"); //$NON-NLS-1$ //$NON-NLS-2$
 						return false;
 					}
+				} else {
+					for (int i = 0; i < entryCount; i++) {
+						if (this.isCancelled) {
+							if (JobManager.VERBOSE)
+								org.eclipse.jdt.internal.core.util.Util.verbose("-> indexing of " + zip.getName() + " has been cancelled"); //$NON-NLS-1$ //$NON-NLS-2$
+							return false;
+						}
 
-					// iterate each entry to index it
-					ZipEntry ze = (ZipEntry) e.nextElement();
-					String zipEntryName = ze.getName();
-					if (Util.isClassFileName(zipEntryName) && 
-							isValidPackageNameForClass(zipEntryName)) {
-						// index only classes coming from valid packages - https://bugs.eclipse.org/bugs/show_bug.cgi?id=293861
+						ZipEntry ze = classFileEntries[i];
 						final byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
 						JavaSearchDocument entryDocument = new JavaSearchDocument(ze, zipFilePath, classFileBytes, participant);
-						this.manager.indexDocument(entryDocument, participant, index, indexPath);
+						if (indexMethodReferences) {
+							this.manager.indexDocument(entryDocument, participant, index, indexPath);
+						} else {
+							entryDocument.setIndex(index);
+							new BinaryIndexer(entryDocument, false).indexDocument();
+						}
 					}
 				}
 				this.manager.saveIndex(index);
+				this.manager.shareIndex(index, zip);
 				if (JobManager.VERBOSE)
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> done indexing of " //$NON-NLS-1$
 						+ zip.getName() + " (" //$NON-NLS-1$
@@ -257,6 +284,12 @@ class AddJarFileToIndex extends IndexRequest {
 		}
 		return true;
 	}
+	private File getJarFile() {
+		if (this.resource == null)
+			return this.containerPath.toFile(); // external jar
+		IPath location = this.resource.getLocation();
+		return location == null ? null : location.toFile();
+	}
 	public String getJobFamily() {
 		if (this.resource != null)
 			return super.getJobFamily();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,8 +42,18 @@ public class BinaryIndexer extends AbstractIndexer implements SuffixConstants {
 	private static final char[] VOID = "void".toCharArray(); //$NON-NLS-1$
 	private static final char[] INIT = "<init>".toCharArray(); //$NON-NLS-1$
 
+	private boolean indexMethodReferences;
+
 	public BinaryIndexer(SearchDocument document) {
+		this(document, true);
+	}
+	/**
+	 * Creates an indexer of the given class file, which does not index the methods it references if
+	 * <code>indexMethodReferences</code> is false.
+	 */
+	public BinaryIndexer(SearchDocument document, boolean indexMethodReferences) {
 		super(document);
+		this.indexMethodReferences = indexMethodReferences;
 	}
 	private void addBinaryStandardAnnotations(long annotationTagBits) {
 		if ((annotationTagBits & TagBits.AllStandardAnnotationsMask) == 0) {
@@ -597,7 +607,7 @@ public class BinaryIndexer extends AbstractIndexer implements SuffixConstants {
 						}
 						// add a constructor reference, use class name to extract arg count if it's a local type to remove synthetic parameter
 						addConstructorReference(className, extractArgCount(type, localType?className:null));
-					} else {
+					} else if (this.indexMethodReferences) {
 						// add a method reference
 						addMethodReference(name, extractArgCount(type, null));
 					}
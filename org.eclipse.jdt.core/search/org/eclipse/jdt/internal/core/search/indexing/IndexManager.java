@@ -12,8 +12,12 @@ package org.eclipse.jdt.internal.core.search.indexing;
 
 import java.io.*;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.IPath;
@@ -71,6 +75,22 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	public static final String MANAGE_PRODUCT_INDEXES_PROPERTY = "jdt.core.manageProductIndexes"; //$NON-NLS-1$
 	private static final boolean IS_MANAGING_PRODUCT_INDEXES_PROPERTY = Boolean.getBoolean(MANAGE_PRODUCT_INDEXES_PROPERTY);
 
+	// directory of jar indexes shared by workspaces, named after the contents of the jars, see computeSharedIndexName(File)
+	public static final String SHARED_INDEX_LOCATION_PROPERTY = "jdt.core.sharedIndexLocation"; //$NON-NLS-1$
+	private static final File SHARED_INDEX_DIRECTORY = System.getProperty(SHARED_INDEX_LOCATION_PROPERTY) == null
+		? null
+		: new File(System.getProperty(SHARED_INDEX_LOCATION_PROPERTY)).getAbsoluteFile();
+
+	// the number of threads updating different indexes at the same time
+	public static int INDEXING_THREADS = Integer.getInteger("jdt.core.indexingThreads", Math.min(4, Runtime.getRuntime().availableProcessors())).intValue(); //$NON-NLS-1$
+
+	// the number of threads indexing the class files of a jar, see ParallelBinaryIndexer
+	public static int JAR_INDEXING_THREADS = Integer.getInteger("jdt.core.jarIndexingThreads", Math.min(4, Runtime.getRuntime().availableProcessors())).intValue(); //$NON-NLS-1$
+
+	// the methods referenced by the class files of a jar are not indexed if it has more class files than this limit
+	public static final String JAR_METHOD_REFERENCES_LIMIT_PROPERTY = "jdt.core.jarMethodReferencesLimit"; //$NON-NLS-1$
+	public static int JAR_METHOD_REFERENCES_LIMIT = Integer.getInteger(JAR_METHOD_REFERENCES_LIMIT_PROPERTY, Integer.MAX_VALUE).intValue();
+
 	// Debug
 	public static boolean DEBUG = false;
 
@@ -173,6 +193,69 @@ public synchronized IndexLocation computeIndexLocation(IPath containerPath, fina
 	}
 	return indexLocation;
 }
+/**
+ * Answer the name of the index of the given jar in the shared index store, or null if there is no shared
+ * index store or the jar cannot be read.
+ * The name is a SHA-1 hash of the index format and of the central directory of the jar (the names, CRCs and
+ * sizes of its entries), so that jars with the same contents share their index wherever they are. Indexes
+ * without method references (see {@link #JAR_METHOD_REFERENCES_LIMIT}) have names of their own.
+ */
+String computeSharedIndexName(File jarFile) {
+	if (SHARED_INDEX_DIRECTORY == null || jarFile == null) return null;
+	ZipFile zip = null;
+	try {
+		zip = new ZipFile(jarFile);
+		return computeSharedIndexName(zip);
+	} catch (IOException e) {
+		if (VERBOSE)
+			Util.verbose("-> cannot compute the shared index name of " + jarFile); //$NON-NLS-1$
+		return null;
+	} finally {
+		if (zip != null) {
+			try {
+				zip.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+}
+/**
+ * Answer the name of the index of the given opened jar in the shared index store, or null if there is no
+ * shared index store, see computeSharedIndexName(File).
+ */
+String computeSharedIndexName(ZipFile zip) throws IOException {
+	if (SHARED_INDEX_DIRECTORY == null) return null;
+	try {
+		MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+		digest.update(DiskIndex.SIGNATURE.getBytes("UTF-8")); //$NON-NLS-1$
+		byte[] entryBytes = new byte[16];
+		int classFileCount = 0;
+		for (Enumeration e = zip.entries(); e.hasMoreElements();) {
+			ZipEntry entry = (ZipEntry) e.nextElement();
+			String entryName = entry.getName();
+			if (org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(entryName))
+				classFileCount++;
+			digest.update(entryName.getBytes("UTF-8")); //$NON-NLS-1$
+			long crc = entry.getCrc();
+			long size = entry.getSize();
+			for (int i = 0; i < 8; i++) {
+				entryBytes[i] = (byte) (crc >>> (i * 8));
+				entryBytes[i + 8] = (byte) (size >>> (i * 8));
+			}
+			digest.update(entryBytes);
+		}
+		if (classFileCount > JAR_METHOD_REFERENCES_LIMIT)
+			digest.update((byte) 0); // the index has no method references, see AddJarFileToIndex
+		byte[] hash = digest.digest();
+		StringBuffer name = new StringBuffer(hash.length * 2 + 6);
+		for (int i = 0, length = hash.length; i < length; i++)
+			name.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+		return name.append(".index").toString(); //$NON-NLS-1$
+	} catch (NoSuchAlgorithmException e) {
+		return null;
+	}
+}
 public synchronized IndexLocation computeIndexLocation(IPath containerPath) {
 	IndexLocation indexLocation = (IndexLocation) this.indexLocations.get(containerPath);
 	if (indexLocation == null) {
@@ -220,6 +303,15 @@ public synchronized void ensureIndexExists(IndexLocation indexLocation, IPath co
 		getIndex(containerPath, indexLocation, true, true);
 	}
 }
+/**
+ * Requests on different containers update different indexes, and can be executed at the same time.
+ */
+protected Object getConcurrencyKey(IJob job) {
+	return job instanceof IndexRequest ? ((IndexRequest) job).containerPath : null;
+}
+protected int helperThreadsCount() {
+	return Math.max(0, INDEXING_THREADS - 1);
+}
 public SourceElementParser getSourceElementParser(IJavaProject project, ISourceElementRequestor requestor) {
 	// disable task tags to speed up parsing
 	Map options = project.getOptions(true);
@@ -580,6 +672,77 @@ synchronized boolean addIndex(IPath containerPath, IndexLocation indexFile) {
 	return true;
 }
 
+/**
+ * Use the index of a jar with the same contents from the shared index store for the given jar, and answer whether it was found.
+ * The shared index is copied to the index file of the jar, so that every container has an index of its own.
+ * An index built by this workspace is kept, it is checked against the contents of the jar by AddJarFileToIndex.
+ */
+boolean reuseSharedIndex(IPath containerPath, File jarFile) {
+	if (SHARED_INDEX_DIRECTORY == null) return false;
+	IndexLocation indexLocation = computeIndexLocation(containerPath);
+	File indexFile = indexLocation.getIndexFile();
+	if (indexFile == null || indexLocation.exists()) return false;
+	String sharedIndexName = computeSharedIndexName(jarFile);
+	if (sharedIndexName == null) return false;
+	File sharedIndexFile = new File(SHARED_INDEX_DIRECTORY, sharedIndexName);
+	if (!sharedIndexFile.exists()) return false;
+	try {
+		if (!copyIndexFile(sharedIndexFile, indexFile)) return false;
+	} catch (IOException e) {
+		if (VERBOSE)
+			Util.verbose("-> cannot reuse shared index " + sharedIndexFile + " for " + containerPath); //$NON-NLS-1$ //$NON-NLS-2$
+		return false;
+	}
+	if (VERBOSE)
+		Util.verbose("-> reusing shared index " + sharedIndexFile + " for " + containerPath); //$NON-NLS-1$ //$NON-NLS-2$
+	return addIndex(containerPath, indexLocation);
+}
+/**
+ * Copy the saved index of the given opened jar to the shared index store, unless the store already has it.
+ * Must be called with the permission to write the index.
+ */
+void shareIndex(Index index, ZipFile zip) {
+	if (SHARED_INDEX_DIRECTORY == null) return;
+	File indexFile = index.getIndexFile();
+	if (indexFile == null || !indexFile.exists()) return;
+	try {
+		String sharedIndexName = computeSharedIndexName(zip);
+		if (sharedIndexName == null) return;
+		File sharedIndexFile = new File(SHARED_INDEX_DIRECTORY, sharedIndexName);
+		if (sharedIndexFile.exists()) return;
+		if (!SHARED_INDEX_DIRECTORY.exists())
+			SHARED_INDEX_DIRECTORY.mkdirs();
+		if (copyIndexFile(indexFile, sharedIndexFile) && VERBOSE)
+			Util.verbose("-> shared index " + indexFile + " as " + sharedIndexFile); //$NON-NLS-1$ //$NON-NLS-2$
+	} catch (IOException e) {
+		if (VERBOSE)
+			Util.verbose("-> cannot share index " + indexFile + " of " + zip.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
+/**
+ * Copy the given index file to the given target, and answer whether the target was created.
+ * The copy is renamed once complete, so that no one ever reads a partial index.
+ */
+private boolean copyIndexFile(File indexFile, File target) throws IOException {
+	File tempFile = File.createTempFile(target.getName(), ".tmp", target.getParentFile()); //$NON-NLS-1$
+	try {
+		byte[] contents = org.eclipse.jdt.internal.compiler.util.Util.getFileByteContent(indexFile);
+		FileOutputStream output = new FileOutputStream(tempFile);
+		try {
+			output.write(contents);
+		} finally {
+			output.close();
+		}
+		if (tempFile.renameTo(target)) {
+			tempFile = null;
+			return true;
+		}
+		return false;
+	} finally {
+		if (tempFile != null)
+			tempFile.delete(); // the target is read only, or someone else created it first
+	}
+}
 /**
  * Index the content of the given source folder.
  */
@@ -603,13 +766,13 @@ public synchronized void jobWasCancelled(IPath containerPath) {
 	updateIndexState(indexLocation, UNKNOWN_STATE);
 }
 /**
- * Advance to the next available job, once the current one has been completed.
+ * Remove the given job from the queue once it has been completed.
  * Note: clients awaiting until the job count is zero are still waiting at this point.
  */
-protected synchronized void moveToNextJob() {
+protected synchronized void jobFinished(IJob job) {
 	// remember that one job was executed, and we will need to save indexes at some point
 	this.needToSave = true;
-	super.moveToNextJob();
+	super.jobFinished(job);
 }
 /**
  * No more job awaiting.
@@ -861,9 +1024,9 @@ public void saveIndex(Index index) throws IOException {
 	synchronized (this) {
 		IPath containerPath = new Path(index.containerPath);
 		if (this.jobEnd > this.jobStart) {
-			for (int i = this.jobEnd; i > this.jobStart; i--) { // skip the current job
+			for (int i = this.jobEnd; i >= this.jobStart; i--) {
 				IJob job = this.awaitingJobs[i];
-				if (job instanceof IndexRequest)
+				if (job instanceof IndexRequest && !isJobRunning(job)) // skip the current jobs
 					if (((IndexRequest) job).containerPath.equals(containerPath)) return;
 			}
 		}
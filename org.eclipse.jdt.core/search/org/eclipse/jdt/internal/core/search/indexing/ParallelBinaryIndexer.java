@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.JavaSearchDocument;
+
+/**
+ * Indexes the class files of a jar as a pipeline.
+ * <p>
+ * The thread of the indexing job reads the class files one after the other, while worker threads run a
+ * {@link BinaryIndexer} on each of them. The index entries of a class file are recorded by its document,
+ * then added to the index by the thread of the job, in the order of the class files. At most
+ * {@link #WINDOW} class files are held in memory at once, and the thread of the job indexes class files too
+ * when it has nothing else to do.
+ * </p>
+ */
+class ParallelBinaryIndexer implements Runnable {
+
+	static final int WINDOW = 64;
+
+	/*
+	 * A class file whose index entries are recorded instead of being added to an index.
+	 */
+	static class ClassFileDocument extends JavaSearchDocument {
+		char[][] categories = new char[32][];
+		char[][] keys = new char[32][];
+		int entryCount = 0;
+		boolean indexed = false;
+
+		ClassFileDocument(ZipEntry zipEntry, IPath zipFilePath, byte[] contents, SearchParticipant participant) {
+			super(zipEntry, zipFilePath, contents, participant);
+		}
+		public void addIndexEntry(char[] category, char[] key) {
+			if (this.entryCount == this.keys.length) {
+				System.arraycopy(this.categories, 0, this.categories = new char[this.entryCount * 2][], 0, this.entryCount);
+				System.arraycopy(this.keys, 0, this.keys = new char[this.entryCount * 2][], 0, this.entryCount);
+			}
+			this.categories[this.entryCount] = category;
+			this.keys[this.entryCount++] = key;
+		}
+		public void removeAllIndexEntries() {
+			this.entryCount = 0;
+		}
+	}
+
+	private AddJarFileToIndex job;
+	private boolean indexMethodReferences;
+	private ClassFileDocument[] documents = new ClassFileDocument[WINDOW];
+	// the documents between merged and read are in the window, the ones between taken and read wait for a worker
+	private int read = 0;
+	private int taken = 0;
+	private int merged = 0;
+	private boolean done = false;
+	private Throwable failure; // an error met by a worker
+
+ParallelBinaryIndexer(AddJarFileToIndex job, boolean indexMethodReferences) {
+	this.job = job;
+	this.indexMethodReferences = indexMethodReferences;
+}
+/**
+ * Index the given class files of the given jar into the given index with the given number of worker threads,
+ * and answer false if the job was cancelled meanwhile.
+ */
+boolean index(ZipFile zip, ZipEntry[] entries, int length, IPath zipFilePath, SearchParticipant participant, Index index, int workers) throws IOException {
+	for (int i = 0; i < workers; i++) {
+		Thread thread = new Thread(this, "Java indexing: " + zip.getName()); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.currentThread().getPriority());
+		thread.start();
+	}
+	try {
+		int next = 0;
+		while (this.merged < length) {
+			if (this.job.isCancelled) return false;
+			ClassFileDocument document = null;
+			boolean merge = false;
+			synchronized (this) {
+				if (this.failure instanceof Error) throw (Error) this.failure;
+				if (this.failure instanceof RuntimeException) throw (RuntimeException) this.failure;
+				ClassFileDocument first = this.documents[this.merged % WINDOW];
+				if (first != null && first.indexed) {
+					this.documents[this.merged++ % WINDOW] = null;
+					document = first;
+					merge = true;
+				} else if (next < length && next - this.merged < WINDOW) {
+					// read the next class file
+				} else if (this.taken < this.read) {
+					document = this.documents[this.taken++ % WINDOW]; // no worker is free to take it
+				} else {
+					try {
+						wait(); // until a worker has indexed the next document to merge
+					} catch (InterruptedException e) {
+						// ignore
+					}
+					continue;
+				}
+			}
+			if (merge) {
+				String relativePath = index.containerRelativePath(document.getPath());
+				for (int i = 0, count = document.entryCount; i < count; i++)
+					index.addIndexEntry(document.categories[i], document.keys[i], relativePath);
+			} else if (document != null) {
+				indexDocument(document);
+			} else {
+				ZipEntry entry = entries[next];
+				byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(entry, zip);
+				synchronized (this) {
+					this.documents[next % WINDOW] = new ClassFileDocument(entry, zipFilePath, classFileBytes, participant);
+					this.read = ++next;
+					notifyAll();
+				}
+			}
+		}
+		return true;
+	} finally {
+		synchronized (this) {
+			this.done = true;
+			notifyAll(); // stop the workers
+		}
+	}
+}
+/*
+ * Index the given document taken by the current thread, and wake up the thread of the job.
+ */
+private void indexDocument(ClassFileDocument document) {
+	try {
+		new BinaryIndexer(document, this.indexMethodReferences).indexDocument();
+	} catch (RuntimeException e) {
+		recordFailure(e);
+	} catch (Error e) {
+		recordFailure(e);
+	} finally {
+		synchronized (this) {
+			document.indexed = true;
+			notifyAll();
+		}
+	}
+}
+private synchronized void recordFailure(Throwable e) {
+	if (this.failure == null)
+		this.failure = e;
+}
+public void run() {
+	while (true) {
+		ClassFileDocument document;
+		synchronized (this) {
+			while (this.taken == this.read && !this.done) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}
+			if (this.done) return;
+			document = this.documents[this.taken++ % WINDOW];
+		}
+		indexDocument(document);
+	}
+}
+}
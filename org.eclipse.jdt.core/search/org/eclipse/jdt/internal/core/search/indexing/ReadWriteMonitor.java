@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,12 +22,17 @@ public class ReadWriteMonitor {
  * >0 : reading (number of concurrent readers)
  */
 private int status = 0;
+/**
+ * Set while a reader waits to become the writer in exitReadEnterWriteWhenAlone(),
+ * so that new readers cannot keep it waiting
+ */
+private boolean readerWaitingToWrite = false;
 /**
  * Concurrent reading is allowed
- * Blocking only when already writing.
+ * Blocking only when already writing, or when a reader waits to write.
  */
 public synchronized void enterRead() {
-	while (this.status < 0) {
+	while (this.status < 0 || this.readerWaitingToWrite) {
 		try {
 			wait();
 		} catch(InterruptedException e) {
@@ -51,11 +56,12 @@ public synchronized void enterWrite() {
 	this.status--;
 }
 /**
- * Only notify waiting writer(s) if last reader
+ * Only notify waiting writer(s) if last reader, or if the remaining reader
+ * waits in exitReadEnterWriteWhenAlone()
  */
 public synchronized void exitRead() {
 
-	if (--this.status == 0) notifyAll();
+	if (--this.status <= 1) notifyAll();
 }
 /**
  * When writing is over, all readers and possible
@@ -77,6 +83,33 @@ public synchronized boolean exitReadEnterWrite() {
 	this.status = -1;
 	return true;
 }
+/**
+ * Atomic exitRead/enterWrite once all the other readers are done: the opposite of
+ * exitWriteEnterRead(), for a writer which lets readers in while it keeps other writers out.
+ * The caller must be a reader, and no other reader may wait in this method at the same time.
+ */
+public synchronized void exitReadEnterWriteWhenAlone() {
+	this.readerWaitingToWrite = true;
+	while (this.status != 1) {
+		try {
+			wait();
+		} catch(InterruptedException e) {
+			// ignore
+		}
+	}
+	this.readerWaitingToWrite = false;
+	this.status = -1;
+}
+/**
+ * Atomic exitWrite/enterRead as exitWriteEnterRead(), if the monitor is writing.
+ * Returns false and leaves the monitor unchanged otherwise.
+ */
+public synchronized boolean exitWriteEnterReadIfWriting() {
+	if (this.status >= 0) return false;
+
+	exitWriteEnterRead();
+	return true;
+}
 /**
  * Atomic exitWrite/enterRead: Allows to keep monitor in between
  * exit write and next enter read.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,8 +32,9 @@ public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchP
 
 	resetQuery();
 	SimpleSet intersectedNames = null;
+	DiskIndex queriedDiskIndex = null;
 	try {
-		index.startQuery();
+		queriedDiskIndex = index.startQuery();
 		do {
 			SearchPattern pattern = currentPattern();
 			EntryResult[] entries = pattern.queryIn(index);
@@ -63,7 +64,7 @@ public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchP
 			intersectedNames = newIntersectedNames;
 		} while (hasNextQuery());
 	} finally {
-		index.stopQuery();
+		index.stopQuery(queriedDiskIndex);
 	}
 
 	String containerPath = index.containerPath;
@@ -273,6 +273,21 @@ public static void findIndexMatches(SearchPattern pattern, Index index, IndexQue
 	pattern.findIndexMatches(index, requestor, participant, scope, monitor);
 }
 
+/**
+ * Answer whether the index matches of the given pattern can be found in several indexes at the same time.
+ * Intersecting patterns keep the state of their current query, and client patterns are not known.
+ */
+public static boolean canFindIndexMatchesConcurrently(SearchPattern pattern) {
+	if (pattern instanceof OrPattern) {
+		SearchPattern[] patterns = ((OrPattern) pattern).patterns;
+		for (int i = 0, length = patterns.length; i < length; i++)
+			if (!canFindIndexMatchesConcurrently(patterns[i]))
+				return false;
+		return true;
+	}
+	return pattern instanceof JavaSearchPattern && !(pattern instanceof IntersectingPattern);
+}
+
 public static IJavaElement getProjectOrJar(IJavaElement element) {
 	while (!(element instanceof IJavaProject) && !(element instanceof JarPackageFragmentRoot)) {
 		element = element.getParent();
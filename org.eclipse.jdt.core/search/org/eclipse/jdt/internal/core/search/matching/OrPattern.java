@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ import java.io.IOException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.search.*;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
 import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.search.IndexQueryRequestor;
 import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
@@ -55,12 +56,13 @@ public class OrPattern extends SearchPattern implements IIndexConstants {
 	}
 	public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchParticipant participant, IJavaSearchScope scope, IProgressMonitor progressMonitor) throws IOException {
 		// per construction, OR pattern can only be used with a PathCollector (which already gather results using a set)
+		DiskIndex queriedDiskIndex = null;
 		try {
-			index.startQuery();
+			queriedDiskIndex = index.startQuery();
 			for (int i = 0, length = this.patterns.length; i < length; i++)
 				this.patterns[i].findIndexMatches(index, requestor, participant, scope, progressMonitor);
 		} finally {
-			index.stopQuery();
+			index.stopQuery(queriedDiskIndex);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,21 +10,39 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.search.processing;
 
+import java.util.HashSet;
+
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.internal.core.util.Messages;
 import org.eclipse.jdt.internal.core.util.Util;
 
+/**
+ * Runs background jobs in the order they are requested.
+ * <p>
+ * Jobs are executed by the processing thread and by as many helper threads as {@link #helperThreadsCount()} answers.
+ * A job that has a concurrency key (see {@link #getConcurrencyKey(IJob)}) may run at the same time as the jobs that
+ * have other keys, but after all the jobs with the same key that were requested before it. A job without a key
+ * runs alone, once all the jobs requested before it have completed.
+ * </p>
+ */
 public abstract class JobManager implements Runnable {
 
-	/* queue of jobs to execute */
+	/* queue of jobs to execute, including the running ones until they complete */
 	protected IJob[] awaitingJobs = new IJob[10];
 	protected int jobStart = 0;
 	protected int jobEnd = -1;
-	protected boolean executing = false;
+
+	/* job run by each thread, the processing thread first, or null if the thread is not running a job;
+	   cleared without synchronization, so that jobs can be awaited while holding the lock of the manager */
+	private IJob[] runningJobs = new IJob[1];
+
+	/* the number of queued jobs that are looked at when searching for a job to run */
+	private static final int MAX_LOOKAHEAD = 64;
 
 	/* background processing */
 	protected Thread processingThread;
+	protected Thread[] helperThreads;
 	protected Job progressJob;
 
 	/* counter indicating whether job execution is enabled or not, disabled if <= 0
@@ -37,6 +55,29 @@ public abstract class JobManager implements Runnable {
 
 	private int awaitingClients = 0;
 
+	class ProgressJob extends Job {
+		ProgressJob(String name) {
+			super(name);
+		}
+		protected IStatus run(IProgressMonitor monitor) {
+			IJob job = currentJob();
+			while (!monitor.isCanceled() && job != null) {
+				 String taskName = new StringBuffer(Messages.jobmanager_indexing)
+					.append(Messages.bind(Messages.jobmanager_filesToIndex, job.getJobFamily(), Integer.toString(awaitingJobsCount())))
+					.toString();
+				monitor.subTask(taskName);
+				setName(taskName);
+				try {
+					Thread.sleep(500);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+				job = currentJob();
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	/**
 	 * Invoked exactly once, in background, before starting processing any job
 	 */
@@ -75,16 +116,23 @@ public abstract class JobManager implements Runnable {
 
 		try {
 			IJob currentJob;
-			// cancel current job if it belongs to the given family
+			// cancel the running jobs that belong to the given family
+			IJob[] cancelledJobs = new IJob[this.runningJobs.length];
+			int cancelledCount = 0;
 			synchronized(this){
-				currentJob = currentJob();
 				disable();
+				for (int i = 0, length = this.runningJobs.length; i < length; i++) {
+					currentJob = this.runningJobs[i];
+					if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily)))
+						cancelledJobs[cancelledCount++] = currentJob;
+				}
 			}
-			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
+			for (int i = 0; i < cancelledCount; i++) {
+				currentJob = cancelledJobs[i];
 				currentJob.cancel();
 
-				// wait until current active job has finished
-				while (this.processingThread != null && this.executing){
+				// wait until the job has finished
+				while (this.processingThread != null && isJobRunning(currentJob)){
 					try {
 						if (VERBOSE)
 							Util.verbose("-> waiting end of current background job - " + currentJob); //$NON-NLS-1$
@@ -102,7 +150,7 @@ public abstract class JobManager implements Runnable {
 					currentJob = this.awaitingJobs[i];
 					if (currentJob != null) { // sanity check
 						this.awaitingJobs[i] = null;
-						if (!(jobFamily == null || currentJob.belongsTo(jobFamily))) { // copy down, compacting
+						if (!(jobFamily == null || currentJob.belongsTo(jobFamily)) || isJobRunning(currentJob)) { // copy down, compacting
 							this.awaitingJobs[++loc] = currentJob;
 						} else {
 							if (VERBOSE)
@@ -126,25 +174,83 @@ public abstract class JobManager implements Runnable {
 			Util.verbose("ENABLING  background indexing"); //$NON-NLS-1$
 		notifyAll(); // wake up the background thread if it is waiting (context must be synchronized)
 	}
+	/**
+	 * Answer the key of the resource that the given job updates: jobs with different keys are independent and may run
+	 * at the same time, jobs with the same key run in the order they were requested, and a job with a null key
+	 * runs alone. Jobs have no key by default.
+	 */
+	protected Object getConcurrencyKey(IJob job) {
+		return null;
+	}
+	/**
+	 * Answer the number of threads that run jobs in addition to the processing thread.
+	 */
+	protected int helperThreadsCount() {
+		return 0;
+	}
+	/**
+	 * Answer whether the given job is being executed. Does not need to be called with the lock of the manager.
+	 */
+	protected boolean isJobRunning(IJob job) {
+		IJob[] jobs = this.runningJobs;
+		for (int i = 0, length = jobs.length; i < length; i++)
+			if (jobs[i] == job) return true;
+		return false;
+	}
 	protected synchronized boolean isJobWaiting(IJob request) {
-		for (int i = this.jobEnd; i > this.jobStart; i--) // don't check job at jobStart, as it may have already started
-			if (request.equals(this.awaitingJobs[i])) return true;
+		for (int i = this.jobEnd; i >= this.jobStart; i--) // don't check the running jobs, they have already started
+			if (request.equals(this.awaitingJobs[i]) && !isJobRunning(this.awaitingJobs[i])) return true;
 		return false;
 	}
 	/**
-	 * Advance to the next available job, once the current one has been completed.
+	 * Remove the given job from the queue once it has been completed.
 	 * Note: clients awaiting until the job count is zero are still waiting at this point.
 	 */
-	protected synchronized void moveToNextJob() {
-		//if (!enabled) return;
-
-		if (this.jobStart <= this.jobEnd) {
-			this.awaitingJobs[this.jobStart++] = null;
-			if (this.jobStart > this.jobEnd) {
-				this.jobStart = 0;
-				this.jobEnd = -1;
+	protected synchronized void jobFinished(IJob job) {
+		// no longer running once it has left the queue, else another thread could start it again in between
+		for (int i = 0, length = this.runningJobs.length; i < length; i++)
+			if (this.runningJobs[i] == job)
+				this.runningJobs[i] = null;
+		for (int i = this.jobStart; i <= this.jobEnd; i++) {
+			if (this.awaitingJobs[i] == job) {
+				if (i == this.jobStart) {
+					this.awaitingJobs[this.jobStart++] = null;
+				} else {
+					System.arraycopy(this.awaitingJobs, i + 1, this.awaitingJobs, i, this.jobEnd - i);
+					this.awaitingJobs[this.jobEnd--] = null;
+				}
+				if (this.jobStart > this.jobEnd) {
+					this.jobStart = 0;
+					this.jobEnd = -1;
+				}
+				break;
+			}
+		}
+		notifyAll(); // wake up the threads waiting for the jobs with the same key
+	}
+	/*
+	 * Answer the next job that the given thread can run and mark it as running, or null if none can start yet.
+	 */
+	private IJob startNextJob(int thread) {
+		if (this.enableCount <= 0) return null;
+		int running = 0;
+		for (int i = 0, length = this.runningJobs.length; i < length; i++)
+			if (this.runningJobs[i] != null) running++;
+		HashSet busyKeys = null;
+		for (int i = this.jobStart, end = Math.min(this.jobEnd, this.jobStart + MAX_LOOKAHEAD); i <= end; i++) {
+			IJob job = this.awaitingJobs[i];
+			Object key = getConcurrencyKey(job);
+			if (key == null) {
+				if (running > 0) return null; // waits for the running jobs, and is waited for by the next ones
+			} else {
+				if (busyKeys == null)
+					busyKeys = new HashSet();
+				if (!busyKeys.add(key) || isJobRunning(job)) continue; // runs after another job with the same key
 			}
+			this.runningJobs[thread] = job;
+			return job;
 		}
+		return null;
 	}
 	/**
 	 * When idle, give chance to do something
@@ -216,7 +322,7 @@ public abstract class JobManager implements Runnable {
 							int originalPriority = t == null ? -1 : t.getPriority();
 							try {
 								if (t != null)
-									t.setPriority(Thread.currentThread().getPriority());
+									setThreadsPriority(t, Thread.currentThread().getPriority());
 								synchronized(this) {
 									this.awaitingClients++;
 								}
@@ -265,8 +371,8 @@ public abstract class JobManager implements Runnable {
 								synchronized(this) {
 									this.awaitingClients--;
 								}
-								if (t != null && originalPriority > -1 && t.isAlive())
-									t.setPriority(originalPriority);
+								if (t != null && originalPriority > -1)
+									setThreadsPriority(t, originalPriority);
 							}
 						} finally {
 							if (subProgress != null)
@@ -321,13 +427,21 @@ public abstract class JobManager implements Runnable {
 			discardJobs(null); // discard all jobs
 		} else {
 			/* initiate background processing */
-			this.processingThread = new Thread(this, processName());
-			this.processingThread.setDaemon(true);
-			// less prioritary by default, priority is raised if clients are actively waiting on it
-			this.processingThread.setPriority(Thread.NORM_PRIORITY-1);
-			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=296343
-			// set the context loader to avoid leaking the current context loader
-			this.processingThread.setContextClassLoader(this.getClass().getClassLoader());
+			if (this.helperThreads == null) { // the helper threads survive a crash of the processing thread
+				int helpers = helperThreadsCount();
+				this.runningJobs = new IJob[1 + helpers];
+				this.helperThreads = new Thread[helpers];
+				for (int i = 0; i < helpers; i++) {
+					final int thread = i + 1;
+					this.helperThreads[i] = newThread(new Runnable() {
+						public void run() {
+							runHelper(thread);
+						}
+					});
+					this.helperThreads[i].start();
+				}
+			}
+			this.processingThread = newThread(this);
 			this.processingThread.start();
 		}
 	}
@@ -339,79 +453,42 @@ public abstract class JobManager implements Runnable {
 		long idlingStart = -1;
 		activateProcessing();
 		try {
-			class ProgressJob extends Job {
-				ProgressJob(String name) {
-					super(name);
-				}
-				protected IStatus run(IProgressMonitor monitor) {
-					IJob job = currentJob();
-					while (!monitor.isCanceled() && job != null) {
-						 String taskName = new StringBuffer(Messages.jobmanager_indexing)
-							.append(Messages.bind(Messages.jobmanager_filesToIndex, job.getJobFamily(), Integer.toString(awaitingJobsCount())))
-							.toString();
-						monitor.subTask(taskName);
-						setName(taskName);
-						try {
-							Thread.sleep(500);
-						} catch (InterruptedException e) {
-							// ignore
-						}
-						job = currentJob();
-					}
-					return Status.OK_STATUS;
-				}
-			}
 			this.progressJob = null;
 			while (this.processingThread != null) {
 				try {
 					IJob job;
+					boolean idle = false;
 					synchronized (this) {
 						// handle shutdown case when notifyAll came before the wait but after the while loop was entered
 						if (this.processingThread == null) continue;
 
 						// must check for new job inside this sync block to avoid timing hole
-						if ((job = currentJob()) == null) {
-							if (this.progressJob != null) {
-								this.progressJob.cancel();
-								this.progressJob = null;
+						if ((job = startNextJob(0)) == null) {
+							if (currentJob() == null) {
+								idle = true;
+								if (this.progressJob != null) {
+									this.progressJob.cancel();
+									this.progressJob = null;
+								}
+								if (idlingStart < 0)
+									idlingStart = System.currentTimeMillis();
+								else
+									notifyIdle(System.currentTimeMillis() - idlingStart);
 							}
-							if (idlingStart < 0)
-								idlingStart = System.currentTimeMillis();
-							else
-								notifyIdle(System.currentTimeMillis() - idlingStart);
-							this.wait(); // wait until a new job is posted (or reenabled:38901)
+							this.wait(); // wait until a new job is posted (or reenabled:38901), or a running one has completed
 						} else {
 							idlingStart = -1;
 						}
 					}
 					if (job == null) {
-						notifyIdle(System.currentTimeMillis() - idlingStart);
-						// just woke up, delay before processing any new jobs, allow some time for the active thread to finish
-						Thread.sleep(500);
-						continue;
-					}
-					if (VERBOSE) {
-						Util.verbose(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
-						Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
-					}
-					try {
-						this.executing = true;
-						if (this.progressJob == null) {
-							this.progressJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
-							this.progressJob.setPriority(Job.LONG);
-							this.progressJob.setSystem(true);
-							this.progressJob.schedule();
+						if (idle) {
+							notifyIdle(System.currentTimeMillis() - idlingStart);
+							// just woke up, delay before processing any new jobs, allow some time for the active thread to finish
+							Thread.sleep(500);
 						}
-						/*boolean status = */job.execute(null);
-						//if (status == FAILED) request(job);
-					} finally {
-						this.executing = false;
-						if (VERBOSE)
-							Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
-						moveToNextJob();
-						if (this.awaitingClients == 0)
-							Thread.sleep(50);
+						continue;
 					}
+					executeJob(job);
 				} catch (InterruptedException e) { // background indexing was interrupted
 				}
 			}
@@ -439,8 +516,87 @@ public abstract class JobManager implements Runnable {
 			throw e;
 		}
 	}
+	/*
+	 * Loop of a helper thread, running the jobs that can start until the job manager is shut down
+	 */
+	void runHelper(int thread) {
+		while (this.helperThreads != null) {
+			try {
+				IJob job;
+				synchronized (this) {
+					if (this.helperThreads == null) return;
+					if ((job = startNextJob(thread)) == null) {
+						this.wait(); // wait until a new job is posted, or a running one has completed
+						continue;
+					}
+				}
+				executeJob(job);
+			} catch (InterruptedException e) { // background indexing was interrupted
+			} catch (RuntimeException e) {
+				if (this.helperThreads != null) { // if not shutting down
+					Util.log(e, "Background Indexer Crash Recovery"); //$NON-NLS-1$
+					discardJobs(null); // keep job manager alive, some indexes will be inconsistent
+				}
+			} catch (Error e) {
+				if (e instanceof ThreadDeath) throw e;
+				if (this.helperThreads != null) { // if not shutting down
+					Util.log(e, "Background Indexer Crash Recovery"); //$NON-NLS-1$
+					discardJobs(null); // keep job manager alive, some indexes will be inconsistent
+				}
+			}
+		}
+	}
+	/*
+	 * Execute the given job, which the current thread has started
+	 */
+	private void executeJob(IJob job) throws InterruptedException {
+		if (VERBOSE) {
+			Util.verbose(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
+			Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
+		}
+		try {
+			startProgressJob();
+			/*boolean status = */job.execute(null);
+			//if (status == FAILED) request(job);
+		} finally {
+			if (VERBOSE)
+				Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
+			jobFinished(job);
+			if (this.awaitingClients == 0)
+				Thread.sleep(50);
+		}
+	}
+	private Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, processName());
+		thread.setDaemon(true);
+		// less prioritary by default, priority is raised if clients are actively waiting on it
+		thread.setPriority(Thread.NORM_PRIORITY-1);
+		// https://bugs.eclipse.org/bugs/show_bug.cgi?id=296343
+		// set the context loader to avoid leaking the current context loader
+		thread.setContextClassLoader(this.getClass().getClassLoader());
+		return thread;
+	}
+	private void setThreadsPriority(Thread thread, int priority) {
+		if (thread.isAlive())
+			thread.setPriority(priority);
+		Thread[] helpers = this.helperThreads;
+		if (helpers != null)
+			for (int i = 0, length = helpers.length; i < length; i++)
+				if (helpers[i].isAlive())
+					helpers[i].setPriority(priority);
+	}
+	private void startProgressJob() {
+		Job job;
+		synchronized (this) {
+			if (this.progressJob != null) return;
+			job = this.progressJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		job.setPriority(Job.LONG);
+		job.setSystem(true);
+		job.schedule();
+	}
 	/**
-	 * Stop background processing, and wait until the current job is completed before returning
+	 * Stop background processing, and wait until the current jobs are completed before returning
 	 */
 	public void shutdown() {
 
@@ -448,16 +604,21 @@ public abstract class JobManager implements Runnable {
 			Util.verbose("Shutdown"); //$NON-NLS-1$
 
 		disable();
-		discardJobs(null); // will wait until current executing job has completed
+		discardJobs(null); // will wait until current executing jobs have completed
 		Thread thread = this.processingThread;
+		Thread[] helpers = this.helperThreads;
 		try {
 			if (thread != null) { // see http://bugs.eclipse.org/bugs/show_bug.cgi?id=31858
 				synchronized (this) {
-					this.processingThread = null; // mark the job manager as shutting down so that the thread will stop by itself
-					notifyAll(); // ensure its awake so it can be shutdown
+					this.processingThread = null; // mark the job manager as shutting down so that the threads will stop by themselves
+					this.helperThreads = null;
+					notifyAll(); // ensure they are awake so they can be shutdown
 				}
-				// in case processing thread is handling a job
+				// in case processing threads are handling a job
 				thread.join();
+				if (helpers != null)
+					for (int i = 0, length = helpers.length; i < length; i++)
+						helpers[i].join();
 			}
 			Job job = this.progressJob;
 			if (job != null) {